@@ -0,0 +1,59 @@
+package com.fileconverter.bench;
+
+import com.fileconverter.model.ConversionResult;
+import com.fileconverter.service.ConversionService;
+import com.fileconverter.service.FileBackedMultipartFile;
+import com.fileconverter.service.LibreOfficePool;
+import com.fileconverter.service.OutputStore;
+import com.fileconverter.service.PdfCompressor;
+import com.fileconverter.service.PdfImageAssembler;
+import com.fileconverter.service.PdfMerger;
+import com.fileconverter.service.PdfPageRenderer;
+import com.fileconverter.service.PdfTextExtractor;
+import com.fileconverter.service.PixelKernels;
+import com.fileconverter.service.ResultCache;
+import com.fileconverter.service.SpreadsheetConverter;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Wires a {@link ConversionService} for the in-JVM converters without starting Spring: the
+ * LibreOffice pool is never started and the result cache is off, so every invocation does
+ * the full conversion.
+ */
+final class BenchSupport {
+
+    private BenchSupport() {
+    }
+
+    static ConversionService conversionService() {
+        return conversionService(64);
+    }
+
+    /** @param mergeMemoryMb stream data pdf-merge keeps in memory before spilling to disk */
+    static ConversionService conversionService(int mergeMemoryMb) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        return new ConversionService(new LibreOfficePool(), new PdfPageRenderer(threads),
+                new PdfTextExtractor(threads), new PdfCompressor(threads), new PdfMerger(mergeMemoryMb),
+                new PdfImageAssembler(threads), new PixelKernels(threads, true), new SpreadsheetConverter(500, threads),
+                new ResultCache(false, 0), new OutputStore(60, 1024 * 1024, 30, 30));
+    }
+
+    static MultipartFile upload(Path path, String contentType) {
+        return new FileBackedMultipartFile(path, path.getFileName().toString(), contentType);
+    }
+
+    /** Deletes the output so repeated invocations don't fill the disk; returns its size for the blackhole. */
+    static long consume(ConversionResult result) throws IOException {
+        if (!result.isSuccess())
+            throw new IllegalStateException(result.getMessage());
+        Path out = result.getOutputPath();
+        long size = Files.size(out);
+        Files.deleteIfExists(out);
+        Files.deleteIfExists(out.getParent());
+        return size;
+    }
+}
@@ -0,0 +1,56 @@
+package com.fileconverter.bench;
+
+import com.fileconverter.model.ConversionOptions;
+import com.fileconverter.service.ConversionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/** CSV ⇄ JSON through the streaming converters. Pass {@code -p size=1GB} for the largest inputs. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class CsvJsonBenchmark {
+
+    @Param({"1KB", "1MB", "64MB"})
+    public String size;
+
+    private ConversionService service;
+    private Path csv;
+    private Path json;
+    private ConversionOptions options;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        service = BenchSupport.conversionService();
+        csv = Fixtures.csv(size);
+        json = Fixtures.json(size);
+        options = new ConversionOptions();
+    }
+
+    @Benchmark
+    public long csvToJson() throws IOException {
+        return BenchSupport.consume(service.csvToJson(BenchSupport.upload(csv, "text/csv"), options));
+    }
+
+    @Benchmark
+    public long jsonToCsv() throws IOException {
+        return BenchSupport.consume(service.jsonToCsv(BenchSupport.upload(json, "application/json")));
+    }
+}
@@ -0,0 +1,242 @@
+package com.fileconverter.bench;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Deterministic benchmark inputs. Every fixture is generated from a fixed seed, so the same
+ * name always has the same bytes, and is cached under {@code bench.fixtures}
+ * (default {@code java.io.tmpdir/file-converter-bench}) across runs and forks.
+ */
+public final class Fixtures {
+
+    private static final Path DIR = Path.of(System.getProperty("bench.fixtures",
+            Path.of(System.getProperty("java.io.tmpdir"), "file-converter-bench").toString()));
+    private static final long SEED = 42;
+    private static final String[] WORDS = {"alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf",
+            "hotel", "india", "juliet", "kilo", "lima", "mike", "november", "oscar", "papa"};
+
+    private Fixtures() {
+    }
+
+    /** Parses sizes such as {@code 1KB}, {@code 10MB} or {@code 1GB}. */
+    public static long parseSize(String size) {
+        String s = size.trim().toUpperCase(Locale.ROOT);
+        long unit = 1;
+        if (s.endsWith("GB")) {
+            unit = 1L << 30;
+        } else if (s.endsWith("MB")) {
+            unit = 1L << 20;
+        } else if (s.endsWith("KB")) {
+            unit = 1L << 10;
+        }
+        return Long.parseLong(s.replaceAll("[A-Z]", "")) * unit;
+    }
+
+    /** A CSV with a header and mixed text/number/boolean columns, at least {@code size} long. */
+    public static Path csv(String size) throws IOException {
+        long bytes = parseSize(size);
+        return cached("table_" + size + ".csv", target -> {
+            Random random = new Random(SEED);
+            try (Writer w = writer(target)) {
+                w.write("id,name,city,amount,active,notes\n");
+                long written = 0;
+                for (long row = 1; written < bytes; row++) {
+                    String line = row + "," + word(random) + " " + word(random) + "," + word(random) + ","
+                            + random.nextInt(100_000) / 100.0 + "," + random.nextBoolean() + ",\""
+                            + word(random) + ", " + word(random) + "\"\n";
+                    w.write(line);
+                    written += line.length();
+                }
+            }
+        });
+    }
+
+    /** A JSON array of objects with a nested object and an array, at least {@code size} long. */
+    public static Path json(String size) throws IOException {
+        long bytes = parseSize(size);
+        return cached("records_" + size + ".json", target -> {
+            Random random = new Random(SEED);
+            try (Writer w = writer(target)) {
+                w.write("[\n");
+                long written = 0;
+                for (long row = 1; written < bytes; row++) {
+                    String obj = (row > 1 ? ",\n" : "") + "{\"id\": " + row + ", \"name\": \"" + word(random)
+                            + "\", \"amount\": " + random.nextInt(100_000) / 100.0 + ", \"active\": "
+                            + random.nextBoolean() + ", \"address\": {\"city\": \"" + word(random)
+                            + "\", \"zip\": \"0" + random.nextInt(9999) + "\"}, \"tags\": [\"" + word(random)
+                            + "\", \"" + word(random) + "\"]}";
+                    w.write(obj);
+                    written += obj.length();
+                }
+                w.write("\n]\n");
+            }
+        });
+    }
+
+    /** A Markdown document of headings, paragraphs, lists and inline formatting. */
+    public static Path markdown(String size) throws IOException {
+        long bytes = parseSize(size);
+        return cached("doc_" + size + ".md", target -> {
+            Random random = new Random(SEED);
+            try (Writer w = writer(target)) {
+                long written = 0;
+                for (int section = 1; written < bytes; section++) {
+                    StringBuilder sb = new StringBuilder();
+                    sb.append("## Section ").append(section).append("\n\n");
+                    for (int i = 0; i < 40; i++) {
+                        sb.append(word(random)).append(i % 7 == 0 ? " **" + word(random) + "** " : " ");
+                    }
+                    sb.append("`").append(word(random)).append("`\n\n");
+                    for (int i = 0; i < 5; i++) {
+                        sb.append("- ").append(word(random)).append(" *").append(word(random)).append("*\n");
+                    }
+                    sb.append('\n');
+                    w.write(sb.toString());
+                    written += sb.length();
+                }
+            }
+        });
+    }
+
+    /** A photo-like RGB image (gradients plus noise, so it does not compress to nothing). */
+    public static Path image(int megapixels, String format) throws IOException {
+        return cached("image_" + megapixels + "mp." + format, target -> {
+            int width = (int) Math.round(Math.sqrt(megapixels * 1_000_000.0 * 4 / 3));
+            int height = megapixels * 1_000_000 / width;
+            BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = img.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setPaint(new GradientPaint(0, 0, new Color(30, 90, 160), width, height, new Color(230, 180, 60)));
+            g.fillRect(0, 0, width, height);
+            Random random = new Random(SEED);
+            for (int i = 0; i < 400; i++) {
+                g.setColor(new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256), 120));
+                g.fillOval(random.nextInt(width), random.nextInt(height), 20 + random.nextInt(width / 4),
+                        20 + random.nextInt(height / 4));
+            }
+            g.dispose();
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x += 3) {
+                    int rgb = img.getRGB(x, y);
+                    int n = random.nextInt(16) - 8;
+                    int r = clamp(((rgb >> 16) & 0xff) + n);
+                    int gr = clamp(((rgb >> 8) & 0xff) + n);
+                    int b = clamp((rgb & 0xff) + n);
+                    img.setRGB(x, y, (r << 16) | (gr << 8) | b);
+                }
+            }
+            if (!ImageIO.write(img, format, target.toFile()))
+                throw new IOException("No writer for " + format);
+        });
+    }
+
+    /** A text PDF with {@code pages} pages of 50 lines each. */
+    public static Path pdf(int pages) throws IOException {
+        return cached("doc_" + pages + "p.pdf", target -> {
+            Random random = new Random(SEED);
+            try (PDDocument doc = new PDDocument()) {
+                PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+                for (int p = 1; p <= pages; p++) {
+                    PDPage page = new PDPage(PDRectangle.A4);
+                    doc.addPage(page);
+                    try (PDPageContentStream cs = new PDPageContentStream(doc, page)) {
+                        cs.beginText();
+                        cs.setFont(font, 10);
+                        cs.setLeading(14);
+                        cs.newLineAtOffset(50, 780);
+                        cs.showText("Page " + p);
+                        for (int line = 0; line < 50; line++) {
+                            cs.newLine();
+                            StringBuilder sb = new StringBuilder();
+                            for (int i = 0; i < 12; i++)
+                                sb.append(word(random)).append(' ');
+                            cs.showText(sb.toString());
+                        }
+                        cs.endText();
+                        cs.setNonStrokingColor(new Color(random.nextInt(256), 120, 200));
+                        cs.addRect(50, 40, 100 + random.nextInt(300), 20);
+                        cs.fill();
+                    }
+                }
+                doc.save(target.toFile());
+            }
+        });
+    }
+
+    /** A one-page "scan": an A4 page covered by a 100 DPI greyscale JPEG with paper grain. */
+    public static Path scannedPdf() throws IOException {
+        return cached("scan_1p.pdf", target -> {
+            int width = 827;
+            int height = 1169;
+            BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+            Random random = new Random(SEED);
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    int ink = (y / 20) % 3 == 0 && x > 80 && x < width - 80 ? 60 : 235;
+                    int v = clamp(ink + random.nextInt(24) - 12);
+                    img.getRaster().setSample(x, y, 0, v);
+                }
+            }
+            try (PDDocument doc = new PDDocument()) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                doc.addPage(page);
+                PDImageXObject scan = JPEGFactory.createFromImage(doc, img, 0.75f);
+                try (PDPageContentStream cs = new PDPageContentStream(doc, page)) {
+                    cs.drawImage(scan, 0, 0, PDRectangle.A4.getWidth(), PDRectangle.A4.getHeight());
+                }
+                doc.save(target.toFile());
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface Generator {
+        void write(Path target) throws IOException;
+    }
+
+    private static synchronized Path cached(String name, Generator generator) throws IOException {
+        Files.createDirectories(DIR);
+        Path path = DIR.resolve(name);
+        if (Files.exists(path))
+            return path;
+        Path tmp = DIR.resolve(name + ".tmp");
+        generator.write(tmp);
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return path;
+    }
+
+    private static Writer writer(Path target) throws IOException {
+        return new BufferedWriter(Files.newBufferedWriter(target, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static int clamp(int v) {
+        return Math.max(0, Math.min(255, v));
+    }
+}
@@ -0,0 +1,76 @@
+package com.fileconverter.bench;
+
+import com.fileconverter.service.ConversionService;
+import net.coobird.thumbnailator.Thumbnails;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ImageBenchmark {
+
+    @Param({"2", "12", "24"})
+    public int megapixels;
+
+    private ConversionService service;
+    private Path jpeg;
+    private Path png;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        service = BenchSupport.conversionService();
+        jpeg = Fixtures.image(megapixels, "jpg");
+        png = Fixtures.image(megapixels, "png");
+    }
+
+    @Benchmark
+    public long jpgToPng() throws IOException {
+        return BenchSupport.consume(service.convertImage(BenchSupport.upload(jpeg, "image/jpeg"), "png"));
+    }
+
+    @Benchmark
+    public long pngToJpg() throws IOException {
+        return BenchSupport.consume(service.convertImage(BenchSupport.upload(png, "image/png"), "jpg"));
+    }
+
+    @Benchmark
+    public long resizeToThumbnail() throws IOException {
+        return BenchSupport.consume(service.resizeImage(BenchSupport.upload(jpeg, "image/jpeg"), 400, 300));
+    }
+
+    /** image-resize as it was before decode-time subsampling: Thumbnailator decodes the whole file. */
+    @Benchmark
+    public long resizeToThumbnailFullDecode() throws IOException {
+        Path out = Files.createTempFile("resize-baseline", ".jpg");
+        try {
+            Thumbnails.of(jpeg.toFile()).size(400, 300).keepAspectRatio(false).toFile(out.toFile());
+            return Files.size(out);
+        } finally {
+            Files.deleteIfExists(out);
+        }
+    }
+
+    @Benchmark
+    public long grayscale() throws IOException {
+        return BenchSupport.consume(service.imageToGrayscale(BenchSupport.upload(jpeg, "image/jpeg")));
+    }
+}
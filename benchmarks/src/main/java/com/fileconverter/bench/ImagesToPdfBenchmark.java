@@ -0,0 +1,86 @@
+package com.fileconverter.bench;
+
+import com.fileconverter.model.ConversionOptions;
+import com.fileconverter.service.ConversionService;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * images-to-pdf over an album of 12-megapixel JPEGs. {@code perPhotoDecode} is the previous
+ * implementation, which decoded every photo once for its size and read it again to embed
+ * it, one photo at a time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ImagesToPdfBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int photos;
+
+    private ConversionService service;
+    private Path photo;
+    private List<MultipartFile> files;
+    private ConversionOptions a4;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        service = BenchSupport.conversionService();
+        photo = Fixtures.image(12, "jpg");
+        files = Collections.nCopies(photos, BenchSupport.upload(photo, "image/jpeg"));
+        a4 = ConversionOptions.builder().pageSize("a4").build();
+    }
+
+    @Benchmark
+    public long imagesToPdf() throws IOException {
+        return BenchSupport.consume(service.imagesToPdf(files, a4));
+    }
+
+    @Benchmark
+    public long perPhotoDecode() throws IOException {
+        Path out = Files.createTempFile("album-baseline", ".pdf");
+        try (PDDocument pdf = new PDDocument()) {
+            for (int i = 0; i < photos; i++) {
+                BufferedImage img = ImageIO.read(photo.toFile());
+                PDPage page = new PDPage(new PDRectangle(img.getWidth(), img.getHeight()));
+                pdf.addPage(page);
+                PDImageXObject pdImg = PDImageXObject.createFromFile(photo.toString(), pdf);
+                try (PDPageContentStream cs = new PDPageContentStream(pdf, page)) {
+                    cs.drawImage(pdImg, 0, 0, img.getWidth(), img.getHeight());
+                }
+            }
+            pdf.save(out.toFile());
+            return Files.size(out);
+        } finally {
+            Files.deleteIfExists(out);
+        }
+    }
+}
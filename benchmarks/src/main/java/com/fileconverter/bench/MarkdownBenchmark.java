@@ -0,0 +1,45 @@
+package com.fileconverter.bench;
+
+import com.fileconverter.service.ConversionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class MarkdownBenchmark {
+
+    @Param({"1KB", "1MB", "16MB"})
+    public String size;
+
+    private ConversionService service;
+    private Path markdown;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        service = BenchSupport.conversionService();
+        markdown = Fixtures.markdown(size);
+    }
+
+    @Benchmark
+    public long markdownToHtml() throws IOException {
+        return BenchSupport.consume(service.markdownToHtml(BenchSupport.upload(markdown, "text/markdown")));
+    }
+}
@@ -0,0 +1,63 @@
+package com.fileconverter.bench;
+
+import com.fileconverter.model.ConversionOptions;
+import com.fileconverter.service.ConversionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class PdfBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int pages;
+
+    private ConversionService service;
+    private Path pdf;
+    private ConversionOptions splitEvery10;
+    private ConversionOptions images72Dpi;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        service = BenchSupport.conversionService();
+        pdf = Fixtures.pdf(pages);
+        splitEvery10 = ConversionOptions.builder().splitMode("every").splitEvery(10).build();
+        images72Dpi = ConversionOptions.builder().dpi(72).imageFormat("png").build();
+    }
+
+    @Benchmark
+    public long split() throws IOException {
+        return BenchSupport.consume(service.splitPdf(BenchSupport.upload(pdf, "application/pdf"), splitEvery10));
+    }
+
+    @Benchmark
+    public long mergeThree() throws IOException {
+        MultipartFile in = BenchSupport.upload(pdf, "application/pdf");
+        return BenchSupport.consume(service.mergePdfs(List.of(in, in, in), new ConversionOptions()));
+    }
+
+    @Benchmark
+    public long toImages() throws IOException {
+        return BenchSupport.consume(service.pdfToImages(BenchSupport.upload(pdf, "application/pdf"), images72Dpi));
+    }
+}
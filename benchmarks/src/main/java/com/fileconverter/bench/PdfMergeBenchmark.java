@@ -0,0 +1,81 @@
+package com.fileconverter.bench;
+
+import com.fileconverter.model.ConversionOptions;
+import com.fileconverter.service.ConversionService;
+import org.apache.pdfbox.multipdf.PDFMergerUtility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * pdf-merge over many one-page scans (about 140 KB each). With
+ * {@code -prof com.fileconverter.bench.PeakHeapProfiler}, {@code heap.live} for {@code merge}
+ * should level off once the merged stream data passes {@code mergeMemoryMb} and spills to
+ * disk, then grow only by the per-page object structure. {@code inMemory} is the plain
+ * {@link PDFMergerUtility} merge pdf-merge used before, which keeps every source open and
+ * all of their stream data on the heap until the output is saved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+public class PdfMergeBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int inputs;
+
+    @Param({"16"})
+    public int mergeMemoryMb;
+
+    private ConversionService service;
+    private Path scan;
+    private List<MultipartFile> files;
+    private ConversionOptions options;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        service = BenchSupport.conversionService(mergeMemoryMb);
+        scan = Fixtures.scannedPdf();
+        files = Collections.nCopies(inputs, BenchSupport.upload(scan, "application/pdf"));
+        options = new ConversionOptions();
+    }
+
+    @Benchmark
+    public long merge() throws IOException {
+        return BenchSupport.consume(service.mergePdfs(files, options));
+    }
+
+    @Benchmark
+    public long inMemory() throws IOException {
+        Path out = Files.createTempFile("merge-baseline", ".pdf");
+        try {
+            PDFMergerUtility merger = new PDFMergerUtility();
+            for (int i = 0; i < inputs; i++)
+                merger.addSource(scan.toFile());
+            merger.setDestinationFileName(out.toString());
+            merger.mergeDocuments(null);
+            return Files.size(out);
+        } finally {
+            Files.deleteIfExists(out);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.fileconverter.bench;
+
+import com.fileconverter.service.PdfPageRenderer;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * How pdf-to-images scales with render parallelism on one document. The renderer gets at
+ * least 16 threads here, so points above the machine's core count show the plateau.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class PdfRenderScalingBenchmark {
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int parallelism;
+
+    @Param({"100"})
+    public int pages;
+
+    @Param({"150"})
+    public float dpi;
+
+    private PdfPageRenderer renderer;
+    private Path pdf;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        renderer = new PdfPageRenderer(Math.max(16, Runtime.getRuntime().availableProcessors()));
+        pdf = Fixtures.pdf(pages);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        renderer.shutdown();
+    }
+
+    @Benchmark
+    public int render() throws IOException {
+        try (ZipOutputStream zos = new ZipOutputStream(NullOutputStream.INSTANCE)) {
+            zos.setLevel(Deflater.NO_COMPRESSION);
+            return renderer.renderToZip(pdf, null, dpi, "png", 0.8f, parallelism, "bench", zos);
+        }
+    }
+}
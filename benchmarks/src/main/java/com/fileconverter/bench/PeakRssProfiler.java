@@ -0,0 +1,54 @@
+package com.fileconverter.bench;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reports the forked JVM's peak resident set size ({@code VmHWM} from {@code /proc/self/status})
+ * after each iteration. Enable with {@code -prof com.fileconverter.bench.PeakRssProfiler};
+ * reports nothing on platforms without procfs.
+ */
+public class PeakRssProfiler implements InternalProfiler {
+
+    private static final Path STATUS = Path.of("/proc/self/status");
+
+    @Override
+    public String getDescription() {
+        return "Peak resident set size of the benchmark JVM (Linux only)";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams,
+                                                       IterationParams iterationParams, IterationResult result) {
+        long kb = readPeakKb();
+        if (kb < 0)
+            return List.of();
+        return List.of(new ScalarResult("rss.peak", kb / 1024.0, "MB", AggregationPolicy.MAX));
+    }
+
+    private static long readPeakKb() {
+        try {
+            for (String line : Files.readAllLines(STATUS)) {
+                if (line.startsWith("VmHWM:"))
+                    return Long.parseLong(line.substring(6).replace("kB", "").trim());
+            }
+        } catch (IOException | NumberFormatException ignored) {
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,100 @@
+package com.fileconverter.bench;
+
+import com.fileconverter.service.PixelKernels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The grayscale and flatten-onto-white steps of image-to-grayscale and image-convert (to JPEG)
+ * on already decoded images, so decode and encode don't hide the difference: a JPEG-decoded
+ * TYPE_3BYTE_BGR photo for grayscale, and the same photo with a gradient alpha as
+ * TYPE_4BYTE_ABGR, as decoded from a PNG, for flatten. {@code kernel} is {@code java2d} for
+ * the {@code Graphics2D.drawImage} the tools used before, or {@link PixelKernels} with its
+ * {@code scalar} or {@code vector} kernels; {@code threads} is its tile pool, 0 for one
+ * thread per core.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class PixelKernelBenchmark {
+
+    @Param({"2", "12", "24"})
+    public int megapixels;
+
+    @Param({"java2d", "scalar", "vector"})
+    public String kernel;
+
+    @Param({"0"})
+    public int threads;
+
+    private PixelKernels kernels;
+    private BufferedImage photo;
+    private BufferedImage transparent;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        kernels = new PixelKernels(threads, kernel.equals("vector"));
+        if (kernel.equals("vector") && !kernels.isVectorized())
+            throw new IllegalStateException("jdk.incubator.vector is not available");
+        photo = ImageIO.read(Fixtures.image(megapixels, "jpg").toFile());
+        transparent = new BufferedImage(photo.getWidth(), photo.getHeight(), BufferedImage.TYPE_4BYTE_ABGR);
+        int[] row = new int[photo.getWidth()];
+        for (int y = 0; y < photo.getHeight(); y++) {
+            photo.getRGB(0, y, row.length, 1, row, 0, row.length);
+            for (int x = 0; x < row.length; x++)
+                row[x] = row[x] & 0xffffff | (x * 255 / row.length) << 24;
+            transparent.setRGB(0, y, row.length, 1, row, 0, row.length);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        kernels.shutdown();
+    }
+
+    @Benchmark
+    public BufferedImage grayscale() throws IOException {
+        if (kernel.equals("java2d")) {
+            BufferedImage gray = new BufferedImage(photo.getWidth(), photo.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+            Graphics2D g = gray.createGraphics();
+            g.drawImage(photo, 0, 0, null);
+            g.dispose();
+            return gray;
+        }
+        return kernels.grayscale(photo);
+    }
+
+    @Benchmark
+    public BufferedImage flatten() throws IOException {
+        if (kernel.equals("java2d")) {
+            BufferedImage rgb = new BufferedImage(transparent.getWidth(), transparent.getHeight(),
+                    BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = rgb.createGraphics();
+            g.drawImage(transparent, 0, 0, Color.WHITE, null);
+            g.dispose();
+            return rgb;
+        }
+        return kernels.flattenOnWhite(transparent);
+    }
+}
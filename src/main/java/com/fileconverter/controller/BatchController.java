@@ -0,0 +1,71 @@
+package com.fileconverter.controller;
+
+import com.fileconverter.model.ConversionOptions;
+import com.fileconverter.service.BatchService;
+import com.fileconverter.service.ChunkedUploadService;
+import com.fileconverter.service.ToolRegistryService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Batch API: one tool and one set of options applied to many files, sent as repeated
+ * {@code files} parts or as {@code uploadIds} of committed resumable uploads. The response
+ * is a zip streamed while the batch runs; {@code manifest.json}, its last entry, reports
+ * each input's outcome.
+ */
+@Controller
+public class BatchController {
+
+    private final BatchService batchService;
+    private final ToolRegistryService toolRegistry;
+    private final ChunkedUploadService chunkedUploads;
+
+    public BatchController(BatchService batchService, ToolRegistryService toolRegistry,
+                           ChunkedUploadService chunkedUploads) {
+        this.batchService = batchService;
+        this.toolRegistry = toolRegistry;
+        this.chunkedUploads = chunkedUploads;
+    }
+
+    @PostMapping("/api/batch/{toolId}")
+    public void convert(@PathVariable String toolId,
+                        @RequestParam(required = false) List<MultipartFile> files,
+                        @RequestParam(required = false) List<String> uploadIds,
+                        @ModelAttribute ConversionOptions options,
+                        HttpServletResponse response) throws IOException {
+        if (toolRegistry.getToolById(toolId) == null)
+            throw new NoSuchElementException("Unknown tool: " + toolId);
+        if (uploadIds != null && !uploadIds.isEmpty())
+            files = chunkedUploads.inputs(uploadIds);
+        batchService.validate(toolId, files);
+
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + toolId + "-batch.zip\"");
+        batchService.convert(toolId, files, options, response.getOutputStream());
+    }
+
+    @ExceptionHandler(NoSuchElementException.class)
+    public ResponseEntity<Map<String, String>> notFound(NoSuchElementException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, String>> conflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+}
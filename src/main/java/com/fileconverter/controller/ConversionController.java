@@ -1,11 +1,24 @@
 package com.fileconverter.controller;
 
+import com.fileconverter.exception.ConversionRejectedException;
+import com.fileconverter.model.ConversionOptions;
 import com.fileconverter.model.ConversionResult;
+import com.fileconverter.model.Engine;
+import com.fileconverter.model.ToolInfo;
+import com.fileconverter.service.BulkheadService;
+import com.fileconverter.service.ChunkedUploadService;
+import com.fileconverter.service.ConversionMetrics;
 import com.fileconverter.service.ConversionService;
+import com.fileconverter.service.DownloadService;
+import com.fileconverter.service.OutputStore;
+import com.fileconverter.service.ResultCache;
 import com.fileconverter.service.StatsService;
+import com.fileconverter.service.StreamingUploadService;
 import com.fileconverter.service.ToolRegistryService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -13,11 +26,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.util.List;
 
 @Controller
@@ -27,11 +43,29 @@ public class ConversionController {
     private final ConversionService conversionService;
     private final StatsService statsService;
     private final ToolRegistryService toolRegistry;
-
-    public ConversionController(ConversionService conversionService, StatsService statsService, ToolRegistryService toolRegistry) {
+    private final BulkheadService bulkhead;
+    private final DownloadService downloadService;
+    private final ResultCache resultCache;
+    private final OutputStore outputStore;
+    private final ConversionMetrics metrics;
+    private final StreamingUploadService streamingUploads;
+    private final ChunkedUploadService chunkedUploads;
+
+    public ConversionController(ConversionService conversionService, StatsService statsService,
+                                ToolRegistryService toolRegistry, BulkheadService bulkhead,
+                                DownloadService downloadService, ResultCache resultCache,
+                                OutputStore outputStore, ConversionMetrics metrics,
+                                StreamingUploadService streamingUploads, ChunkedUploadService chunkedUploads) {
         this.conversionService = conversionService;
         this.statsService = statsService;
         this.toolRegistry = toolRegistry;
+        this.bulkhead = bulkhead;
+        this.downloadService = downloadService;
+        this.resultCache = resultCache;
+        this.outputStore = outputStore;
+        this.metrics = metrics;
+        this.streamingUploads = streamingUploads;
+        this.chunkedUploads = chunkedUploads;
     }
 
     @PostMapping("/convert/{toolId}")
@@ -39,100 +73,117 @@ public class ConversionController {
             @PathVariable String toolId,
             @RequestParam(required = false) MultipartFile file,
             @RequestParam(required = false) List<MultipartFile> files,
-            @RequestParam(defaultValue = "800") int width,
-            @RequestParam(defaultValue = "600") int height,
-            @RequestParam(defaultValue = "0.8") float quality,
+            @RequestParam(required = false) List<String> uploadIds,
+            @ModelAttribute ConversionOptions options,
+            HttpServletResponse response,
             Model model) {
 
+        ToolInfo tool = toolRegistry.getToolById(toolId);
         model.addAttribute("allTools", toolRegistry.getAllTools());
         model.addAttribute("toolsByCategory", toolRegistry.getToolsByCategory());
-        model.addAttribute("tool", toolRegistry.getToolById(toolId));
+        model.addAttribute("tool", tool);
+        model.addAttribute("toolId", toolId);
+
+        // Refused before any meter is registered: the tool tag must stay within the registry's ids
+        if (tool == null) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            model.addAttribute("result", ConversionResult.builder()
+                    .success(false)
+                    .message("Unknown tool: " + toolId)
+                    .conversionType(toolId)
+                    .build());
+            return "result";
+        }
 
         try {
-            ConversionResult result = performConversion(toolId, file, files, width, height, quality);
-            String category = toolRegistry.getToolById(toolId) != null
-                    ? toolRegistry.getToolById(toolId).getCategory() : "Other";
-            statsService.record(category, result.isSuccess());
+            String category = tool.getCategory();
+            Engine engine = Engine.forTool(toolId, options);
+            if (uploadIds != null && !uploadIds.isEmpty()) {
+                // Committed resumable uploads stand in for the multipart file(s)
+                List<MultipartFile> uploaded = chunkedUploads.inputs(uploadIds);
+                file = uploaded.size() == 1 ? uploaded.get(0) : null;
+                files = uploaded.size() > 1 ? uploaded : null;
+            }
+            MultipartFile input = file;
+            List<MultipartFile> inputs = files;
+            ConversionResult result = metrics.record(toolId, category, engine, inputSize(input, inputs),
+                    () -> conversionService.convert(toolId, input, inputs, options,
+                            work -> bulkhead.call(engine, work)));
             model.addAttribute("result", result);
-            model.addAttribute("toolId", toolId);
+            return "result";
+        } catch (ConversionRejectedException e) {
+            log.warn("Rejected conversion for tool {}: {}", toolId, e.getMessage());
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            ConversionResult busy = ConversionResult.builder()
+                    .success(false)
+                    .message(e.getMessage())
+                    .conversionType(toolId)
+                    .build();
+            model.addAttribute("result", busy);
             return "result";
         } catch (Exception e) {
             log.error("Conversion error for tool {}: {}", toolId, e.getMessage(), e);
-            statsService.record("Other", false);
             ConversionResult error = ConversionResult.builder()
                     .success(false)
                     .message("Conversion failed: " + e.getMessage())
                     .conversionType(toolId)
                     .build();
             model.addAttribute("result", error);
-            model.addAttribute("toolId", toolId);
             return "result";
         }
     }
 
-    private ConversionResult performConversion(String toolId, MultipartFile file,
-                                                List<MultipartFile> files, int width, int height, float quality) throws IOException {
-        return switch (toolId) {
-            // PDF tools
-            case "pdf-to-word"    -> conversionService.pdfToWord(file);
-            case "word-to-pdf"    -> conversionService.wordToPdf(file);
-            case "ppt-to-pdf"     -> conversionService.pptToPdf(file);
-            case "pdf-merge"      -> conversionService.mergePdfs(files != null ? files : List.of(file));
-            case "pdf-split"      -> conversionService.splitPdf(file);
-            case "pdf-compress"   -> conversionService.compressPdf(file);
-            case "pdf-to-images"  -> conversionService.pdfToImages(file);
-            case "images-to-pdf"  -> conversionService.imagesToPdf(files != null ? files : List.of(file));
-            case "pdf-to-txt"     -> conversionService.pdfToText(file);
-            case "txt-to-pdf"     -> conversionService.textToPdf(file);
-            case "html-to-pdf"    -> conversionService.htmlToPdf(file);
-            case "md-to-html"     -> conversionService.markdownToHtml(file);
-            case "rtf-to-pdf"     -> conversionService.rtfToPdf(file);
-
-            // Image tools
-            case "jpg-to-png", "gif-to-png", "bmp-to-png" -> conversionService.convertImage(file, "png");
-            case "png-to-jpg"     -> conversionService.convertImage(file, "jpg");
-            case "webp-to-png"    -> conversionService.convertImage(file, "png");
-            case "png-to-webp", "jpg-to-webp" -> conversionService.convertImage(file, "webp");
-            case "image-resize"   -> conversionService.resizeImage(file, width, height);
-            case "image-compress" -> conversionService.compressImage(file, quality);
-            case "image-to-grayscale" -> conversionService.imageToGrayscale(file);
-
-            // Spreadsheet tools
-            case "csv-to-excel"   -> conversionService.csvToExcel(file);
-            case "excel-to-csv"   -> conversionService.excelToCsv(file);
-            case "csv-to-json"    -> conversionService.csvToJson(file);
-            case "json-to-csv"    -> conversionService.jsonToCsv(file);
-            case "excel-to-pdf"   -> conversionService.excelToPdf(file);
-
-            // Media tools
-            case "video-to-audio", "mp4-to-mp3" -> conversionService.convertMedia(file, "mp3");
-            case "mp3-to-wav"     -> conversionService.convertMedia(file, "wav");
-            case "wav-to-mp3"     -> conversionService.convertMedia(file, "mp3");
-
-            // PPT from PDF
-            case "pdf-to-ppt" -> {
-                // Convert PDF to images then create a basic PPTX
-                yield conversionService.pdfToImages(file); // fallback
-            }
-
-            default -> ConversionResult.builder().success(false).message("Unknown tool: " + toolId).build();
-        };
+    /**
+     * Streaming counterpart of {@link #convert}: the upload is read straight off the request
+     * body (see {@link StreamingUploadService}) and the result is returned as JSON.
+     */
+    @PostMapping("/api/stream/{toolId}")
+    @ResponseBody
+    public ResponseEntity<ConversionResult> convertStreaming(@PathVariable String toolId, HttpServletRequest request) {
+        if (toolRegistry.getToolById(toolId) == null)
+            return ResponseEntity.notFound().build();
+        try {
+            return ResponseEntity.ok(streamingUploads.convert(toolId, request));
+        } catch (ConversionRejectedException e) {
+            log.warn("Rejected streaming conversion for tool {}: {}", toolId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(failure(toolId, e.getMessage()));
+        } catch (MaxUploadSizeExceededException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(failure(toolId, "File larger than " + e.getMaxUploadSize() + " bytes"));
+        } catch (IllegalArgumentException | MultipartException e) {
+            return ResponseEntity.badRequest().body(failure(toolId, e.getMessage()));
+        } catch (Exception e) {
+            log.error("Streaming conversion error for tool {}: {}", toolId, e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(failure(toolId, "Conversion failed: " + e.getMessage()));
+        }
     }
 
-    @GetMapping("/download/{fileName}")
-    public ResponseEntity<byte[]> download(@PathVariable String fileName) {
+    @GetMapping("/download/{key}/{fileName}")
+    public void download(@PathVariable String key, @PathVariable String fileName, HttpServletRequest request,
+                         HttpServletResponse response) {
         try {
-            byte[] bytes = conversionService.getFileBytes(fileName);
-            String encoded = URLEncoder.encode(fileName, StandardCharsets.UTF_8).replaceAll("\\+", "%20");
-
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" + encoded)
-                    .header(HttpHeaders.CONTENT_TYPE, detectContentType(fileName))
-                    .header(HttpHeaders.CACHE_CONTROL, "no-cache")
-                    .body(bytes);
+            Path path = outputStore.resolve(key, fileName);
+            if (!outputStore.pin(path))
+                throw new NoSuchFileException(fileName);
+            try {
+                String encoded = URLEncoder.encode(fileName, StandardCharsets.UTF_8).replaceAll("\\+", "%20");
+                // The pin only covers what is written before serve() returns, and sendfile runs after;
+                // an output that is deleted once downloaded is written here instead
+                downloadService.serve(path, detectContentType(fileName),
+                        "attachment; filename*=UTF-8''" + encoded, !outputStore.isDeleteAfterDownload(path),
+                        request, response);
+            } finally {
+                outputStore.unpin(path);
+            }
+            if ("GET".equals(request.getMethod()) && response.getStatus() == HttpStatus.OK.value())
+                outputStore.downloaded(key);
         } catch (Exception e) {
             log.error("Download error: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            if (!response.isCommitted())
+                response.setStatus(HttpStatus.NOT_FOUND.value());
         }
     }
 
@@ -142,6 +193,35 @@ public class ConversionController {
         return statsService.getStats().getCategoryMap();
     }
 
+    @GetMapping("/api/engines")
+    @ResponseBody
+    public Object getEngines() {
+        return bulkhead.getStatus();
+    }
+
+    @GetMapping("/api/cache")
+    @ResponseBody
+    public Object getCacheStats() {
+        return resultCache.getStats();
+    }
+
+    private ConversionResult failure(String toolId, String message) {
+        return ConversionResult.builder()
+                .success(false)
+                .message(message)
+                .conversionType(toolId)
+                .build();
+    }
+
+    private long inputSize(MultipartFile file, List<MultipartFile> files) {
+        long size = file != null ? file.getSize() : 0;
+        if (files != null) {
+            for (MultipartFile f : files)
+                size += f.getSize();
+        }
+        return size;
+    }
+
     private String detectContentType(String fileName) {
         String lower = fileName.toLowerCase();
         if (lower.endsWith(".pdf")) return "application/pdf";
@@ -154,6 +234,7 @@ public class ConversionController {
         if (lower.endsWith(".webp")) return "image/webp";
         if (lower.endsWith(".csv")) return "text/csv";
         if (lower.endsWith(".json")) return "application/json";
+        if (lower.endsWith(".ndjson")) return "application/x-ndjson";
         if (lower.endsWith(".html")) return "text/html";
         if (lower.endsWith(".txt")) return "text/plain";
         if (lower.endsWith(".zip")) return "application/zip";
@@ -0,0 +1,83 @@
+package com.fileconverter.controller;
+
+import com.fileconverter.exception.ConversionRejectedException;
+import com.fileconverter.model.ConversionJob;
+import com.fileconverter.model.ConversionOptions;
+import com.fileconverter.service.ChunkedUploadService;
+import com.fileconverter.service.JobService;
+import com.fileconverter.service.ToolRegistryService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Asynchronous job API: submit returns immediately, then poll the job or follow its
+ * server-sent events until the final {@link com.fileconverter.model.ConversionResult} arrives.
+ */
+@Controller
+public class JobController {
+
+    private final JobService jobService;
+    private final ToolRegistryService toolRegistry;
+    private final ChunkedUploadService chunkedUploads;
+
+    public JobController(JobService jobService, ToolRegistryService toolRegistry,
+                         ChunkedUploadService chunkedUploads) {
+        this.jobService = jobService;
+        this.toolRegistry = toolRegistry;
+        this.chunkedUploads = chunkedUploads;
+    }
+
+    @PostMapping("/api/jobs/{toolId}")
+    @ResponseBody
+    public ResponseEntity<ConversionJob> submit(
+            @PathVariable String toolId,
+            @RequestParam(required = false) MultipartFile file,
+            @RequestParam(required = false) List<MultipartFile> files,
+            @RequestParam(required = false) List<String> uploadIds,
+            @ModelAttribute ConversionOptions options) throws IOException {
+        if (toolRegistry.getToolById(toolId) == null)
+            return ResponseEntity.notFound().build();
+        if (uploadIds != null && !uploadIds.isEmpty()) {
+            List<MultipartFile> uploaded = chunkedUploads.inputs(uploadIds);
+            file = uploaded.size() == 1 ? uploaded.get(0) : null;
+            files = uploaded.size() > 1 ? uploaded : null;
+        }
+
+        ConversionJob job = jobService.submit(toolId, file, files, options);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/jobs/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/api/jobs/{jobId}")
+    @ResponseBody
+    public ResponseEntity<ConversionJob> status(@PathVariable String jobId) {
+        ConversionJob job = jobService.getJob(jobId);
+        return job != null ? ResponseEntity.ok(job) : ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+    }
+
+    @GetMapping(value = "/api/jobs/{jobId}/events", produces = "text/event-stream")
+    @ResponseBody
+    public ResponseEntity<SseEmitter> events(@PathVariable String jobId) {
+        if (jobService.getJob(jobId) == null)
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        return ResponseEntity.ok(jobService.subscribe(jobId));
+    }
+
+    @ExceptionHandler(ConversionRejectedException.class)
+    public ResponseEntity<Map<String, String>> rejected(ConversionRejectedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("error", e.getMessage()));
+    }
+}
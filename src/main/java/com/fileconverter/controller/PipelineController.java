@@ -0,0 +1,67 @@
+package com.fileconverter.controller;
+
+import com.fileconverter.model.PipelineResult;
+import com.fileconverter.model.PipelineStage;
+import com.fileconverter.service.ChunkedUploadService;
+import com.fileconverter.service.PipelineService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Pipeline API: upload once and run several tools over it, e.g. Word → PDF → compress →
+ * images, without downloading and re-uploading each intermediate. {@code stages} is a JSON
+ * array such as
+ * <pre>
+ * [{"id":"pdf","tool":"word-to-pdf"},
+ *  {"id":"small","tool":"pdf-compress","after":"pdf"},
+ *  {"id":"pages","tool":"pdf-to-images","after":"small","options":{"dpi":100}},
+ *  {"id":"text","tool":"pdf-to-txt","after":"pdf"}]
+ * </pre>
+ * See {@link PipelineService} for how stages are scheduled.
+ */
+@Controller
+public class PipelineController {
+
+    private final PipelineService pipelineService;
+    private final ChunkedUploadService chunkedUploads;
+
+    public PipelineController(PipelineService pipelineService, ChunkedUploadService chunkedUploads) {
+        this.pipelineService = pipelineService;
+        this.chunkedUploads = chunkedUploads;
+    }
+
+    @PostMapping("/api/pipelines")
+    @ResponseBody
+    public PipelineResult run(@RequestParam String stages,
+                              @RequestParam(required = false) MultipartFile file,
+                              @RequestParam(required = false) String uploadId) {
+        if (uploadId != null && !uploadId.isBlank())
+            file = chunkedUploads.inputs(List.of(uploadId)).get(0);
+        if (file == null || file.isEmpty())
+            throw new IllegalArgumentException("A pipeline needs a file");
+        List<PipelineStage> parsed = pipelineService.parse(stages);
+        return pipelineService.run(parsed, file);
+    }
+
+    @ExceptionHandler(NoSuchElementException.class)
+    public ResponseEntity<Map<String, String>> notFound(NoSuchElementException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, String>> conflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+}
@@ -0,0 +1,124 @@
+package com.fileconverter.controller;
+
+import com.fileconverter.exception.ConversionRejectedException;
+import com.fileconverter.model.ChunkReceipt;
+import com.fileconverter.model.UploadStatus;
+import com.fileconverter.service.ChunkedUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resumable upload API. Create an upload, PUT its chunks as raw bytes at {@code ?offset=},
+ * in any order and concurrently, GET it to see which ranges arrived, then commit it. A
+ * committed upload is passed to {@code /convert/{toolId}} or {@code /api/jobs/{toolId}} with
+ * {@code uploadIds=<id>[,<id>...]} instead of a file.
+ * <p>
+ * Chunks may carry an RFC 9530 {@code Content-Digest: sha-256=:<base64>:} header; a chunk
+ * whose content doesn't match is rejected and its range stays missing.
+ */
+@Controller
+@RequestMapping("/api/uploads")
+public class UploadController {
+    private static final Pattern SHA256_DIGEST = Pattern.compile("sha-256=:([A-Za-z0-9+/=]+):");
+
+    private final ChunkedUploadService uploads;
+
+    public UploadController(ChunkedUploadService uploads) {
+        this.uploads = uploads;
+    }
+
+    @PostMapping
+    @ResponseBody
+    public ResponseEntity<UploadStatus> create(@RequestParam String fileName, @RequestParam long size,
+                                               @RequestParam(required = false) String contentType) throws IOException {
+        UploadStatus upload = uploads.create(fileName, contentType, size);
+        return ResponseEntity.created(URI.create("/api/uploads/" + upload.getId())).body(upload);
+    }
+
+    @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @ResponseBody
+    public ChunkReceipt writeChunk(@PathVariable String id, @RequestParam long offset,
+                                   @RequestHeader(value = "Content-Digest", required = false) String contentDigest,
+                                   HttpServletRequest request) throws IOException {
+        return uploads.writeChunk(id, offset, request.getInputStream(), sha256Hex(contentDigest));
+    }
+
+    @GetMapping("/{id}")
+    @ResponseBody
+    public UploadStatus status(@PathVariable String id) {
+        return uploads.status(id);
+    }
+
+    @PostMapping("/{id}/commit")
+    @ResponseBody
+    public UploadStatus commit(@PathVariable String id, @RequestParam(required = false) String sha256)
+            throws IOException {
+        return uploads.commit(id, sha256);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable String id) {
+        uploads.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @ExceptionHandler(NoSuchElementException.class)
+    public ResponseEntity<Map<String, String>> notFound(NoSuchElementException e) {
+        return error(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, String>> conflict(IllegalStateException e) {
+        return error(HttpStatus.CONFLICT, e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        return error(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<Map<String, String>> tooLarge(MaxUploadSizeExceededException e) {
+        return error(HttpStatus.PAYLOAD_TOO_LARGE, "Limit is " + e.getMaxUploadSize() + " bytes");
+    }
+
+    @ExceptionHandler(ConversionRejectedException.class)
+    public ResponseEntity<Map<String, String>> rejected(ConversionRejectedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("error", e.getMessage()));
+    }
+
+    private static ResponseEntity<Map<String, String>> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(Map.of("error", message));
+    }
+
+    /** The SHA-256 from a Content-Digest header as hex, or null when there is none. */
+    private static String sha256Hex(String contentDigest) {
+        if (contentDigest == null)
+            return null;
+        Matcher m = SHA256_DIGEST.matcher(contentDigest);
+        if (!m.find())
+            return null;
+        try {
+            return HexFormat.of().formatHex(Base64.getDecoder().decode(m.group(1)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed Content-Digest header");
+        }
+    }
+}
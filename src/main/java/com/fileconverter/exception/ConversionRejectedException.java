@@ -0,0 +1,17 @@
+package com.fileconverter.exception;
+
+/**
+ * Thrown when an engine's wait queue is full. Mapped to HTTP 429 with a Retry-After header.
+ */
+public class ConversionRejectedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ConversionRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,27 @@
+package com.fileconverter.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One input of a batch conversion, as listed in the {@code manifest.json} at the end of the
+ * batch zip.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItem {
+    /** Position of the input in the request. */
+    private int index;
+    private String input;
+    private long inputBytes;
+    private boolean success;
+    private String message;
+    /** Name of the output inside the zip; null when the item failed. */
+    private String entry;
+    private long fileSizeBytes;
+    private long processingTimeMs;
+}
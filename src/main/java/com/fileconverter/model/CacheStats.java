@@ -0,0 +1,20 @@
+package com.fileconverter.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStats {
+    private boolean enabled;
+    private int entries;
+    private long sizeBytes;
+    private long maxSizeBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+}
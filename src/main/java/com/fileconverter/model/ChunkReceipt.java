@@ -0,0 +1,22 @@
+package com.fileconverter.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Acknowledgement of one chunk written to a resumable upload, with the server-side checksum
+ * so clients can verify what was stored.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChunkReceipt {
+    private long offset;
+    private long length;
+    /** Hex SHA-256 of the chunk as received. */
+    private String sha256;
+    private UploadStatus upload;
+}
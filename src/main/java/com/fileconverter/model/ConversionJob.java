@@ -0,0 +1,27 @@
+package com.fileconverter.model;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * State of an asynchronous conversion submitted through the job API.
+ */
+@Data
+public class ConversionJob {
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    private final String id;
+    private final String toolId;
+    private final Instant createdAt = Instant.now();
+    private volatile Status status = Status.QUEUED;
+    private volatile long progressDone;
+    private volatile long progressTotal;
+    private volatile String progressUnit;
+    private volatile Instant finishedAt;
+    private volatile ConversionResult result;
+
+    public boolean isFinished() {
+        return status == Status.DONE || status == Status.FAILED;
+    }
+}
@@ -0,0 +1,68 @@
+package com.fileconverter.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tool parameters submitted alongside the upload. Bound from request parameters.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversionOptions {
+    @Builder.Default
+    private int width = 800;
+    @Builder.Default
+    private int height = 600;
+    @Builder.Default
+    private float quality = 0.8f;
+
+    // Route tools that have a native engine through LibreOffice instead
+    private boolean useLibreOffice;
+
+    // Remove the output once it has been downloaded in full
+    private boolean deleteAfterDownload;
+
+    // CSV/JSON: array | ndjson
+    @Builder.Default
+    private String jsonFormat = "array";
+    private boolean typedValues;
+
+    // Excel to CSV: export every sheet into a zip instead of just the first
+    private boolean allSheets;
+
+    // PDF to images
+    @Builder.Default
+    private float dpi = 150;
+    @Builder.Default
+    private String imageFormat = "png";
+
+    // PDF to text: plain | layout
+    @Builder.Default
+    private String textMode = "plain";
+    private boolean pageSeparators;
+
+    // PDF compress: low | medium | high
+    @Builder.Default
+    private String compressionLevel = "medium";
+
+    // PDF merge: page ranges per input, separated by ';' (blank = whole file)
+    private String mergeRanges;
+
+    // Images to PDF: fit | a4 | letter; longest image side in pixels (0 = keep the original size)
+    @Builder.Default
+    private String pageSize = "fit";
+    private int maxImageSide;
+
+    // PDF split: pages | ranges | every | size
+    @Builder.Default
+    private String splitMode = "pages";
+    private String pageRanges;
+    @Builder.Default
+    private int splitEvery = 1;
+    @Builder.Default
+    private int maxPartSizeMb = 10;
+}
@@ -1,10 +1,13 @@
 package com.fileconverter.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.nio.file.Path;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -18,6 +21,10 @@ public class ConversionResult {
     private long fileSizeBytes;
     private long processingTimeMs;
 
+    // Where the output lives on disk; internal, never sent to clients
+    @JsonIgnore
+    private Path outputPath;
+
     public String getFileSizeFormatted() {
         if (fileSizeBytes < 1024) return fileSizeBytes + " B";
         if (fileSizeBytes < 1024 * 1024) return String.format("%.1f KB", fileSizeBytes / 1024.0);
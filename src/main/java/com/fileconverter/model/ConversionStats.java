@@ -12,13 +12,13 @@ public class ConversionStats {
     private final AtomicLong successCount = new AtomicLong(0);
     private final AtomicLong failureCount = new AtomicLong(0);
 
-    public void record(String category, boolean success) {
-        categoryCount.computeIfAbsent(category, k -> new AtomicLong(0)).incrementAndGet();
-        totalConversions.incrementAndGet();
+    public void record(String category, boolean success, long count) {
+        categoryCount.computeIfAbsent(category, k -> new AtomicLong(0)).addAndGet(count);
+        totalConversions.addAndGet(count);
         if (success)
-            successCount.incrementAndGet();
+            successCount.addAndGet(count);
         else
-            failureCount.incrementAndGet();
+            failureCount.addAndGet(count);
     }
 
     public Map<String, Long> getCategoryMap() {
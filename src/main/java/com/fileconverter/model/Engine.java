@@ -0,0 +1,20 @@
+package com.fileconverter.model;
+
+/**
+ * Conversion back-ends. Each engine gets its own concurrency limit and wait queue.
+ */
+public enum Engine {
+    LIBREOFFICE,
+    FFMPEG,
+    JVM;
+
+    public static Engine forTool(String toolId, ConversionOptions options) {
+        return switch (toolId) {
+            case "pdf-to-word", "word-to-pdf", "ppt-to-pdf", "txt-to-pdf",
+                 "html-to-pdf", "rtf-to-pdf", "excel-to-pdf" -> LIBREOFFICE;
+            case "pdf-to-txt", "csv-to-excel", "excel-to-csv" -> options.isUseLibreOffice() ? LIBREOFFICE : JVM;
+            case "video-to-audio", "mp4-to-mp3", "mp3-to-wav", "wav-to-mp3" -> FFMPEG;
+            default -> JVM;
+        };
+    }
+}
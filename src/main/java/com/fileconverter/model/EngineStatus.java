@@ -0,0 +1,23 @@
+package com.fileconverter.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EngineStatus {
+    private String engine;
+    private int maxConcurrent;
+    private int active;
+    private int queued;
+    private int queueCapacity;
+    private long completed;
+    private long rejected;
+    private long avgWaitMs;
+    private long maxWaitMs;
+    private long avgRunMs;
+}
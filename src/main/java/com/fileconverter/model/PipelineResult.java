@@ -0,0 +1,19 @@
+package com.fileconverter.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PipelineResult {
+    private boolean success;
+    private String message;
+    private long totalTimeMs;
+    private List<StageResult> stages;
+}
@@ -0,0 +1,32 @@
+package com.fileconverter.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One step of a pipeline: a tool, its options, and the stages whose outputs it takes. A stage
+ * with no {@code after} takes the uploaded file; one with several passes them all, in order,
+ * to a multi-input tool such as pdf-merge.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PipelineStage {
+    private String id;
+    private String tool;
+    @Builder.Default
+    @JsonFormat(with = JsonFormat.Feature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
+    private List<String> after = new ArrayList<>();
+    @Builder.Default
+    private ConversionOptions options = new ConversionOptions();
+
+    // Keep this stage's output for download even though later stages consume it
+    private boolean keep;
+}
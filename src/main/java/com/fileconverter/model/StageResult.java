@@ -0,0 +1,29 @@
+package com.fileconverter.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome and timing of one pipeline stage. Times are in milliseconds; {@code startMs} is
+ * relative to the start of the pipeline, so overlapping branches show up as overlapping
+ * intervals.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StageResult {
+    public enum Status { DONE, FAILED, SKIPPED }
+
+    private String id;
+    private String tool;
+    private Status status;
+    private String message;
+    private long startMs;
+    private long queueWaitMs;
+    private long runMs;
+    /** Set for final and kept outputs; intermediates are deleted once their consumers finish. */
+    private ConversionResult result;
+}
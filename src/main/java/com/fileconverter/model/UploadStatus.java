@@ -0,0 +1,31 @@
+package com.fileconverter.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * State of a resumable upload: which byte ranges have arrived and whether it has been
+ * committed for use as conversion input.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadStatus {
+    private String id;
+    private String fileName;
+    private String contentType;
+    private long size;
+    private long receivedBytes;
+    /** Received ranges as sorted, merged {@code [start, end)} pairs. */
+    private List<long[]> ranges;
+    private boolean committed;
+    /** Hex SHA-256 of the whole file, set on commit. */
+    private String sha256;
+    private Instant expiresAt;
+}
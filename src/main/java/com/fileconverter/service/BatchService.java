@@ -0,0 +1,260 @@
+package com.fileconverter.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fileconverter.exception.ConversionRejectedException;
+import com.fileconverter.model.BatchItem;
+import com.fileconverter.model.ConversionOptions;
+import com.fileconverter.model.ConversionResult;
+import com.fileconverter.model.Engine;
+import com.fileconverter.model.ToolInfo;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Runs one tool over many inputs. Items are converted in parallel, but never more at once
+ * than the tool's engine has slots, so a batch doesn't flood the bulkhead queue that
+ * single requests share. Each output is appended to the response zip as soon as it is
+ * ready, in completion order, and a {@code manifest.json} with every item's outcome closes
+ * the zip.
+ */
+@Service
+public class BatchService {
+    private static final Logger log = LoggerFactory.getLogger(BatchService.class);
+    public static final String MANIFEST = "manifest.json";
+
+    /** Output formats that are already compressed; deflating them again only costs CPU. */
+    private static final Set<String> STORED_EXTENSIONS = Set.of(
+            "png", "jpg", "jpeg", "gif", "webp", "pdf", "zip", "docx", "xlsx", "pptx", "mp3");
+
+    private final ConversionService conversionService;
+    private final BulkheadService bulkhead;
+    private final ConversionMetrics metrics;
+    private final ToolRegistryService toolRegistry;
+    private final OutputStore outputStore;
+    private final ObjectMapper objectMapper;
+    private final int maxItems;
+    private final int maxParallel;
+
+    public BatchService(ConversionService conversionService, BulkheadService bulkhead, ConversionMetrics metrics,
+                        ToolRegistryService toolRegistry, OutputStore outputStore, ObjectMapper objectMapper,
+                        @Value("${app.batch.max-items:1000}") int maxItems,
+                        @Value("${app.batch.max-parallel:0}") int maxParallel) {
+        this.conversionService = conversionService;
+        this.bulkhead = bulkhead;
+        this.metrics = metrics;
+        this.toolRegistry = toolRegistry;
+        this.outputStore = outputStore;
+        this.objectMapper = objectMapper;
+        this.maxItems = maxItems;
+        this.maxParallel = maxParallel;
+    }
+
+    /** Checks a batch before any of the response is written, so problems can still get a proper status. */
+    public void validate(String toolId, List<MultipartFile> inputs) {
+        // A batch converts its inputs one by one
+        if (conversionService.isMultiInput(toolId))
+            throw new IllegalArgumentException("Tool " + toolId + " combines its inputs and can't run as a batch");
+        if (inputs == null || inputs.isEmpty())
+            throw new IllegalArgumentException("A batch needs at least one file");
+        if (inputs.size() > maxItems)
+            throw new IllegalArgumentException("A batch takes at most " + maxItems + " files");
+    }
+
+    /**
+     * Converts every input and writes the zip to {@code out}. Failed items don't fail the
+     * batch; they are reported in the manifest.
+     */
+    public void convert(String toolId, List<MultipartFile> inputs, ConversionOptions options, OutputStream out)
+            throws IOException {
+        validate(toolId, inputs);
+        ToolInfo tool = toolRegistry.getToolById(toolId);
+        String category = tool != null ? tool.getCategory() : "Other";
+        Engine engine = Engine.forTool(toolId, options);
+        int slots = bulkhead.getMaxConcurrent(engine);
+        int parallelism = Math.min(inputs.size(), maxParallel > 0 ? Math.min(maxParallel, slots) : slots);
+
+        // Fair, so items start roughly in request order
+        Semaphore inFlight = new Semaphore(parallelism, true);
+        BlockingQueue<Completed> completed = new LinkedBlockingQueue<>();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        int written = 0;
+        try {
+            for (int i = 0; i < inputs.size(); i++) {
+                int index = i;
+                MultipartFile input = inputs.get(i);
+                executor.execute(() -> completed.add(
+                        convertItem(index, input, toolId, category, engine, options, inFlight)));
+            }
+
+            ZipOutputStream zip = new ZipOutputStream(CloseShieldOutputStream.wrap(out));
+            BatchItem[] items = new BatchItem[inputs.size()];
+            Set<String> entryNames = new HashSet<>(Set.of(MANIFEST));
+            while (written < inputs.size()) {
+                Completed done = completed.take();
+                written++;
+                items[done.item().getIndex()] = done.item();
+                if (done.output() == null)
+                    continue;
+                try {
+                    String entry = uniqueName(done.item().getEntry(), entryNames);
+                    writeEntry(zip, entry, done.output());
+                    done.item().setEntry(entry);
+                } finally {
+                    outputStore.discard(done.output());
+                }
+                // Push the entry to the client now rather than when the container's buffer fills
+                zip.flush();
+                out.flush();
+            }
+
+            zip.putNextEntry(new ZipEntry(MANIFEST));
+            zip.write(objectMapper.writeValueAsBytes(manifest(toolId, items)));
+            zip.closeEntry();
+            zip.finish();
+            out.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running a batch", e);
+        } finally {
+            // Normally a no-op; after a client abort it stops the rest and cleans up what still arrives
+            executor.shutdownNow();
+            if (written < inputs.size())
+                discardRemaining(executor, completed);
+        }
+    }
+
+    private Completed convertItem(int index, MultipartFile input, String toolId, String category, Engine engine,
+                                  ConversionOptions options, Semaphore inFlight) {
+        BatchItem item = BatchItem.builder()
+                .index(index)
+                .input(input.getOriginalFilename())
+                .inputBytes(input.getSize())
+                .build();
+        long start = System.currentTimeMillis();
+        try {
+            while (true) {
+                long retryAfter;
+                inFlight.acquire();
+                try {
+                    ConversionResult result = metrics.record(toolId, category, engine, input.getSize(),
+                            () -> conversionService.convert(toolId, input, null, options,
+                                    work -> bulkhead.call(engine, work)));
+                    item.setSuccess(result.isSuccess() && result.getOutputPath() != null);
+                    item.setMessage(result.getMessage());
+                    item.setProcessingTimeMs(System.currentTimeMillis() - start);
+                    if (!item.isSuccess())
+                        return new Completed(item, null);
+                    item.setEntry(result.getFileName());
+                    item.setFileSizeBytes(result.getFileSizeBytes());
+                    // Waits in the completion queue until it is zipped, then is discarded
+                    outputStore.pin(result.getOutputPath());
+                    return new Completed(item, result.getOutputPath());
+                } catch (ConversionRejectedException e) {
+                    retryAfter = Math.max(1, e.getRetryAfterSeconds());
+                } finally {
+                    inFlight.release();
+                }
+                // The engine is saturated by other requests; a batch waits its turn instead of dropping the item
+                log.debug("Batch item {} for tool {} rejected, retrying in {}s", index, toolId, retryAfter);
+                TimeUnit.SECONDS.sleep(retryAfter);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            item.setMessage("Batch cancelled");
+        } catch (Exception e) {
+            log.warn("Batch item {} ({}) for tool {} failed: {}", index, input.getOriginalFilename(), toolId,
+                    e.getMessage());
+            item.setMessage("Conversion failed: " + e.getMessage());
+        }
+        item.setProcessingTimeMs(System.currentTimeMillis() - start);
+        return new Completed(item, null);
+    }
+
+    private void writeEntry(ZipOutputStream zip, String name, Path output) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        if (STORED_EXTENSIONS.contains(FilenameUtils.getExtension(name).toLowerCase())) {
+            // A stored entry needs its size and CRC up front; the file is hot in the page cache
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(Files.size(output));
+            entry.setCompressedSize(entry.getSize());
+            entry.setCrc(crc32(output));
+        }
+        zip.putNextEntry(entry);
+        Files.copy(output, zip);
+        zip.closeEntry();
+    }
+
+    private static long crc32(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buf = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buf)) != -1)
+                crc.update(buf, 0, n);
+        }
+        return crc.getValue();
+    }
+
+    /** {@code name}, or {@code name (2).ext}, {@code name (3).ext}... when inputs share a base name. */
+    static String uniqueName(String name, Set<String> taken) {
+        String candidate = name;
+        String base = FilenameUtils.getBaseName(name);
+        String ext = FilenameUtils.getExtension(name);
+        for (int n = 2; !taken.add(candidate); n++)
+            candidate = base + " (" + n + ")" + (ext.isEmpty() ? "" : "." + ext);
+        return candidate;
+    }
+
+    static Map<String, Object> manifest(String toolId, BatchItem[] items) {
+        long succeeded = Arrays.stream(items).filter(BatchItem::isSuccess).count();
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("tool", toolId);
+        manifest.put("total", items.length);
+        manifest.put("succeeded", succeeded);
+        manifest.put("failed", items.length - succeeded);
+        manifest.put("items", new ArrayList<>(List.of(items)));
+        return manifest;
+    }
+
+    /** Drops the outputs of items that finish after the zip was abandoned. */
+    private void discardRemaining(ExecutorService executor, BlockingQueue<Completed> completed) {
+        Thread.ofVirtual().start(() -> {
+            executor.close();
+            Completed done;
+            while ((done = completed.poll()) != null) {
+                if (done.output() != null)
+                    outputStore.discard(done.output());
+            }
+        });
+    }
+
+    private record Completed(BatchItem item, Path output) {
+    }
+}
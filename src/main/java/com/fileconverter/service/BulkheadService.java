@@ -0,0 +1,163 @@
+package com.fileconverter.service;
+
+import com.fileconverter.exception.ConversionRejectedException;
+import com.fileconverter.model.Engine;
+import com.fileconverter.model.EngineStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-engine admission control. Every engine has a fixed number of concurrent slots and a
+ * bounded FIFO wait queue in front of them; when the queue is full, callers are rejected
+ * straight away instead of piling up on request threads.
+ */
+@Service
+public class BulkheadService {
+
+    @FunctionalInterface
+    public interface ConversionTask<T> {
+        T call() throws IOException;
+    }
+
+    private final Map<Engine, Lane> lanes = new EnumMap<>(Engine.class);
+    private final int queueTimeoutSeconds;
+
+    public BulkheadService(
+            @Value("${app.bulkhead.libreoffice.max-concurrent:${app.libreoffice.pool.size:2}}") int loConcurrent,
+            @Value("${app.bulkhead.libreoffice.queue-capacity:20}") int loQueue,
+            @Value("${app.bulkhead.ffmpeg.max-concurrent:2}") int ffmpegConcurrent,
+            @Value("${app.bulkhead.ffmpeg.queue-capacity:10}") int ffmpegQueue,
+            @Value("${app.bulkhead.jvm.max-concurrent:0}") int jvmConcurrent,
+            @Value("${app.bulkhead.jvm.queue-capacity:50}") int jvmQueue,
+            @Value("${app.bulkhead.queue-timeout-seconds:120}") int queueTimeoutSeconds) {
+        // 0 means "one slot per core" for the in-JVM engine
+        int jvmSlots = jvmConcurrent > 0 ? jvmConcurrent : Runtime.getRuntime().availableProcessors();
+        lanes.put(Engine.LIBREOFFICE, new Lane(loConcurrent, loQueue));
+        lanes.put(Engine.FFMPEG, new Lane(ffmpegConcurrent, ffmpegQueue));
+        lanes.put(Engine.JVM, new Lane(jvmSlots, jvmQueue));
+        this.queueTimeoutSeconds = queueTimeoutSeconds;
+    }
+
+    public <T> T call(Engine engine, ConversionTask<T> task) throws IOException {
+        Lane lane = lanes.get(engine);
+        long enqueued = System.nanoTime();
+
+        boolean acquired;
+        try {
+            // The timed form honours the fair queue; plain tryAcquire() would barge past callers already waiting
+            acquired = lane.permits.tryAcquire(0, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a conversion slot", e);
+        }
+        if (!acquired) {
+            if (lane.queued.incrementAndGet() > lane.queueCapacity) {
+                lane.queued.decrementAndGet();
+                lane.rejected.increment();
+                throw new ConversionRejectedException(
+                        "The " + engine.name().toLowerCase() + " engine is busy, please retry shortly", retryAfter(lane));
+            }
+            try {
+                if (!lane.permits.tryAcquire(queueTimeoutSeconds, TimeUnit.SECONDS)) {
+                    lane.rejected.increment();
+                    throw new ConversionRejectedException(
+                            "Timed out waiting for the " + engine.name().toLowerCase() + " engine", retryAfter(lane));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for a conversion slot", e);
+            } finally {
+                lane.queued.decrementAndGet();
+            }
+        }
+
+        long waitNanos = System.nanoTime() - enqueued;
+        ConversionTrace.queueWait(waitNanos);
+        long waitMs = TimeUnit.NANOSECONDS.toMillis(waitNanos);
+        lane.waitTotalMs.add(waitMs);
+        lane.maxWaitMs.accumulateAndGet(waitMs, Math::max);
+
+        long runStart = System.nanoTime();
+        try {
+            return task.call();
+        } finally {
+            lane.permits.release();
+            lane.runTotalMs.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - runStart));
+            lane.completed.increment();
+        }
+    }
+
+    /**
+     * Rejects straight away when every slot is taken and the queue is full, for callers that
+     * only reach {@link #call} later, such as background jobs, so they can still answer 429.
+     */
+    public void checkCapacity(Engine engine) {
+        Lane lane = lanes.get(engine);
+        if (lane.permits.availablePermits() == 0 && lane.queued.get() >= lane.queueCapacity) {
+            lane.rejected.increment();
+            throw new ConversionRejectedException(
+                    "The " + engine.name().toLowerCase() + " engine is busy, please retry shortly", retryAfter(lane));
+        }
+    }
+
+    /** Number of conversions the engine runs at once. */
+    public int getMaxConcurrent(Engine engine) {
+        return lanes.get(engine).maxConcurrent;
+    }
+
+    public Map<String, EngineStatus> getStatus() {
+        Map<String, EngineStatus> result = new LinkedHashMap<>();
+        lanes.forEach((engine, lane) -> {
+            long completed = lane.completed.sum();
+            result.put(engine.name().toLowerCase(), EngineStatus.builder()
+                    .engine(engine.name().toLowerCase())
+                    .maxConcurrent(lane.maxConcurrent)
+                    .active(lane.maxConcurrent - lane.permits.availablePermits())
+                    .queued(lane.queued.get())
+                    .queueCapacity(lane.queueCapacity)
+                    .completed(completed)
+                    .rejected(lane.rejected.sum())
+                    .avgWaitMs(completed == 0 ? 0 : lane.waitTotalMs.sum() / completed)
+                    .maxWaitMs(lane.maxWaitMs.get())
+                    .avgRunMs(completed == 0 ? 0 : lane.runTotalMs.sum() / completed)
+                    .build());
+        });
+        return result;
+    }
+
+    /** Rough time until a queued request would be admitted, based on the average run time. */
+    private long retryAfter(Lane lane) {
+        long completed = lane.completed.sum();
+        long avgRunMs = completed == 0 ? 1000 : lane.runTotalMs.sum() / completed;
+        long drainMs = avgRunMs * (lane.queued.get() + 1) / lane.maxConcurrent;
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(drainMs));
+    }
+
+    private static final class Lane {
+        final int maxConcurrent;
+        final int queueCapacity;
+        final Semaphore permits;
+        final AtomicInteger queued = new AtomicInteger();
+        final LongAdder completed = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder waitTotalMs = new LongAdder();
+        final LongAdder runTotalMs = new LongAdder();
+        final AtomicLong maxWaitMs = new AtomicLong();
+
+        Lane(int maxConcurrent, int queueCapacity) {
+            this.maxConcurrent = maxConcurrent;
+            this.queueCapacity = queueCapacity;
+            this.permits = new Semaphore(maxConcurrent, true);
+        }
+    }
+}
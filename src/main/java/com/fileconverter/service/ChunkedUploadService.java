@@ -0,0 +1,382 @@
+package com.fileconverter.service;
+
+import com.fileconverter.exception.ConversionRejectedException;
+import com.fileconverter.model.ChunkReceipt;
+import com.fileconverter.model.UploadStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Resumable uploads: create an upload of a known size, write chunks at any offset, in any
+ * order and in parallel, check which ranges have arrived, then commit. The file is
+ * preallocated at its final size and chunks go straight to their place with positional
+ * {@link FileChannel} writes. Each chunk is hashed as it is written and checked against the
+ * client's digest when one is sent. A chunk that fails part-way, on a bad digest or a broken
+ * body, has already overwritten its range, so that range stops counting as received even
+ * where an earlier chunk had delivered it.
+ * <p>
+ * A committed upload is a plain file with a known SHA-256, usable as the input of any tool
+ * via {@link #inputs}. Uploads that see no activity for the TTL are deleted.
+ */
+@Service
+public class ChunkedUploadService {
+    private static final Logger log = LoggerFactory.getLogger(ChunkedUploadService.class);
+    private static final Path ROOT = Path.of(System.getProperty("java.io.tmpdir"), "file-converter-resumable");
+
+    private static final class Upload {
+        final String id;
+        final String fileName;
+        final String contentType;
+        final long size;
+        final Path path;
+        final FileChannel channel;
+        /** Chunk writes share the read lock so they run in parallel; commit and discard take the write lock. */
+        final ReadWriteLock lock = new ReentrantReadWriteLock();
+        /** Received ranges, start → end (exclusive), kept merged. Guarded by itself. */
+        final TreeMap<Long, Long> ranges = new TreeMap<>();
+        volatile boolean committed;
+        volatile boolean discarded;
+        volatile String sha256;
+        volatile Instant lastActivity = Instant.now();
+
+        Upload(String id, String fileName, String contentType, long size, Path path, FileChannel channel) {
+            this.id = id;
+            this.fileName = fileName;
+            this.contentType = contentType;
+            this.size = size;
+            this.path = path;
+            this.channel = channel;
+        }
+
+        void markReceived(long start, long end) {
+            synchronized (ranges) {
+                Map.Entry<Long, Long> before = ranges.floorEntry(start);
+                if (before != null && before.getValue() >= start) {
+                    start = before.getKey();
+                    end = Math.max(end, before.getValue());
+                }
+                Map.Entry<Long, Long> next;
+                while ((next = ranges.ceilingEntry(start)) != null && next.getKey() <= end) {
+                    end = Math.max(end, next.getValue());
+                    ranges.remove(next.getKey());
+                }
+                ranges.put(start, end);
+            }
+        }
+
+        /** Forgets {@code [start, end)}, splitting any received range that straddles it. */
+        void markMissing(long start, long end) {
+            synchronized (ranges) {
+                Map.Entry<Long, Long> before = ranges.lowerEntry(start);
+                if (before != null && before.getValue() > start) {
+                    ranges.put(before.getKey(), start);
+                    if (before.getValue() > end)
+                        ranges.put(end, before.getValue());
+                }
+                Map.Entry<Long, Long> next;
+                while ((next = ranges.ceilingEntry(start)) != null && next.getKey() < end) {
+                    ranges.remove(next.getKey());
+                    if (next.getValue() > end)
+                        ranges.put(end, next.getValue());
+                }
+            }
+        }
+
+        List<long[]> rangeList() {
+            synchronized (ranges) {
+                List<long[]> list = new ArrayList<>(ranges.size());
+                ranges.forEach((s, e) -> list.add(new long[]{s, e}));
+                return list;
+            }
+        }
+
+        long receivedBytes() {
+            synchronized (ranges) {
+                return ranges.entrySet().stream().mapToLong(e -> e.getValue() - e.getKey()).sum();
+            }
+        }
+    }
+
+    private final Map<String, Upload> uploads = new ConcurrentHashMap<>();
+    private final AtomicLong reservedBytes = new AtomicLong();
+    private final long maxFileBytes;
+    private final long maxChunkBytes;
+    private final long maxTotalBytes;
+    private final Duration ttl;
+    private final ScheduledExecutorService janitor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "upload-janitor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ChunkedUploadService(@Value("${spring.servlet.multipart.max-file-size:1GB}") DataSize maxFileSize,
+                                @Value("${app.uploads.max-chunk-mb:64}") long maxChunkMb,
+                                @Value("${app.uploads.max-size-mb:20480}") long maxSizeMb,
+                                @Value("${app.uploads.ttl-minutes:1440}") long ttlMinutes) {
+        this.maxFileBytes = maxFileSize.toBytes();
+        this.maxChunkBytes = maxChunkMb * 1024 * 1024;
+        this.maxTotalBytes = maxSizeMb * 1024 * 1024;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        // Upload state is in memory only, so files from a previous run can't be resumed
+        if (Files.exists(ROOT)) {
+            try (var stream = Files.list(ROOT)) {
+                for (Path p : stream.toList())
+                    Files.deleteIfExists(p);
+            }
+        }
+        Files.createDirectories(ROOT);
+        janitor.scheduleWithFixedDelay(this::sweep, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        janitor.shutdownNow();
+        uploads.values().forEach(this::discard);
+    }
+
+    public UploadStatus create(String fileName, String contentType, long size) throws IOException {
+        if (fileName == null || fileName.isBlank())
+            throw new IllegalArgumentException("fileName is required");
+        if (size <= 0)
+            throw new IllegalArgumentException("size must be positive");
+        if (size > maxFileBytes)
+            throw new MaxUploadSizeExceededException(maxFileBytes);
+        if (reservedBytes.addAndGet(size) > maxTotalBytes) {
+            reservedBytes.addAndGet(-size);
+            throw new ConversionRejectedException("Upload storage is full, please retry later", 60);
+        }
+
+        String id = UUID.randomUUID().toString().replace("-", "");
+        Path path = ROOT.resolve(id);
+        FileChannel channel;
+        try (RandomAccessFile raf = new RandomAccessFile(path.toFile(), "rw")) {
+            // Sparse on most file systems; blocks are allocated as chunks land
+            raf.setLength(size);
+            channel = FileChannel.open(path, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            reservedBytes.addAndGet(-size);
+            Files.deleteIfExists(path);
+            throw e;
+        }
+        Upload upload = new Upload(id, FilenameUtils.getName(fileName), contentType, size, path, channel);
+        uploads.put(id, upload);
+        log.debug("Created upload {} for {} ({} bytes)", id, upload.fileName, size);
+        return status(upload);
+    }
+
+    /**
+     * Writes {@code body} at {@code offset}. The range only counts as received once the whole
+     * chunk is on disk and, when {@code expectedSha256} is given, its digest matches; when it
+     * fails, whatever part of the range it wrote no longer counts as received.
+     */
+    public ChunkReceipt writeChunk(String id, long offset, InputStream body, String expectedSha256)
+            throws IOException {
+        Upload upload = require(id);
+        if (offset < 0 || offset >= upload.size)
+            throw new IllegalArgumentException("Offset " + offset + " is outside 0.." + (upload.size - 1));
+
+        MessageDigest digest = sha256();
+        long written = 0;
+        upload.lock.readLock().lock();
+        try {
+            if (upload.discarded)
+                throw new NoSuchElementException("Unknown upload: " + id);
+            if (upload.committed)
+                throw new IllegalStateException("Upload " + id + " is already committed");
+            upload.lastActivity = Instant.now();
+            String sha256;
+            try {
+                byte[] buf = new byte[64 * 1024];
+                int n;
+                while ((n = body.read(buf)) != -1) {
+                    if (offset + written + n > upload.size)
+                        throw new IllegalArgumentException("Chunk runs past the declared size of " + upload.size);
+                    if (written + n > maxChunkBytes)
+                        throw new MaxUploadSizeExceededException(maxChunkBytes);
+                    digest.update(buf, 0, n);
+                    ByteBuffer bb = ByteBuffer.wrap(buf, 0, n);
+                    long position = offset + written;
+                    while (bb.hasRemaining())
+                        position += upload.channel.write(bb, position);
+                    written += n;
+                }
+
+                sha256 = HexFormat.of().formatHex(digest.digest());
+                if (expectedSha256 != null && !expectedSha256.equalsIgnoreCase(sha256))
+                    throw new IllegalArgumentException("Chunk checksum mismatch at offset " + offset
+                            + ": expected " + expectedSha256 + ", received " + sha256);
+            } catch (IOException | RuntimeException e) {
+                // The bytes are on disk already, possibly over a range that had arrived intact
+                if (written > 0)
+                    upload.markMissing(offset, offset + written);
+                throw e;
+            }
+            if (written > 0)
+                upload.markReceived(offset, offset + written);
+            upload.lastActivity = Instant.now();
+            return ChunkReceipt.builder()
+                    .offset(offset)
+                    .length(written)
+                    .sha256(sha256)
+                    .upload(status(upload))
+                    .build();
+        } finally {
+            upload.lock.readLock().unlock();
+        }
+    }
+
+    public UploadStatus status(String id) {
+        return status(require(id));
+    }
+
+    /**
+     * Seals the upload once every byte has arrived and records its SHA-256, checked against
+     * {@code expectedSha256} when given. Committing twice is harmless.
+     */
+    public UploadStatus commit(String id, String expectedSha256) throws IOException {
+        Upload upload = require(id);
+        upload.lock.writeLock().lock();
+        try {
+            if (upload.discarded)
+                throw new NoSuchElementException("Unknown upload: " + id);
+            if (!upload.committed) {
+                List<long[]> ranges = upload.rangeList();
+                if (ranges.size() != 1 || ranges.get(0)[0] != 0 || ranges.get(0)[1] != upload.size)
+                    throw new IllegalStateException("Upload " + id + " is incomplete: "
+                            + upload.receivedBytes() + " of " + upload.size + " bytes received");
+                String sha256;
+                try (InputStream in = Files.newInputStream(upload.path)) {
+                    sha256 = ResultCache.sha256(in);
+                }
+                if (expectedSha256 != null && !expectedSha256.equalsIgnoreCase(sha256))
+                    throw new IllegalArgumentException("Checksum mismatch: expected " + expectedSha256
+                            + ", file has " + sha256);
+                upload.channel.close();
+                upload.sha256 = sha256;
+                upload.committed = true;
+            }
+            upload.lastActivity = Instant.now();
+            return status(upload);
+        } finally {
+            upload.lock.writeLock().unlock();
+        }
+    }
+
+    public void delete(String id) {
+        Upload upload = uploads.remove(id);
+        if (upload == null)
+            throw new NoSuchElementException("Unknown upload: " + id);
+        discard(upload);
+    }
+
+    /** Committed uploads as conversion inputs, in the order given. */
+    public List<MultipartFile> inputs(List<String> ids) {
+        List<MultipartFile> files = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Upload upload = require(id.trim());
+            if (!upload.committed)
+                throw new IllegalStateException("Upload " + id + " has not been committed");
+            upload.lastActivity = Instant.now();
+            files.add(new FileBackedMultipartFile(upload.path, upload.fileName, upload.contentType, upload.sha256));
+        }
+        return files;
+    }
+
+    private Upload require(String id) {
+        Upload upload = uploads.get(id);
+        if (upload == null)
+            throw new NoSuchElementException("Unknown upload: " + id);
+        return upload;
+    }
+
+    private UploadStatus status(Upload upload) {
+        return UploadStatus.builder()
+                .id(upload.id)
+                .fileName(upload.fileName)
+                .contentType(upload.contentType)
+                .size(upload.size)
+                .receivedBytes(upload.receivedBytes())
+                .ranges(upload.rangeList())
+                .committed(upload.committed)
+                .sha256(upload.sha256)
+                .expiresAt(upload.lastActivity.plus(ttl))
+                .build();
+    }
+
+    private void sweep() {
+        Instant cutoff = Instant.now().minus(ttl);
+        for (Upload upload : uploads.values()) {
+            if (upload.lastActivity.isBefore(cutoff) && uploads.remove(upload.id, upload)) {
+                log.debug("Upload {} expired", upload.id);
+                discard(upload);
+            }
+        }
+    }
+
+    /**
+     * Waits for chunk writes in progress, then deletes the file. Conversions already reading
+     * it keep their open handles; the name goes away.
+     */
+    private void discard(Upload upload) {
+        upload.lock.writeLock().lock();
+        try {
+            if (upload.discarded)
+                return;
+            upload.discarded = true;
+            upload.channel.close();
+            Files.deleteIfExists(upload.path);
+        } catch (IOException e) {
+            log.warn("Could not delete upload {}: {}", upload.id, e.getMessage());
+        } finally {
+            upload.lock.writeLock().unlock();
+        }
+        reservedBytes.addAndGet(-upload.size);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.fileconverter.service;
+
+import com.fileconverter.exception.ConversionRejectedException;
+import com.fileconverter.model.ConversionResult;
+import com.fileconverter.model.Engine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer instrumentation of conversions, tagged by tool id. These meters are the single
+ * source of conversion counts; {@link StatsService} reads its totals back from them.
+ * <p>
+ * Engine time is the conversion's wall time minus queue wait and upload save, i.e. the
+ * time spent in LibreOffice, FFmpeg or the in-JVM libraries.
+ */
+@Service
+public class ConversionMetrics {
+    public static final String REQUESTS = "conversion.requests";
+
+    private final MeterRegistry registry;
+
+    public ConversionMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Runs {@code task} (normally the bulkhead call around the conversion) and records its
+     * meters. Exceptions are recorded as failures, or as rejections for a full engine, and
+     * rethrown.
+     */
+    public ConversionResult record(String toolId, String category, Engine engine, long inputBytes,
+                                   BulkheadService.ConversionTask<ConversionResult> task) throws IOException {
+        String engineTag = engine.name().toLowerCase();
+        ConversionTrace trace = new ConversionTrace();
+        long start = System.nanoTime();
+        String outcome = "failure";
+        ConversionResult result = null;
+        try {
+            result = trace.run(task);
+            outcome = result.isSuccess() ? "success" : "failure";
+            return result;
+        } catch (ConversionRejectedException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            long total = System.nanoTime() - start;
+            Timer.builder(REQUESTS)
+                    .description("Conversion requests from admission to result")
+                    .tag("tool", toolId)
+                    .tag("category", category)
+                    .tag("engine", engineTag)
+                    .tag("outcome", outcome)
+                    .tag("cache", trace.cacheHit ? "hit" : "miss")
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(total, TimeUnit.NANOSECONDS);
+
+            if (!"rejected".equals(outcome)) {
+                Timer.builder("conversion.queue.wait")
+                        .description("Time waiting for an engine slot")
+                        .tags("tool", toolId, "engine", engineTag)
+                        .publishPercentileHistogram()
+                        .register(registry)
+                        .record(trace.queueWaitNanos, TimeUnit.NANOSECONDS);
+                if (trace.uploadSaveNanos > 0)
+                    recordUploadSave(toolId, trace.uploadSaveNanos);
+                if (!trace.cacheHit) {
+                    long engineNanos = Math.max(0, total - trace.queueWaitNanos - trace.uploadSaveNanos);
+                    Timer.builder("conversion.engine")
+                            .description("Time spent converting, excluding queue wait and upload save")
+                            .tags("tool", toolId, "engine", engineTag)
+                            .publishPercentileHistogram()
+                            .register(registry)
+                            .record(engineNanos, TimeUnit.NANOSECONDS);
+                }
+                sizeSummary("conversion.input.size", toolId).record(inputBytes);
+                if (result != null && result.isSuccess())
+                    sizeSummary("conversion.output.size", toolId).record(result.getFileSizeBytes());
+            }
+            if (trace.spawns > 0) {
+                Counter.builder("conversion.subprocess.spawns")
+                        .description("External processes started by conversions")
+                        .tags("tool", toolId, "engine", engineTag)
+                        .register(registry)
+                        .increment(trace.spawns);
+            }
+        }
+    }
+
+    /** Records upload staging that happens outside {@link #record}, e.g. when a job is submitted. */
+    public void recordUploadSave(String toolId, long nanos) {
+        Timer.builder("conversion.upload.save")
+                .description("Time copying uploads to local disk")
+                .tag("tool", toolId)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private DistributionSummary sizeSummary(String name, String toolId) {
+        return DistributionSummary.builder(name)
+                .baseUnit("bytes")
+                .tag("tool", toolId)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1024.0)
+                .maximumExpectedValue(4.0 * 1024 * 1024 * 1024)
+                .register(registry);
+    }
+}
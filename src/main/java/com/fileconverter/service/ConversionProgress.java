@@ -0,0 +1,35 @@
+package com.fileconverter.service;
+
+import java.io.IOException;
+
+/**
+ * Progress channel from a running conversion to whoever started it. Converters call
+ * {@link #report} from the thread that runs the conversion; outside of a job it is a no-op.
+ */
+public final class ConversionProgress {
+
+    @FunctionalInterface
+    public interface Listener {
+        void onProgress(long done, long total, String unit);
+    }
+
+    private static final ThreadLocal<Listener> CURRENT = new ThreadLocal<>();
+
+    private ConversionProgress() {
+    }
+
+    public static <T> T track(Listener listener, BulkheadService.ConversionTask<T> task) throws IOException {
+        CURRENT.set(listener);
+        try {
+            return task.call();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    public static void report(long done, long total, String unit) {
+        Listener listener = CURRENT.get();
+        if (listener != null)
+            listener.onProgress(done, total, unit);
+    }
+}
@@ -1,33 +1,25 @@
 package com.fileconverter.service;
 
+import com.fileconverter.model.ConversionOptions;
 import com.fileconverter.model.ConversionResult;
 import net.coobird.thumbnailator.Thumbnails;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
 import org.apache.pdfbox.Loader;
-import org.apache.pdfbox.multipdf.PDFMergerUtility;
-import org.apache.pdfbox.multipdf.Splitter;
+import org.apache.pdfbox.io.IOUtils;
 import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.PDPageContentStream;
-import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
-import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
-import org.apache.pdfbox.rendering.ImageType;
-import org.apache.pdfbox.rendering.PDFRenderer;
-import org.apache.pdfbox.text.PDFTextStripper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.opencsv.CSVReader;
 
 import javax.imageio.ImageIO;
 // AWT – explicit imports to avoid POI Color/Font ambiguity
-import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 import java.io.*;
@@ -44,10 +36,43 @@ public class ConversionService {
     private static final Logger log = LoggerFactory.getLogger(ConversionService.class);
     private static final Path TEMP_DIR = Path.of(System.getProperty("java.io.tmpdir"), "file-converter");
 
-    @Value("${app.libreoffice.path}")
-    private String libreOfficePath;
-
-    public ConversionService() {
+    /** Tools whose converter reads its input once, front to back, straight from the upload stream. */
+    private static final Set<String> STREAMING_TOOLS = Set.of(
+            "jpg-to-png", "gif-to-png", "bmp-to-png", "png-to-jpg", "webp-to-png", "png-to-webp", "jpg-to-webp",
+            "image-resize", "image-compress", "image-to-grayscale",
+            "csv-to-excel", "csv-to-json");
+    /** Tools that combine all their inputs into one output. */
+    private static final Set<String> MULTI_INPUT_TOOLS = Set.of("pdf-merge", "images-to-pdf");
+
+    private final LibreOfficePool libreOfficePool;
+    private final PdfPageRenderer pdfPageRenderer;
+    private final PdfTextExtractor pdfTextExtractor;
+    private final PdfCompressor pdfCompressor;
+    private final PdfMerger pdfMerger;
+    private final PdfImageAssembler pdfImageAssembler;
+    private final PixelKernels pixelKernels;
+    private final SpreadsheetConverter spreadsheetConverter;
+    private final ResultCache resultCache;
+    private final OutputStore outputStore;
+
+    @Value("${app.ffmpeg.path:ffmpeg}")
+    private String ffmpegPath;
+
+    public ConversionService(LibreOfficePool libreOfficePool, PdfPageRenderer pdfPageRenderer,
+                             PdfTextExtractor pdfTextExtractor, PdfCompressor pdfCompressor, PdfMerger pdfMerger,
+                             PdfImageAssembler pdfImageAssembler, PixelKernels pixelKernels,
+                             SpreadsheetConverter spreadsheetConverter, ResultCache resultCache,
+                             OutputStore outputStore) {
+        this.libreOfficePool = libreOfficePool;
+        this.pdfPageRenderer = pdfPageRenderer;
+        this.pdfTextExtractor = pdfTextExtractor;
+        this.pdfCompressor = pdfCompressor;
+        this.pdfMerger = pdfMerger;
+        this.pdfImageAssembler = pdfImageAssembler;
+        this.pixelKernels = pixelKernels;
+        this.spreadsheetConverter = spreadsheetConverter;
+        this.resultCache = resultCache;
+        this.outputStore = outputStore;
         try {
             Files.createDirectories(TEMP_DIR);
         } catch (IOException e) {
@@ -55,6 +80,151 @@ public class ConversionService {
         }
     }
 
+    // ============================================================
+    // DISPATCH
+    // ============================================================
+
+    /**
+     * Gate a conversion passes through once it is known to need real work, typically
+     * {@code work -> bulkhead.call(engine, work)}. Cache hits never reach it.
+     */
+    @FunctionalInterface
+    public interface Admission {
+        ConversionResult admit(BulkheadService.ConversionTask<ConversionResult> work) throws IOException;
+    }
+
+    public ConversionResult convert(String toolId, MultipartFile file, List<MultipartFile> files,
+                                    ConversionOptions options) throws IOException {
+        return convert(toolId, file, files, options, BulkheadService.ConversionTask::call);
+    }
+
+    /**
+     * Converts through the result cache, running the converter under {@code admission} only on a
+     * miss, so a hit is served without waiting for (or taking) an engine slot.
+     */
+    public ConversionResult convert(String toolId, MultipartFile file, List<MultipartFile> files,
+                                    ConversionOptions options, Admission admission) throws IOException {
+        ConversionResult result = convertCached(toolId, file, files, options, admission);
+        if (options.isDeleteAfterDownload() && result.getOutputPath() != null)
+            outputStore.markDeleteAfterDownload(result.getOutputPath());
+        return result;
+    }
+
+    private ConversionResult convertCached(String toolId, MultipartFile file, List<MultipartFile> files,
+                                           ConversionOptions options, Admission admission) throws IOException {
+        // Single-input conversions go through the result cache; multi-file tools are not cached
+        if (!resultCache.isEnabled() || file == null || file.isEmpty() || (files != null && !files.isEmpty()))
+            return admission.admit(() -> dispatch(toolId, file, files, options));
+
+        long start = System.currentTimeMillis();
+        Path staged = null;
+        try {
+            FileBackedMultipartFile input;
+            if (file instanceof FileBackedMultipartFile fb && fb.getSha256() != null) {
+                input = fb;
+            } else {
+                // Stage the upload once and hash it on the way; converters then hard-link or read the
+                // staged copy, so the upload is not read a second time just for the cache key
+                long saveStart = System.nanoTime();
+                staged = TEMP_DIR.resolve(UUID.randomUUID() + "_upload");
+                try {
+                    input = FileBackedMultipartFile.copyOf(file, staged);
+                } finally {
+                    ConversionTrace.uploadSaved(System.nanoTime() - saveStart);
+                }
+            }
+            String key = ResultCache.key(input.getSha256(), toolId, options);
+            String baseName = FilenameUtils.getBaseName(input.getOriginalFilename());
+            ConversionResult cached = resultCache.get(key, baseName, outputStore);
+            if (cached != null) {
+                ConversionTrace.cacheHit();
+                cached.setProcessingTimeMs(System.currentTimeMillis() - start);
+                return cached;
+            }
+            ConversionResult result = admission.admit(() -> dispatch(toolId, input, files, options));
+            if (result.isSuccess() && result.getOutputPath() != null)
+                resultCache.put(key, baseName, result, result.getOutputPath());
+            return result;
+        } finally {
+            if (staged != null)
+                deleteSilently(staged);
+        }
+    }
+
+    /** Whether the tool takes a list of files and produces a single output from all of them. */
+    public boolean isMultiInput(String toolId) {
+        return MULTI_INPUT_TOOLS.contains(toolId);
+    }
+
+    /** Whether {@link #convertStreaming} can run this tool on an upload that is still arriving. */
+    public boolean canStream(String toolId, ConversionOptions options) {
+        return STREAMING_TOOLS.contains(toolId) && !options.isUseLibreOffice();
+    }
+
+    /**
+     * Runs a {@link #canStream streaming-capable} tool on an input whose stream may still be
+     * growing. The result cache is bypassed because the input hash is only known once the
+     * upload ends.
+     */
+    public ConversionResult convertStreaming(String toolId, MultipartFile file, ConversionOptions options)
+            throws IOException {
+        if (!canStream(toolId, options))
+            throw new IllegalArgumentException("Tool " + toolId + " cannot convert a streaming upload");
+        ConversionResult result = dispatch(toolId, file, null, options);
+        if (options.isDeleteAfterDownload() && result.getOutputPath() != null)
+            outputStore.markDeleteAfterDownload(result.getOutputPath());
+        return result;
+    }
+
+    private ConversionResult dispatch(String toolId, MultipartFile file, List<MultipartFile> files,
+                                      ConversionOptions options) throws IOException {
+        return switch (toolId) {
+            // PDF tools
+            case "pdf-to-word"    -> pdfToWord(file);
+            case "word-to-pdf"    -> wordToPdf(file);
+            case "ppt-to-pdf"     -> pptToPdf(file);
+            case "pdf-merge"      -> mergePdfs(files != null ? files : List.of(file), options);
+            case "pdf-split"      -> splitPdf(file, options);
+            case "pdf-compress"   -> compressPdf(file, options);
+            case "pdf-to-images"  -> pdfToImages(file, options);
+            case "images-to-pdf"  -> imagesToPdf(files != null ? files : List.of(file), options);
+            case "pdf-to-txt"     -> pdfToText(file, options);
+            case "txt-to-pdf"     -> textToPdf(file);
+            case "html-to-pdf"    -> htmlToPdf(file);
+            case "md-to-html"     -> markdownToHtml(file);
+            case "rtf-to-pdf"     -> rtfToPdf(file);
+
+            // Image tools
+            case "jpg-to-png", "gif-to-png", "bmp-to-png" -> convertImage(file, "png");
+            case "png-to-jpg"     -> convertImage(file, "jpg");
+            case "webp-to-png"    -> convertImage(file, "png");
+            case "png-to-webp", "jpg-to-webp" -> convertImage(file, "webp");
+            case "image-resize"   -> resizeImage(file, options.getWidth(), options.getHeight());
+            case "image-compress" -> compressImage(file, options.getQuality());
+            case "image-to-grayscale" -> imageToGrayscale(file);
+
+            // Spreadsheet tools
+            case "csv-to-excel"   -> csvToExcel(file, options);
+            case "excel-to-csv"   -> excelToCsv(file, options);
+            case "csv-to-json"    -> csvToJson(file, options);
+            case "json-to-csv"    -> jsonToCsv(file);
+            case "excel-to-pdf"   -> excelToPdf(file);
+
+            // Media tools
+            case "video-to-audio", "mp4-to-mp3" -> convertMedia(file, "mp3");
+            case "mp3-to-wav"     -> convertMedia(file, "wav");
+            case "wav-to-mp3"     -> convertMedia(file, "mp3");
+
+            // PPT from PDF
+            case "pdf-to-ppt" -> {
+                // Convert PDF to images then create a basic PPTX
+                yield pdfToImages(file, options); // fallback
+            }
+
+            default -> ConversionResult.builder().success(false).message("Unknown tool: " + toolId).build();
+        };
+    }
+
     // ============================================================
     // PDF TOOLS
     // ============================================================
@@ -86,6 +256,7 @@ public class ConversionService {
     /**
      * Uses LibreOffice headless mode for high-fidelity document conversion.
      * Preserves original formatting, fonts, tables, images, and layout.
+     * The job runs on a warm worker from {@link LibreOfficePool} when one is available.
      */
     private Path convertWithLibreOffice(Path inputPath, String format, String outName) throws IOException {
         // Create a unique temp dir for LibreOffice output
@@ -93,35 +264,17 @@ public class ConversionService {
         try {
             // Detect if the input is a PDF — LibreOffice needs a special import filter
             String inputExt = FilenameUtils.getExtension(inputPath.getFileName().toString()).toLowerCase();
-            List<String> command = new ArrayList<>();
-            command.add(libreOfficePath);
-            command.add("--headless");
+            List<String> args = new ArrayList<>();
             if ("pdf".equals(inputExt)) {
-                command.add("--infilter=writer_pdf_import");
+                args.add("--infilter=writer_pdf_import");
             }
-            command.add("--convert-to");
-            command.add(format);
-            command.add("--outdir");
-            command.add(tempOutDir.toString());
-            command.add(inputPath.toString());
-
-            ProcessBuilder pb = new ProcessBuilder(command);
-            pb.redirectErrorStream(true);
-            Process process = pb.start();
+            args.add("--convert-to");
+            args.add(format);
+            args.add("--outdir");
+            args.add(tempOutDir.toString());
+            args.add(inputPath.toString());
 
-            // Read output to prevent blocking
-            String processOutput = new String(process.getInputStream().readAllBytes());
-            log.debug("LibreOffice output: {}", processOutput);
-
-            boolean completed = process.waitFor(120, TimeUnit.SECONDS);
-            if (!completed) {
-                process.destroyForcibly();
-                throw new IOException("LibreOffice conversion timed out after 120 seconds");
-            }
-            if (process.exitValue() != 0) {
-                throw new IOException(
-                        "LibreOffice conversion failed (exit code " + process.exitValue() + "): " + processOutput);
-            }
+            libreOfficePool.execute(args);
 
             // Find the converted output file
             String baseName = FilenameUtils.getBaseName(inputPath.getFileName().toString());
@@ -137,13 +290,15 @@ public class ConversionService {
             }
 
             // Move to final location
-            Path outPath = TEMP_DIR.resolve(outName);
-            Files.move(convertedFile, outPath, StandardCopyOption.REPLACE_EXISTING);
+            Path outPath = outputStore.allocate(outName);
+            try {
+                Files.move(convertedFile, outPath, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException | RuntimeException e) {
+                outputStore.discard(outPath);
+                throw e;
+            }
             return outPath;
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new IOException("Conversion was interrupted", e);
         } finally {
             // Clean up the temporary LibreOffice output directory
             try {
@@ -172,126 +327,243 @@ public class ConversionService {
         }
     }
 
-    public ConversionResult mergePdfs(List<MultipartFile> files) throws IOException {
+    /**
+     * Merges the uploads in order with {@link PdfMerger}, one at a time. {@code mergeRanges}
+     * optionally cuts each input down first: one page range per input, separated by
+     * {@code ;}, e.g. {@code 1-3;;5-} (a blank entry keeps the whole file).
+     */
+    public ConversionResult mergePdfs(List<MultipartFile> files, ConversionOptions options) throws IOException {
         long start = System.currentTimeMillis();
-        PDFMergerUtility merger = new PDFMergerUtility();
-        List<Path> temps = new ArrayList<>();
+        List<String> ranges = splitMergeRanges(options.getMergeRanges(), files.size());
+        List<PdfMerger.Source> sources = new ArrayList<>();
         try {
-            for (MultipartFile f : files) {
-                Path p = saveTempFile(f);
-                temps.add(p);
-                merger.addSource(p.toFile());
-            }
+            for (int i = 0; i < files.size(); i++)
+                sources.add(new PdfMerger.Source(saveTempFile(files.get(i)), ranges.get(i)));
             String outName = "merged_" + System.currentTimeMillis() + ".pdf";
-            Path outPath = TEMP_DIR.resolve(outName);
-            merger.setDestinationFileName(outPath.toString());
-            merger.mergeDocuments(null);
-            return buildResult(true, "PDFs merged successfully!", outName, "PDF Merge", outPath, start);
+            Path outPath = outputStore.allocate(outName);
+            int pages;
+            try {
+                pages = pdfMerger.merge(sources, outPath);
+            } catch (IOException | RuntimeException e) {
+                outputStore.discard(outPath);
+                throw e;
+            }
+            return buildResult(true, files.size() + " PDFs merged into " + pages + (pages == 1 ? " page!" : " pages!"),
+                    outName, "PDF Merge", outPath, start);
         } finally {
-            temps.forEach(this::deleteSilently);
+            sources.forEach(s -> deleteSilently(s.path()));
         }
     }
 
-    public ConversionResult splitPdf(MultipartFile file) throws IOException {
+    private static List<String> splitMergeRanges(String spec, int files) {
+        List<String> ranges = new ArrayList<>(Collections.nCopies(files, (String) null));
+        if (spec == null || spec.isBlank())
+            return ranges;
+        String[] parts = spec.split(";", -1);
+        if (parts.length > files)
+            throw new IllegalArgumentException("Got page ranges for " + parts.length + " files but only " + files
+                    + " were uploaded");
+        for (int i = 0; i < parts.length; i++)
+            ranges.set(i, parts[i].isBlank() ? null : parts[i].trim());
+        return ranges;
+    }
+
+    /**
+     * Splits a PDF into a zip of smaller PDFs. Parts are built and written into the zip one at
+     * a time, so only the current part is held in memory. Modes:
+     * <ul>
+     *   <li>{@code pages} – one file per page (default)</li>
+     *   <li>{@code ranges} – one file per comma-separated range, e.g. {@code 1-3,5,8-}</li>
+     *   <li>{@code every} – consecutive chunks of {@code splitEvery} pages</li>
+     *   <li>{@code size} – consecutive chunks of at most roughly {@code maxPartSizeMb}</li>
+     * </ul>
+     */
+    public ConversionResult splitPdf(MultipartFile file, ConversionOptions options) throws IOException {
         long start = System.currentTimeMillis();
         Path inputPath = saveTempFile(file);
-        try (PDDocument doc = Loader.loadPDF(inputPath.toFile())) {
-            Splitter splitter = new Splitter();
-            List<PDDocument> pages = splitter.split(doc);
+        try (PDDocument doc = Loader.loadPDF(inputPath.toFile(), IOUtils.createTempFileOnlyStreamCache())) {
+            int pageCount = doc.getNumberOfPages();
+            List<int[]> parts = switch (options.getSplitMode()) {
+                case "ranges" -> PageRanges.parse(options.getPageRanges(), pageCount);
+                case "every" -> chunkPages(pageCount, Math.max(1, options.getSplitEvery()));
+                case "size" -> chunkPagesBySize(doc, Math.max(1, options.getMaxPartSizeMb()) * 1024L * 1024L);
+                default -> chunkPages(pageCount, 1);
+            };
 
-            // Zip all pages
             String zipName = FilenameUtils.getBaseName(file.getOriginalFilename()) + "_split.zip";
-            Path zipPath = TEMP_DIR.resolve(zipName);
-            try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(zipPath.toFile()))) {
-                for (int i = 0; i < pages.size(); i++) {
-                    PDDocument page = pages.get(i);
-                    ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                    page.save(baos);
-                    page.close();
-                    zos.putNextEntry(new ZipEntry("page_" + (i + 1) + ".pdf"));
-                    zos.write(baos.toByteArray());
-                    zos.closeEntry();
+            Path zipPath = outputStore.allocate(zipName);
+            try (ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(zipPath)))) {
+                for (int p = 0; p < parts.size(); p++) {
+                    int[] range = parts.get(p);
+                    try (PDDocument part = new PDDocument(IOUtils.createTempFileOnlyStreamCache())) {
+                        for (int i = range[0]; i <= range[1]; i++) {
+                            part.importPage(doc.getPage(i));
+                        }
+                        String entry = range[0] == range[1]
+                                ? "page_" + (range[0] + 1) + ".pdf"
+                                : "pages_" + (range[0] + 1) + "-" + (range[1] + 1) + ".pdf";
+                        zos.putNextEntry(new ZipEntry(entry));
+                        part.save(CloseShieldOutputStream.wrap(zos));
+                        zos.closeEntry();
+                    }
+                    ConversionProgress.report(p + 1, parts.size(), "parts");
                 }
+            } catch (IOException | RuntimeException e) {
+                outputStore.discard(zipPath);
+                throw e;
             }
-            return buildResult(true, "PDF split into " + pages.size() + " pages!", zipName, "PDF Split", zipPath,
-                    start);
+            return buildResult(true, "PDF split into " + parts.size() + (parts.size() == 1 ? " part!" : " parts!"),
+                    zipName, "PDF Split", zipPath, start);
         } finally {
             deleteSilently(inputPath);
         }
     }
 
-    public ConversionResult compressPdf(MultipartFile file) throws IOException {
+    private List<int[]> chunkPages(int pageCount, int size) {
+        List<int[]> chunks = new ArrayList<>();
+        for (int from = 0; from < pageCount; from += size) {
+            chunks.add(new int[]{from, Math.min(from + size, pageCount) - 1});
+        }
+        return chunks;
+    }
+
+    /**
+     * Groups consecutive pages so each group stays under {@code maxBytes}. Each page is
+     * measured once on its own; resources shared between pages are counted per page, so
+     * the estimate errs on the side of smaller parts.
+     */
+    private List<int[]> chunkPagesBySize(PDDocument doc, long maxBytes) throws IOException {
+        List<int[]> chunks = new ArrayList<>();
+        int from = 0;
+        long current = 0;
+        for (int i = 0; i < doc.getNumberOfPages(); i++) {
+            long pageBytes;
+            try (PDDocument single = new PDDocument(IOUtils.createTempFileOnlyStreamCache());
+                 CountingOutputStream counter = new CountingOutputStream(NullOutputStream.INSTANCE)) {
+                single.importPage(doc.getPage(i));
+                single.save(counter);
+                pageBytes = counter.getByteCount();
+            }
+            if (i > from && current + pageBytes > maxBytes) {
+                chunks.add(new int[]{from, i - 1});
+                from = i;
+                current = 0;
+            }
+            current += pageBytes;
+        }
+        if (doc.getNumberOfPages() > 0)
+            chunks.add(new int[]{from, doc.getNumberOfPages() - 1});
+        return chunks;
+    }
+
+    /** Recompresses images, merges duplicates and drops unused fonts; see {@link PdfCompressor}. */
+    public ConversionResult compressPdf(MultipartFile file, ConversionOptions options) throws IOException {
         long start = System.currentTimeMillis();
+        PdfCompressor.Preset preset = PdfCompressor.Preset.of(options.getCompressionLevel());
         Path inputPath = saveTempFile(file);
-        try (PDDocument doc = Loader.loadPDF(inputPath.toFile())) {
-            doc.setAllSecurityToBeRemoved(true);
+        try {
             String outName = FilenameUtils.getBaseName(file.getOriginalFilename()) + "_compressed.pdf";
-            Path outPath = TEMP_DIR.resolve(outName);
-            doc.save(outPath.toFile());
-            return buildResult(true, "PDF compressed successfully!", outName, "PDF Compress", outPath, start);
+            Path outPath = outputStore.allocate(outName);
+            PdfCompressor.Report report;
+            try {
+                report = pdfCompressor.compress(inputPath, outPath, preset);
+            } catch (IOException | RuntimeException e) {
+                outputStore.discard(outPath);
+                throw e;
+            }
+            String message = report.keptOriginal()
+                    ? "This PDF is already well compressed; the original was kept."
+                    : String.format("PDF compressed by %.0f%% (%s → %s): %d image(s) recompressed, %d downsampled, "
+                            + "%d duplicate stream(s) merged, %d unused font(s) removed.",
+                            report.reductionPercent(), formatSize(report.inputBytes()), formatSize(report.outputBytes()),
+                            report.imagesRecompressed(), report.imagesDownsampled(), report.duplicatesMerged(),
+                            report.fontsRemoved());
+            return buildResult(true, message, outName, "PDF Compress", outPath, start);
         } finally {
             deleteSilently(inputPath);
         }
     }
 
-    public ConversionResult pdfToImages(MultipartFile file) throws IOException {
+    /**
+     * Renders pages to images in parallel on {@link PdfPageRenderer}; DPI, image format and
+     * page selection come from the options.
+     */
+    public ConversionResult pdfToImages(MultipartFile file, ConversionOptions options) throws IOException {
         long start = System.currentTimeMillis();
         Path inputPath = saveTempFile(file);
-        try (PDDocument doc = Loader.loadPDF(inputPath.toFile())) {
-            PDFRenderer renderer = new PDFRenderer(doc);
+        try {
             String base = FilenameUtils.getBaseName(file.getOriginalFilename());
             String zipName = base + "_images.zip";
-            Path zipPath = TEMP_DIR.resolve(zipName);
-
-            try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(zipPath.toFile()))) {
-                for (int i = 0; i < doc.getNumberOfPages(); i++) {
-                    BufferedImage img = renderer.renderImageWithDPI(i, 150, ImageType.RGB);
-                    ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                    ImageIO.write(img, "PNG", baos);
-                    zos.putNextEntry(new ZipEntry(base + "_page_" + (i + 1) + ".png"));
-                    zos.write(baos.toByteArray());
-                    zos.closeEntry();
-                }
+            Path zipPath = outputStore.allocate(zipName);
+
+            int pages;
+            try (ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(zipPath)))) {
+                // Encoded images are already compressed; deflating them again only burns CPU
+                zos.setLevel(java.util.zip.Deflater.NO_COMPRESSION);
+                pages = pdfPageRenderer.renderToZip(inputPath, options.getPageRanges(), options.getDpi(),
+                        options.getImageFormat(), options.getQuality(), pdfPageRenderer.getThreads(), base, zos);
+            } catch (IOException | RuntimeException e) {
+                outputStore.discard(zipPath);
+                throw e;
             }
-            return buildResult(true, "PDF converted to images successfully!", zipName, "PDF → Images", zipPath, start);
+            return buildResult(true, "PDF converted to " + pages + " images successfully!", zipName,
+                    "PDF → Images", zipPath, start);
         } finally {
             deleteSilently(inputPath);
         }
     }
 
-    public ConversionResult imagesToPdf(List<MultipartFile> files) throws IOException {
+    /**
+     * One page per image, in upload order; see {@link PdfImageAssembler}. {@code pageSize} is
+     * {@code fit} (page as large as the image), {@code a4} or {@code letter};
+     * {@code maxImageSide} caps the pixels embedded per image.
+     */
+    public ConversionResult imagesToPdf(List<MultipartFile> files, ConversionOptions options) throws IOException {
         long start = System.currentTimeMillis();
+        PdfImageAssembler.PageSize pageSize = PdfImageAssembler.PageSize.of(options.getPageSize());
         List<Path> temps = new ArrayList<>();
-        try (PDDocument pdf = new PDDocument()) {
-            for (MultipartFile f : files) {
-                Path p = saveTempFile(f);
-                temps.add(p);
-                BufferedImage img = ImageIO.read(p.toFile());
-                if (img == null)
-                    continue;
-                PDPage page = new PDPage(new PDRectangle(img.getWidth(), img.getHeight()));
-                pdf.addPage(page);
-                PDImageXObject pdImg = PDImageXObject.createFromFile(p.toString(), pdf);
-                try (PDPageContentStream cs = new PDPageContentStream(pdf, page)) {
-                    cs.drawImage(pdImg, 0, 0, img.getWidth(), img.getHeight());
-                }
-            }
+        try {
+            for (MultipartFile f : files)
+                temps.add(saveTempFile(f));
             String outName = "images_" + System.currentTimeMillis() + ".pdf";
-            Path outPath = TEMP_DIR.resolve(outName);
-            pdf.save(outPath.toFile());
-            return buildResult(true, "Images converted to PDF!", outName, "Images → PDF", outPath, start);
+            Path outPath = outputStore.allocate(outName);
+            PdfImageAssembler.Report report;
+            try {
+                report = pdfImageAssembler.assemble(temps, outPath, pageSize, Math.max(0, options.getMaxImageSide()));
+            } catch (IOException | RuntimeException e) {
+                outputStore.discard(outPath);
+                throw e;
+            }
+            String message = report.pages() + (report.pages() == 1 ? " image" : " images") + " converted to PDF!"
+                    + (report.skipped() > 0 ? " " + report.skipped() + " unreadable file(s) skipped." : "");
+            return buildResult(true, message, outName, "Images → PDF", outPath, start);
         } finally {
             temps.forEach(this::deleteSilently);
         }
     }
 
-    public ConversionResult pdfToText(MultipartFile file) throws IOException {
+    public ConversionResult pdfToText(MultipartFile file, ConversionOptions options) throws IOException {
         long start = System.currentTimeMillis();
         Path inputPath = saveTempFile(file);
         try {
             String outName = FilenameUtils.getBaseName(file.getOriginalFilename()) + ".txt";
-            Path outPath = convertWithLibreOffice(inputPath, "txt:Text (encoded):UTF8", outName);
-            return buildResult(true, "Text extracted from PDF successfully!", outName, "PDF → Text", outPath, start);
+            if (options.isUseLibreOffice()) {
+                Path outPath = convertWithLibreOffice(inputPath, "txt:Text (encoded):UTF8", outName);
+                return buildResult(true, "Text extracted from PDF successfully!", outName, "PDF → Text", outPath,
+                        start);
+            }
+            Path outPath = outputStore.allocate(outName);
+            int pages;
+            try {
+                pages = pdfTextExtractor.extractToFile(inputPath, options.getPageRanges(),
+                        "layout".equalsIgnoreCase(options.getTextMode()), options.isPageSeparators(),
+                        pdfTextExtractor.getThreads(), outPath);
+            } catch (IOException | RuntimeException e) {
+                outputStore.discard(outPath);
+                throw e;
+            }
+            return buildResult(true, "Text extracted from " + pages + (pages == 1 ? " page!" : " pages!"), outName,
+                    "PDF → Text", outPath, start);
         } finally {
             deleteSilently(inputPath);
         }
@@ -315,24 +587,22 @@ public class ConversionService {
 
     public ConversionResult convertImage(MultipartFile file, String targetFormat) throws IOException {
         long start = System.currentTimeMillis();
-        Path inputPath = saveTempFile(file);
         String baseName = FilenameUtils.getBaseName(file.getOriginalFilename());
         String outName = baseName + "_converted." + targetFormat.toLowerCase();
-        Path outPath = TEMP_DIR.resolve(outName);
+        Path outPath = outputStore.allocate(outName);
 
-        BufferedImage img = ImageIO.read(inputPath.toFile());
-        if (img == null)
-            throw new IOException("Cannot read image file");
-
-        if ("jpg".equalsIgnoreCase(targetFormat) || "jpeg".equalsIgnoreCase(targetFormat)) {
-            BufferedImage rgb = new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_RGB);
-            rgb.createGraphics().drawImage(img, 0, 0, java.awt.Color.WHITE, null);
-            ImageIO.write(rgb, "JPEG", outPath.toFile());
-        } else {
-            ImageIO.write(img, targetFormat.toUpperCase(), outPath.toFile());
+        try {
+            BufferedImage img = readImage(file);
+            if ("jpg".equalsIgnoreCase(targetFormat) || "jpeg".equalsIgnoreCase(targetFormat)) {
+                ImageIO.write(pixelKernels.flattenOnWhite(img), "JPEG", outPath.toFile());
+            } else {
+                ImageIO.write(img, targetFormat.toUpperCase(), outPath.toFile());
+            }
+        } catch (IOException | RuntimeException e) {
+            outputStore.discard(outPath);
+            throw e;
         }
 
-        deleteSilently(inputPath);
         String fromExt = FilenameUtils.getExtension(file.getOriginalFilename()).toUpperCase();
         return buildResult(true, fromExt + " converted to " + targetFormat.toUpperCase() + "!", outName,
                 fromExt + " → " + targetFormat.toUpperCase(), outPath, start);
@@ -340,53 +610,74 @@ public class ConversionService {
 
     public ConversionResult resizeImage(MultipartFile file, int width, int height) throws IOException {
         long start = System.currentTimeMillis();
-        Path inputPath = saveTempFile(file);
         String ext = FilenameUtils.getExtension(file.getOriginalFilename());
         String outName = FilenameUtils.getBaseName(file.getOriginalFilename()) + "_" + width + "x" + height + "." + ext;
-        Path outPath = TEMP_DIR.resolve(outName);
+        Path outPath = outputStore.allocate(outName);
 
-        Thumbnails.of(inputPath.toFile())
-                .size(width, height)
-                .keepAspectRatio(false)
-                .toFile(outPath.toFile());
+        // Decode at a fraction of the resolution when shrinking; Thumbnailator does the filtered downscale
+        try {
+            BufferedImage img;
+            if (file instanceof FileBackedMultipartFile fb) {
+                img = ImageDecoder.read(fb.getPath(), width, height);
+            } else {
+                try (InputStream in = file.getInputStream()) {
+                    img = ImageDecoder.read(in, width, height);
+                }
+            }
+            Thumbnails.of(img)
+                    .size(width, height)
+                    .keepAspectRatio(false)
+                    .toFile(outPath.toFile());
+        } catch (IOException | RuntimeException e) {
+            outputStore.discard(outPath);
+            throw e;
+        }
 
-        deleteSilently(inputPath);
         return buildResult(true, "Image resized to " + width + "x" + height + "!", outName, "Image Resize", outPath,
                 start);
     }
 
     public ConversionResult compressImage(MultipartFile file, float quality) throws IOException {
         long start = System.currentTimeMillis();
-        Path inputPath = saveTempFile(file);
         String ext = FilenameUtils.getExtension(file.getOriginalFilename());
         String outName = FilenameUtils.getBaseName(file.getOriginalFilename()) + "_compressed." + ext;
-        Path outPath = TEMP_DIR.resolve(outName);
+        Path outPath = outputStore.allocate(outName);
 
-        Thumbnails.of(inputPath.toFile())
-                .scale(1.0)
-                .outputQuality(quality)
-                .toFile(outPath.toFile());
+        try {
+            if (file instanceof FileBackedMultipartFile fb) {
+                Thumbnails.of(fb.getPath().toFile())
+                        .scale(1.0)
+                        .outputQuality(quality)
+                        .toFile(outPath.toFile());
+            } else {
+                try (InputStream in = file.getInputStream()) {
+                    Thumbnails.of(in)
+                            .scale(1.0)
+                            .outputQuality(quality)
+                            .toFile(outPath.toFile());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            outputStore.discard(outPath);
+            throw e;
+        }
 
-        deleteSilently(inputPath);
         return buildResult(true, "Image compressed successfully!", outName, "Image Compress", outPath, start);
     }
 
     public ConversionResult imageToGrayscale(MultipartFile file) throws IOException {
         long start = System.currentTimeMillis();
-        Path inputPath = saveTempFile(file);
         String ext = FilenameUtils.getExtension(file.getOriginalFilename());
         String outName = FilenameUtils.getBaseName(file.getOriginalFilename()) + "_grayscale." + ext;
-        Path outPath = TEMP_DIR.resolve(outName);
-
-        BufferedImage src = ImageIO.read(inputPath.toFile());
-        BufferedImage gray = new BufferedImage(src.getWidth(), src.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
-        Graphics2D g = gray.createGraphics();
-        g.drawImage(src, 0, 0, null);
-        g.dispose();
+        Path outPath = outputStore.allocate(outName);
 
         String format = ext.equalsIgnoreCase("jpg") || ext.equalsIgnoreCase("jpeg") ? "JPEG" : ext.toUpperCase();
-        ImageIO.write(gray, format, outPath.toFile());
-        deleteSilently(inputPath);
+        try {
+            ImageIO.write(pixelKernels.grayscale(readImage(file)), format, outPath.toFile());
+        } catch (IOException | RuntimeException e) {
+            outputStore.discard(outPath);
+            throw e;
+        }
         return buildResult(true, "Image converted to grayscale!", outName, "Image → Grayscale", outPath, start);
     }
 
@@ -394,99 +685,123 @@ public class ConversionService {
     // SPREADSHEET TOOLS
     // ============================================================
 
-    public ConversionResult csvToExcel(MultipartFile file) throws IOException {
+    /**
+     * Streams the CSV into an .xlsx in-process with POI's SXSSF workbook; LibreOffice is only
+     * used when explicitly requested.
+     */
+    public ConversionResult csvToExcel(MultipartFile file, ConversionOptions options) throws IOException {
         long start = System.currentTimeMillis();
-        Path inputPath = saveTempFile(file);
-        try {
-            String outName = FilenameUtils.getBaseName(file.getOriginalFilename()) + ".xlsx";
-            Path outPath = convertWithLibreOffice(inputPath, "xlsx", outName);
-            return buildResult(true, "CSV converted to Excel successfully!", outName, "CSV → Excel", outPath, start);
-        } finally {
-            deleteSilently(inputPath);
+        String outName = FilenameUtils.getBaseName(file.getOriginalFilename()) + ".xlsx";
+        if (options.isUseLibreOffice()) {
+            Path inputPath = saveTempFile(file);
+            try {
+                Path outPath = convertWithLibreOffice(inputPath, "xlsx", outName);
+                return buildResult(true, "CSV converted to Excel successfully!", outName, "CSV → Excel", outPath, start);
+            } finally {
+                deleteSilently(inputPath);
+            }
         }
-    }
-
-    public ConversionResult excelToCsv(MultipartFile file) throws IOException {
-        long start = System.currentTimeMillis();
-        Path inputPath = saveTempFile(file);
+        Path outPath = outputStore.allocate(outName);
+        long rows;
         try {
-            String outName = FilenameUtils.getBaseName(file.getOriginalFilename()) + ".csv";
-            Path outPath = convertWithLibreOffice(inputPath, "csv", outName);
-            return buildResult(true, "Excel converted to CSV successfully!", outName, "Excel → CSV", outPath, start);
-        } finally {
-            deleteSilently(inputPath);
+            rows = spreadsheetConverter.csvToXlsx(file, outPath);
+        } catch (IOException | RuntimeException e) {
+            outputStore.discard(outPath);
+            throw e;
         }
+        return buildResult(true, "CSV converted to Excel (" + rows + " rows)!", outName, "CSV → Excel", outPath,
+                start);
     }
 
-    public ConversionResult csvToJson(MultipartFile file) throws IOException {
+    public ConversionResult excelToCsv(MultipartFile file, ConversionOptions options) throws IOException {
         long start = System.currentTimeMillis();
         Path inputPath = saveTempFile(file);
+        String baseName = FilenameUtils.getBaseName(file.getOriginalFilename());
+        if (options.isUseLibreOffice()) {
+            try {
+                String outName = baseName + ".csv";
+                Path outPath = convertWithLibreOffice(inputPath, "csv", outName);
+                return buildResult(true, "Excel converted to CSV successfully!", outName, "Excel → CSV", outPath, start);
+            } finally {
+                deleteSilently(inputPath);
+            }
+        }
 
-        try (com.opencsv.CSVReader reader = new com.opencsv.CSVReader(new FileReader(inputPath.toFile()))) {
-            List<String[]> rows = reader.readAll();
-            if (rows.isEmpty())
-                throw new IOException("Empty CSV file");
-
-            String[] headers = rows.get(0);
-            StringBuilder json = new StringBuilder("[\n");
-            for (int i = 1; i < rows.size(); i++) {
-                json.append("  {");
-                String[] row = rows.get(i);
-                for (int j = 0; j < headers.length; j++) {
-                    String val = j < row.length ? row[j].replace("\"", "\\\"") : "";
-                    json.append("\"").append(headers[j]).append("\": \"").append(val).append("\"");
-                    if (j < headers.length - 1)
-                        json.append(", ");
+        Path workDir = Files.createTempDirectory(TEMP_DIR, "sheets_");
+        try {
+            List<SpreadsheetConverter.SheetCsv> sheets = spreadsheetConverter.excelToCsv(inputPath, workDir,
+                    options.isAllSheets());
+            if (!options.isAllSheets()) {
+                String outName = baseName + ".csv";
+                Path outPath = outputStore.allocate(outName);
+                try {
+                    Files.move(sheets.get(0).path(), outPath, StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException | RuntimeException e) {
+                    outputStore.discard(outPath);
+                    throw e;
                 }
-                json.append("}");
-                if (i < rows.size() - 1)
-                    json.append(",");
-                json.append("\n");
+                return buildResult(true, "Excel converted to CSV successfully!", outName, "Excel → CSV", outPath,
+                        start);
             }
-            json.append("]");
 
-            String outName = FilenameUtils.getBaseName(file.getOriginalFilename()) + ".json";
-            Path outPath = TEMP_DIR.resolve(outName);
-            Files.writeString(outPath, json.toString());
+            String zipName = baseName + "_sheets.zip";
+            Path zipPath = outputStore.allocate(zipName);
+            Set<String> used = new HashSet<>();
+            try (ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(zipPath)))) {
+                for (SpreadsheetConverter.SheetCsv sheet : sheets) {
+                    String entry = sheet.name().replaceAll("[\\\\/:*?\"<>|]", "_");
+                    String unique = entry;
+                    for (int n = 2; !used.add(unique); n++) {
+                        unique = entry + "_" + n;
+                    }
+                    zos.putNextEntry(new ZipEntry(unique + ".csv"));
+                    Files.copy(sheet.path(), zos);
+                    zos.closeEntry();
+                }
+            } catch (IOException | RuntimeException e) {
+                outputStore.discard(zipPath);
+                throw e;
+            }
+            return buildResult(true, "Exported " + sheets.size() + (sheets.size() == 1 ? " sheet" : " sheets")
+                    + " to CSV!", zipName, "Excel → CSV", zipPath, start);
+        } finally {
             deleteSilently(inputPath);
-            return buildResult(true, "CSV converted to JSON!", outName, "CSV → JSON", outPath, start);
-        } catch (com.opencsv.exceptions.CsvException e) {
-            throw new IOException("Failed to parse CSV: " + e.getMessage(), e);
+            try (var stream = Files.list(workDir)) {
+                stream.forEach(this::deleteSilently);
+            }
+            deleteSilently(workDir);
         }
     }
 
-    public ConversionResult jsonToCsv(MultipartFile file) throws IOException {
+    public ConversionResult csvToJson(MultipartFile file, ConversionOptions options) throws IOException {
         long start = System.currentTimeMillis();
-        Path inputPath = saveTempFile(file);
-        String content = Files.readString(inputPath);
-
-        // Simple JSON array to CSV conversion
-        com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-        List<Map<String, Object>> data = mapper.readValue(content,
-                new com.fasterxml.jackson.core.type.TypeReference<>() {
-                });
-
-        if (data.isEmpty())
-            throw new IOException("Empty JSON array");
-
-        Set<String> keys = data.get(0).keySet();
-        StringBuilder csv = new StringBuilder();
-        csv.append(String.join(",", keys)).append("\n");
-
-        for (Map<String, Object> row : data) {
-            List<String> values = new ArrayList<>();
-            for (String key : keys) {
-                Object val = row.getOrDefault(key, "");
-                values.add("\"" + String.valueOf(val).replace("\"", "\"\"") + "\"");
-            }
-            csv.append(String.join(",", values)).append("\n");
+        boolean ndjson = "ndjson".equalsIgnoreCase(options.getJsonFormat());
+        String outName = FilenameUtils.getBaseName(file.getOriginalFilename()) + (ndjson ? ".ndjson" : ".json");
+        Path outPath = outputStore.allocate(outName);
+        long rows;
+        try {
+            rows = JsonCsvConverter.csvToJson(file, outPath, options.isTypedValues(), ndjson);
+        } catch (IOException | RuntimeException e) {
+            outputStore.discard(outPath);
+            throw e;
         }
+        return buildResult(true, "CSV converted to JSON (" + rows + " rows)!", outName, "CSV → JSON", outPath,
+                start);
+    }
 
+    public ConversionResult jsonToCsv(MultipartFile file) throws IOException {
+        long start = System.currentTimeMillis();
         String outName = FilenameUtils.getBaseName(file.getOriginalFilename()) + ".csv";
-        Path outPath = TEMP_DIR.resolve(outName);
-        Files.writeString(outPath, csv.toString());
-        deleteSilently(inputPath);
-        return buildResult(true, "JSON converted to CSV!", outName, "JSON → CSV", outPath, start);
+        Path outPath = outputStore.allocate(outName);
+        long rows;
+        try {
+            rows = JsonCsvConverter.jsonToCsv(file, outPath);
+        } catch (IOException | RuntimeException e) {
+            outputStore.discard(outPath);
+            throw e;
+        }
+        return buildResult(true, "JSON converted to CSV (" + rows + " rows)!", outName, "JSON → CSV", outPath,
+                start);
     }
 
     public ConversionResult excelToPdf(MultipartFile file) throws IOException {
@@ -527,8 +842,13 @@ public class ConversionService {
                 </head><body>""" + html + "</body></html>";
 
         String outName = FilenameUtils.getBaseName(file.getOriginalFilename()) + ".html";
-        Path outPath = TEMP_DIR.resolve(outName);
-        Files.writeString(outPath, fullHtml);
+        Path outPath = outputStore.allocate(outName);
+        try {
+            Files.writeString(outPath, fullHtml);
+        } catch (IOException | RuntimeException e) {
+            outputStore.discard(outPath);
+            throw e;
+        }
         deleteSilently(inputPath);
         return buildResult(true, "Markdown converted to HTML!", outName, "Markdown → HTML", outPath, start);
     }
@@ -577,15 +897,17 @@ public class ConversionService {
         Path inputPath = saveTempFile(file);
         String baseName = FilenameUtils.getBaseName(file.getOriginalFilename());
         String outName = baseName + "." + targetFormat.toLowerCase();
-        Path outPath = TEMP_DIR.resolve(outName);
+        Path outPath = outputStore.allocate(outName);
 
         try {
             ProcessBuilder pb = new ProcessBuilder(
-                    "ffmpeg", "-y", "-i", inputPath.toString(),
+                    ffmpegPath, "-y", "-nostats", "-progress", "pipe:1", "-i", inputPath.toString(),
                     "-q:a", "2",
                     outPath.toString());
             pb.redirectErrorStream(true);
             Process process = pb.start();
+            ConversionTrace.spawned();
+            readFfmpegProgress(process);
             boolean finished = process.waitFor(120, java.util.concurrent.TimeUnit.SECONDS);
 
             if (!finished || process.exitValue() != 0) {
@@ -598,15 +920,49 @@ public class ConversionService {
                     from + " → " + targetFormat.toUpperCase(), outPath, start);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+            outputStore.discard(outPath);
             throw new IOException("Conversion interrupted");
+        } catch (IOException | RuntimeException e) {
+            outputStore.discard(outPath);
+            throw e;
         } finally {
             deleteSilently(inputPath);
         }
     }
 
+    /**
+     * Drains FFmpeg's output, reporting "Duration:" from the banner as the total and the
+     * {@code out_time_us} lines of {@code -progress} as time processed (in milliseconds).
+     */
+    private void readFfmpegProgress(Process process) throws IOException {
+        long totalMs = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int d = line.indexOf("Duration: ");
+                if (totalMs == 0 && d >= 0 && line.length() >= d + 21) {
+                    String[] hms = line.substring(d + 10, d + 21).split(":");
+                    try {
+                        totalMs = (long) ((Integer.parseInt(hms[0]) * 3600 + Integer.parseInt(hms[1]) * 60
+                                + Double.parseDouble(hms[2])) * 1000);
+                    } catch (NumberFormatException ignored) {
+                    }
+                } else if (line.startsWith("out_time_us=")) {
+                    try {
+                        long doneMs = Long.parseLong(line.substring(12).trim()) / 1000;
+                        ConversionProgress.report(doneMs, totalMs, "ms");
+                    } catch (NumberFormatException ignored) {
+                        // "N/A" before the first frame
+                    }
+                }
+            }
+        }
+    }
+
     private boolean isFfmpegAvailable() {
         try {
-            Process p = new ProcessBuilder("ffmpeg", "-version").start();
+            Process p = new ProcessBuilder(ffmpegPath, "-version").start();
+            ConversionTrace.spawned();
             return p.waitFor(5, java.util.concurrent.TimeUnit.SECONDS) && p.exitValue() == 0;
         } catch (Exception e) {
             return false;
@@ -617,43 +973,66 @@ public class ConversionService {
     // HELPERS
     // ============================================================
 
-    public byte[] getFileBytes(String fileName) throws IOException {
-        Path path = TEMP_DIR.resolve(fileName);
-        if (!path.startsWith(TEMP_DIR))
-            throw new SecurityException("Invalid path");
-        return Files.readAllBytes(path);
-    }
-
-    public void deleteFile(String fileName) {
-        try {
-            Path path = TEMP_DIR.resolve(fileName);
-            if (path.startsWith(TEMP_DIR))
-                Files.deleteIfExists(path);
-        } catch (IOException e) {
-            log.warn("Could not delete file: {}", fileName);
+    /**
+     * Decodes an image input. Inputs already on disk are read in place; an upload that is still
+     * arriving can only be read as a stream, which ImageIO spools to its cache file to seek in.
+     */
+    private BufferedImage readImage(MultipartFile file) throws IOException {
+        BufferedImage img;
+        if (file instanceof FileBackedMultipartFile fb) {
+            img = ImageIO.read(fb.getPath().toFile());
+        } else {
+            try (InputStream in = file.getInputStream()) {
+                img = ImageIO.read(in);
+            }
         }
+        if (img == null)
+            throw new IOException("Cannot read image file");
+        return img;
     }
 
     private Path saveTempFile(MultipartFile file) throws IOException {
+        long start = System.nanoTime();
         String name = UUID.randomUUID() + "_" + file.getOriginalFilename();
         Path path = TEMP_DIR.resolve(name);
-        file.transferTo(path.toFile());
-        return path;
+        try {
+            if (file instanceof FileBackedMultipartFile fb) {
+                // Already on disk: converters only read their input, so a hard link saves a copy
+                try {
+                    Files.createLink(path, fb.getPath());
+                    return path;
+                } catch (IOException | UnsupportedOperationException e) {
+                    // Different file store or no link support; fall back to copying
+                }
+            }
+            file.transferTo(path.toFile());
+            return path;
+        } finally {
+            ConversionTrace.uploadSaved(System.nanoTime() - start);
+        }
     }
 
     private ConversionResult buildResult(boolean success, String message, String fileName, String convType,
             Path outPath, long start) {
+        outputStore.commit(outPath);
         return ConversionResult.builder()
                 .success(success)
                 .message(message)
                 .fileName(fileName)
-                .downloadUrl("/download/" + fileName)
+                .downloadUrl(outputStore.downloadUrl(outPath))
                 .conversionType(convType)
                 .fileSizeBytes(outPath.toFile().length())
                 .processingTimeMs(System.currentTimeMillis() - start)
+                .outputPath(outPath)
                 .build();
     }
 
+    private static String formatSize(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        if (bytes < 1024 * 1024) return String.format("%.1f KB", bytes / 1024.0);
+        return String.format("%.1f MB", bytes / (1024.0 * 1024));
+    }
+
     private void deleteSilently(Path path) {
         try {
             if (path != null)
@@ -661,10 +1040,4 @@ public class ConversionService {
         } catch (IOException ignored) {
         }
     }
-
-    private byte[] imageToBytes(BufferedImage img, String format) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(img, format, baos);
-        return baos.toByteArray();
-    }
 }
@@ -0,0 +1,60 @@
+package com.fileconverter.service;
+
+import java.io.IOException;
+
+/**
+ * Per-conversion measurements collected by the code that runs the conversion. Like
+ * {@link ConversionProgress}, it is bound to the converting thread; the static recorders
+ * are no-ops when no trace is active.
+ */
+public final class ConversionTrace {
+
+    private static final ThreadLocal<ConversionTrace> CURRENT = new ThreadLocal<>();
+
+    long queueWaitNanos;
+    long uploadSaveNanos;
+    int spawns;
+    boolean cacheHit;
+
+    <T> T run(BulkheadService.ConversionTask<T> task) throws IOException {
+        ConversionTrace outer = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return task.call();
+        } finally {
+            if (outer != null) {
+                CURRENT.set(outer);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /** Time spent waiting for an engine slot. */
+    public static void queueWait(long nanos) {
+        ConversionTrace trace = CURRENT.get();
+        if (trace != null)
+            trace.queueWaitNanos += nanos;
+    }
+
+    /** Time spent copying an upload to local disk. */
+    public static void uploadSaved(long nanos) {
+        ConversionTrace trace = CURRENT.get();
+        if (trace != null)
+            trace.uploadSaveNanos += nanos;
+    }
+
+    /** An external process (LibreOffice, FFmpeg) was started. */
+    public static void spawned() {
+        ConversionTrace trace = CURRENT.get();
+        if (trace != null)
+            trace.spawns++;
+    }
+
+    /** The result was served from the result cache. */
+    public static void cacheHit() {
+        ConversionTrace trace = CURRENT.get();
+        if (trace != null)
+            trace.cacheHit = true;
+    }
+}
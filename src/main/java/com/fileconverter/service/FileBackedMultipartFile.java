@@ -0,0 +1,112 @@
+package com.fileconverter.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * A {@link MultipartFile} view over a file that is already on local disk, so uploads that
+ * outlive their HTTP request (jobs, pipelines) can go through the regular converters.
+ */
+public class FileBackedMultipartFile implements MultipartFile {
+    private final Path path;
+    private final String originalFilename;
+    private final String contentType;
+    private final String sha256;
+
+    public FileBackedMultipartFile(Path path, String originalFilename, String contentType) {
+        this(path, originalFilename, contentType, null);
+    }
+
+    FileBackedMultipartFile(Path path, String originalFilename, String contentType, String sha256) {
+        this.path = path;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.sha256 = sha256;
+    }
+
+    /**
+     * Copies an upload to {@code target} so it survives the end of the request. The SHA-256
+     * of the content is computed in the same pass.
+     */
+    public static FileBackedMultipartFile copyOf(MultipartFile file, Path target) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return new FileBackedMultipartFile(target, file.getOriginalFilename(), file.getContentType(),
+                HexFormat.of().formatHex(digest.digest()));
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /** Hex SHA-256 of the content, or null when it was not computed while the file was written. */
+    public String getSha256() {
+        return sha256;
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getSize() == 0;
+    }
+
+    @Override
+    public long getSize() {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        return Files.readAllBytes(path);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        transferTo(dest.toPath());
+    }
+
+    @Override
+    public void transferTo(Path dest) throws IOException {
+        Files.copy(path, dest, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,148 @@
+package com.fileconverter.service;
+
+import net.coobird.thumbnailator.util.exif.ExifFilterUtils;
+import net.coobird.thumbnailator.util.exif.ExifUtils;
+import net.coobird.thumbnailator.util.exif.Orientation;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Decodes images at close to the size they are going to be shown at. The header is read
+ * first, and when the image is much larger than needed the reader is asked for every n-th
+ * pixel and row only, so a 100-megapixel photo headed for an 800x600 output is decoded
+ * into a few megapixels instead of a 400 MB raster. The result stays at least
+ * {@link #OVERSAMPLING} times the requested size, leaving the final, filtered downscale to
+ * Thumbnailator's progressive resizers; plain subsampling on its own would alias.
+ * <p>
+ * EXIF orientation is applied, as Thumbnailator does when it reads a file itself.
+ */
+public final class ImageDecoder {
+
+    static final int OVERSAMPLING = 2;
+
+    /**
+     * What the header says about an image, without decoding any pixels.
+     *
+     * @param format      the reader's format name in lower case, e.g. {@code jpeg} or {@code png}
+     * @param orientation the EXIF orientation; {@link Orientation#TOP_LEFT} when there is none
+     */
+    public record Header(String format, int width, int height, Orientation orientation) {
+
+        public boolean quarterTurn() {
+            return switch (orientation) {
+                case LEFT_TOP, RIGHT_TOP, RIGHT_BOTTOM, LEFT_BOTTOM -> true;
+                default -> false;
+            };
+        }
+
+        /** Width once the orientation is applied. */
+        public int displayWidth() {
+            return quarterTurn() ? height : width;
+        }
+
+        public int displayHeight() {
+            return quarterTurn() ? width : height;
+        }
+    }
+
+    private ImageDecoder() {
+    }
+
+    public static Header header(InputStream in) throws IOException {
+        return header(ImageIO.createImageInputStream(in));
+    }
+
+    /** Reads the header of an image on disk, seeking in the file rather than spooling it. */
+    public static Header header(Path path) throws IOException {
+        return header(ImageIO.createImageInputStream(path.toFile()));
+    }
+
+    private static Header header(ImageInputStream input) throws IOException {
+        try (ImageInputStream iis = input) {
+            ImageReader reader = reader(iis);
+            try {
+                return header(reader);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Reads the first image in {@code in}, subsampled as far as it can be while staying at
+     * least {@link #OVERSAMPLING} times {@code minWidth} x {@code minHeight} once oriented.
+     * A non-positive size reads the image at full resolution.
+     */
+    public static BufferedImage read(InputStream in, int minWidth, int minHeight) throws IOException {
+        return read(ImageIO.createImageInputStream(in), minWidth, minHeight);
+    }
+
+    /** As {@link #read(InputStream, int, int)}, for an image on disk. */
+    public static BufferedImage read(Path path, int minWidth, int minHeight) throws IOException {
+        return read(ImageIO.createImageInputStream(path.toFile()), minWidth, minHeight);
+    }
+
+    private static BufferedImage read(ImageInputStream input, int minWidth, int minHeight) throws IOException {
+        try (ImageInputStream iis = input) {
+            ImageReader reader = reader(iis);
+            try {
+                Header header = header(reader);
+                // A quarter turn swaps the axes: the output's width comes from the stored height
+                int targetWidth = header.quarterTurn() ? minHeight : minWidth;
+                int targetHeight = header.quarterTurn() ? minWidth : minHeight;
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int xStep = step(header.width(), targetWidth);
+                int yStep = step(header.height(), targetHeight);
+                if (xStep > 1 || yStep > 1)
+                    param.setSourceSubsampling(xStep, yStep, 0, 0);
+                BufferedImage img = reader.read(0, param);
+                if (header.orientation() != Orientation.TOP_LEFT)
+                    img = ExifFilterUtils.getFilterForOrientation(header.orientation()).apply(img);
+                return img;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static ImageReader reader(ImageInputStream iis) throws IOException {
+        Iterator<ImageReader> readers = iis != null ? ImageIO.getImageReaders(iis) : null;
+        if (readers == null || !readers.hasNext())
+            throw new IOException("Cannot read image file");
+        ImageReader reader = readers.next();
+        reader.setInput(iis, true, false);
+        return reader;
+    }
+
+    private static Header header(ImageReader reader) throws IOException {
+        return new Header(reader.getFormatName().toLowerCase(Locale.ROOT), reader.getWidth(0), reader.getHeight(0),
+                orientation(reader));
+    }
+
+    /** Largest subsampling step that keeps {@code source} at or above the oversampled target. */
+    static int step(int source, int target) {
+        if (target <= 0)
+            return 1;
+        return Math.max(1, (int) (source / ((long) target * OVERSAMPLING)));
+    }
+
+    private static Orientation orientation(ImageReader reader) {
+        try {
+            Orientation orientation = ExifUtils.getExifOrientation(reader, 0);
+            return orientation != null ? orientation : Orientation.TOP_LEFT;
+        } catch (IOException | RuntimeException e) {
+            // No readable EXIF block: the pixels are stored upright
+            return Orientation.TOP_LEFT;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.fileconverter.service;
+
+import com.fileconverter.exception.ConversionRejectedException;
+import com.fileconverter.model.ConversionJob;
+import com.fileconverter.model.ConversionOptions;
+import com.fileconverter.model.ConversionResult;
+import com.fileconverter.model.Engine;
+import com.fileconverter.model.ToolInfo;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs conversions in the background on virtual threads and publishes their progress.
+ * A job whose engine has no free slot and a full queue is refused when it is submitted
+ * ({@link ConversionRejectedException}), not accepted and then failed.
+ * Uploads are copied out of the multipart request before it returns, since the servlet
+ * container deletes its own copies once the response is sent.
+ */
+@Service
+public class JobService {
+    private static final Logger log = LoggerFactory.getLogger(JobService.class);
+    private static final Path JOB_DIR = Path.of(System.getProperty("java.io.tmpdir"), "file-converter-jobs");
+
+    private final ConversionService conversionService;
+    private final BulkheadService bulkhead;
+    private final ConversionMetrics metrics;
+    private final ToolRegistryService toolRegistry;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, ConversionJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final Duration retention;
+
+    public JobService(ConversionService conversionService, BulkheadService bulkhead, ConversionMetrics metrics,
+                      ToolRegistryService toolRegistry,
+                      @Value("${app.jobs.retention-minutes:60}") long retentionMinutes) {
+        this.conversionService = conversionService;
+        this.bulkhead = bulkhead;
+        this.metrics = metrics;
+        this.toolRegistry = toolRegistry;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public ConversionJob submit(String toolId, MultipartFile file, List<MultipartFile> files,
+                                ConversionOptions options) throws IOException {
+        evictExpired();
+        // Answer 429 now rather than staging the upload for a job that would only fail later
+        Engine engine = Engine.forTool(toolId, options);
+        bulkhead.checkCapacity(engine);
+        ConversionJob job = new ConversionJob(UUID.randomUUID().toString(), toolId);
+        Path staging = Files.createDirectories(JOB_DIR.resolve(job.getId()));
+
+        FileBackedMultipartFile stagedFile = null;
+        List<MultipartFile> stagedFiles = null;
+        long saveStart = System.nanoTime();
+        try {
+            int n = 0;
+            if (file != null && !file.isEmpty()) {
+                stagedFile = stage(file, staging.resolve(String.valueOf(n++)));
+            }
+            if (files != null) {
+                stagedFiles = new ArrayList<>();
+                for (MultipartFile f : files) {
+                    stagedFiles.add(stage(f, staging.resolve(String.valueOf(n++))));
+                }
+            }
+        } catch (IOException e) {
+            deleteDirectory(staging);
+            throw e;
+        }
+        metrics.recordUploadSave(toolId, System.nanoTime() - saveStart);
+        // Staging a large upload takes a while; check again before queueing the job
+        try {
+            bulkhead.checkCapacity(engine);
+        } catch (ConversionRejectedException e) {
+            deleteDirectory(staging);
+            throw e;
+        }
+
+        jobs.put(job.getId(), job);
+        MultipartFile input = stagedFile;
+        List<MultipartFile> inputs = stagedFiles;
+        executor.execute(() -> run(job, input, inputs, options, staging));
+        return job;
+    }
+
+    public ConversionJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    public SseEmitter subscribe(String jobId) {
+        ConversionJob job = jobs.get(jobId);
+        SseEmitter emitter = new SseEmitter(0L);
+        if (job == null) {
+            emitter.completeWithError(new IllegalArgumentException("Unknown job: " + jobId));
+            return emitter;
+        }
+        if (job.isFinished()) {
+            // Nothing more will be published; replay the final state without registering
+            send(emitter, job);
+            return emitter;
+        }
+        List<SseEmitter> list = emitters.computeIfAbsent(jobId, k -> new CopyOnWriteArrayList<>());
+        list.add(emitter);
+        emitter.onCompletion(() -> list.remove(emitter));
+        emitter.onTimeout(() -> list.remove(emitter));
+        emitter.onError(e -> list.remove(emitter));
+
+        // Replay the current state so the subscriber doesn't miss progress made so far
+        send(emitter, job);
+        // The job may have finished after the check above, its last publish finding no list to clear
+        if (job.isFinished())
+            emitters.remove(jobId, list);
+        return emitter;
+    }
+
+    private void run(ConversionJob job, MultipartFile file, List<MultipartFile> files,
+                     ConversionOptions options, Path staging) {
+        String toolId = job.getToolId();
+        ToolInfo tool = toolRegistry.getToolById(toolId);
+        String category = tool != null ? tool.getCategory() : "Other";
+        Engine engine = Engine.forTool(toolId, options);
+        long inputBytes = (file != null ? file.getSize() : 0)
+                + (files != null ? files.stream().mapToLong(MultipartFile::getSize).sum() : 0);
+        try {
+            ConversionResult result = metrics.record(toolId, category, engine, inputBytes,
+                    () -> conversionService.convert(toolId, file, files, options, work -> bulkhead.call(engine, () -> {
+                        job.setStatus(ConversionJob.Status.RUNNING);
+                        publish(job);
+                        return ConversionProgress.track((done, total, unit) -> {
+                            job.setProgressDone(done);
+                            job.setProgressTotal(total);
+                            job.setProgressUnit(unit);
+                            publish(job);
+                        }, work);
+                    })));
+            job.setResult(result);
+            job.setStatus(result.isSuccess() ? ConversionJob.Status.DONE : ConversionJob.Status.FAILED);
+        } catch (Exception e) {
+            log.error("Job {} for tool {} failed: {}", job.getId(), toolId, e.getMessage(), e);
+            job.setResult(ConversionResult.builder()
+                    .success(false)
+                    .message("Conversion failed: " + e.getMessage())
+                    .conversionType(toolId)
+                    .build());
+            job.setStatus(ConversionJob.Status.FAILED);
+        } finally {
+            job.setFinishedAt(Instant.now());
+            deleteDirectory(staging);
+            publish(job);
+        }
+    }
+
+    /** Copies a request upload; inputs already on disk with a known hash are hard-linked instead. */
+    private FileBackedMultipartFile stage(MultipartFile file, Path target) throws IOException {
+        if (file instanceof FileBackedMultipartFile fb && fb.getSha256() != null) {
+            try {
+                Files.createLink(target, fb.getPath());
+                return new FileBackedMultipartFile(target, fb.getOriginalFilename(), fb.getContentType(),
+                        fb.getSha256());
+            } catch (IOException | UnsupportedOperationException e) {
+                // Different file store or no link support; fall back to copying
+            }
+        }
+        return FileBackedMultipartFile.copyOf(file, target);
+    }
+
+    private void publish(ConversionJob job) {
+        List<SseEmitter> list = emitters.get(job.getId());
+        if (list == null)
+            return;
+        for (SseEmitter emitter : list) {
+            send(emitter, job);
+        }
+        if (job.isFinished())
+            emitters.remove(job.getId());
+    }
+
+    private void send(SseEmitter emitter, ConversionJob job) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(job.isFinished() ? "done" : "progress")
+                    .data(job));
+            if (job.isFinished())
+                emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // Client went away
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void evictExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(j -> {
+            boolean expired = j.getFinishedAt() != null && j.getFinishedAt().isBefore(cutoff);
+            if (expired)
+                emitters.remove(j.getId());
+            return expired;
+        });
+    }
+
+    private void deleteDirectory(Path dir) {
+        try (var stream = Files.walk(dir)) {
+            stream.sorted(java.util.Comparator.reverseOrder()).forEach(p -> {
+                try {
+                    Files.deleteIfExists(p);
+                } catch (IOException ignored) {
+                }
+            });
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.fileconverter.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVWriter;
+import com.opencsv.exceptions.CsvValidationException;
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Streaming CSV/JSON conversions. Rows are read and written one at a time, so heap use
+ * does not depend on the size of the input.
+ */
+public final class JsonCsvConverter {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    // Leading zeros ("007", zip codes) are deliberately kept as strings
+    private static final Pattern JSON_NUMBER = Pattern.compile("-?(0|[1-9]\\d*)(\\.\\d+)?([eE][+-]?\\d+)?");
+
+    private JsonCsvConverter() {
+    }
+
+    /**
+     * Converts a CSV file whose first row is the header into JSON objects keyed by header.
+     *
+     * @param typed  infer numbers, booleans and null (empty cell) instead of writing every cell as a string
+     * @param ndjson write one object per line instead of a JSON array
+     * @return the number of data rows written
+     */
+    public static long csvToJson(InputStreamSource csv, Path json, boolean typed, boolean ndjson) throws IOException {
+        try (CSVReader reader = new CSVReader(new BufferedReader(
+                     new InputStreamReader(csv.getInputStream(), StandardCharsets.UTF_8), 64 * 1024));
+             OutputStream out = Files.newOutputStream(json);
+             JsonGenerator gen = JSON.createGenerator(out, JsonEncoding.UTF8)) {
+
+            String[] headers = reader.readNext();
+            if (headers == null)
+                throw new IOException("Empty CSV file");
+
+            long rows = 0;
+            if (ndjson) {
+                gen.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            } else {
+                gen.setPrettyPrinter(new RowPerLinePrettyPrinter());
+                gen.writeStartArray();
+            }
+
+            String[] row;
+            while ((row = reader.readNext()) != null) {
+                gen.writeStartObject();
+                for (int j = 0; j < headers.length; j++) {
+                    gen.writeFieldName(headers[j]);
+                    String val = j < row.length ? row[j] : null;
+                    if (typed) {
+                        writeTyped(gen, val);
+                    } else {
+                        gen.writeString(val != null ? val : "");
+                    }
+                }
+                gen.writeEndObject();
+                rows++;
+            }
+
+            if (ndjson) {
+                if (rows > 0)
+                    gen.writeRaw('\n');
+            } else {
+                gen.writeEndArray();
+            }
+            return rows;
+        } catch (CsvValidationException e) {
+            throw new IOException("Failed to parse CSV: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Converts a JSON array of objects, or NDJSON / concatenated objects, to CSV. The input is
+     * parsed twice with the streaming parser (so {@code json} is opened twice): first to
+     * discover the union of all keys, then to write rows. Nested objects become dotted columns
+     * ({@code address.city}); arrays are written as compact JSON text. Only the key set and the
+     * current row are held in memory.
+     *
+     * @return the number of data rows written
+     */
+    public static long jsonToCsv(InputStreamSource json, Path csv) throws IOException {
+        Set<String> columns = new LinkedHashSet<>();
+        long rows = forEachRecord(json, record -> columns.addAll(record.keySet()));
+        if (rows == 0)
+            throw new IOException("Empty JSON array");
+
+        String[] header = columns.toArray(new String[0]);
+        try (Writer out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8);
+             CSVWriter writer = new CSVWriter(out)) {
+            writer.writeNext(header);
+            String[] line = new String[header.length];
+            forEachRecord(json, record -> {
+                for (int i = 0; i < header.length; i++) {
+                    line[i] = record.getOrDefault(header[i], "");
+                }
+                writer.writeNext(line);
+            });
+            writer.flush();
+            if (writer.checkError())
+                throw new IOException("Failed to write CSV output");
+        }
+        return rows;
+    }
+
+    @FunctionalInterface
+    private interface RecordHandler {
+        void accept(Map<String, String> record) throws IOException;
+    }
+
+    private static long forEachRecord(InputStreamSource json, RecordHandler handler) throws IOException {
+        long count = 0;
+        Map<String, String> record = new LinkedHashMap<>();
+        try (JsonParser parser = JSON.createParser(json.getInputStream())) {
+            JsonToken token = parser.nextToken();
+            boolean inArray = token == JsonToken.START_ARRAY;
+            if (inArray)
+                token = parser.nextToken();
+            while (token != null && token != JsonToken.END_ARRAY) {
+                record.clear();
+                if (token == JsonToken.START_OBJECT) {
+                    flatten(parser, "", record);
+                } else {
+                    record.put("value", scalarOrJson(parser));
+                }
+                handler.accept(record);
+                count++;
+                token = parser.nextToken();
+            }
+            if (inArray && token == null)
+                throw new IOException("Unterminated JSON array");
+        }
+        return count;
+    }
+
+    /** Reads the object the parser is positioned on into {@code out} with dotted keys. */
+    private static void flatten(JsonParser parser, String prefix, Map<String, String> out) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String key = prefix + parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.START_OBJECT) {
+                flatten(parser, key + ".", out);
+            } else {
+                out.put(key, scalarOrJson(parser));
+            }
+        }
+    }
+
+    private static String scalarOrJson(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL)
+            return "";
+        if (token == JsonToken.START_ARRAY || token == JsonToken.START_OBJECT) {
+            StringWriter sw = new StringWriter();
+            try (JsonGenerator gen = JSON.createGenerator(sw)) {
+                gen.copyCurrentStructure(parser);
+            }
+            return sw.toString();
+        }
+        return parser.getText();
+    }
+
+    private static void writeTyped(JsonGenerator gen, String val) throws IOException {
+        if (val == null || val.isEmpty()) {
+            gen.writeNull();
+        } else if ("true".equalsIgnoreCase(val) || "false".equalsIgnoreCase(val)) {
+            gen.writeBoolean(Boolean.parseBoolean(val));
+        } else if (val.length() <= 64 && JSON_NUMBER.matcher(val).matches()) {
+            // Already valid JSON number syntax, so write it verbatim and keep full precision
+            gen.writeNumber(val);
+        } else {
+            gen.writeString(val);
+        }
+    }
+
+    /** One object per line inside the array, matching the layout of the old hand-built output. */
+    private static final class RowPerLinePrettyPrinter extends MinimalPrettyPrinter {
+        @Override
+        public void beforeArrayValues(JsonGenerator g) throws IOException {
+            g.writeRaw("\n  ");
+        }
+
+        @Override
+        public void writeArrayValueSeparator(JsonGenerator g) throws IOException {
+            g.writeRaw(",\n  ");
+        }
+
+        @Override
+        public void writeEndArray(JsonGenerator g, int nrOfValues) throws IOException {
+            g.writeRaw(nrOfValues == 0 ? "]" : "\n]");
+        }
+
+        @Override
+        public void writeObjectFieldValueSeparator(JsonGenerator g) throws IOException {
+            g.writeRaw(": ");
+        }
+
+        @Override
+        public void writeObjectEntrySeparator(JsonGenerator g) throws IOException {
+            g.writeRaw(", ");
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.fileconverter.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool of long-lived headless LibreOffice instances.
+ * <p>
+ * Each worker owns its own user profile. A conversion is handed to a warm worker by
+ * launching a thin {@code soffice --convert-to} client against the same profile: LibreOffice's
+ * single-instance check finds the office already running on that profile and forwards the
+ * request to it instead of booting a new one, which removes the multi-second cold start.
+ * Workers are health-checked on every checkout and recycled after a configurable number
+ * of jobs, after a timeout, or when the process has died.
+ * <p>
+ * When the pool is disabled or LibreOffice cannot be started, conversions fall back to a
+ * cold {@code soffice --headless} process per request.
+ */
+@Service
+public class LibreOfficePool {
+    private static final Logger log = LoggerFactory.getLogger(LibreOfficePool.class);
+    private static final Path PROFILE_DIR = Path.of(System.getProperty("java.io.tmpdir"), "file-converter-lo");
+
+    @Value("${app.libreoffice.path}")
+    private String libreOfficePath;
+
+    @Value("${app.libreoffice.pool.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.libreoffice.pool.size:2}")
+    private int poolSize;
+
+    @Value("${app.libreoffice.pool.max-jobs-per-worker:200}")
+    private int maxJobsPerWorker;
+
+    @Value("${app.libreoffice.pool.task-timeout-seconds:120}")
+    private int taskTimeoutSeconds;
+
+    @Value("${app.libreoffice.pool.queue-timeout-seconds:60}")
+    private int queueTimeoutSeconds;
+
+    private final BlockingQueue<Worker> idle = new LinkedBlockingQueue<>();
+    private final ExecutorService recycler = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "libreoffice-recycler");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("LibreOffice worker pool disabled; using one process per conversion");
+            return;
+        }
+        if (!Files.isExecutable(Path.of(libreOfficePath))) {
+            log.warn("LibreOffice not found at {}; worker pool not started", libreOfficePath);
+            return;
+        }
+        running = true;
+        for (int i = 0; i < poolSize; i++) {
+            try {
+                idle.add(spawnWorker(i));
+            } catch (IOException e) {
+                log.warn("Could not start LibreOffice worker {}: {}", i, e.getMessage());
+            }
+        }
+        if (idle.isEmpty()) {
+            running = false;
+            log.warn("No LibreOffice worker could be started; using one process per conversion");
+        } else {
+            log.info("LibreOffice worker pool started with {} worker(s)", idle.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        recycler.shutdownNow();
+        Worker w;
+        while ((w = idle.poll()) != null) {
+            w.kill();
+        }
+    }
+
+    public boolean isWarm() {
+        return running;
+    }
+
+    public int getIdleWorkers() {
+        return idle.size();
+    }
+
+    /**
+     * Runs a LibreOffice command line ({@code --convert-to ...} and friends) on a warm worker,
+     * or on a freshly spawned process when the pool is not running.
+     *
+     * @return the combined stdout/stderr of the client process
+     */
+    public String execute(List<String> args) throws IOException {
+        if (!running) {
+            return runClient(null, args);
+        }
+
+        Worker worker;
+        try {
+            worker = idle.poll(queueTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a LibreOffice worker", e);
+        }
+        if (worker == null) {
+            throw new IOException("No LibreOffice worker became available within " + queueTimeoutSeconds + " seconds");
+        }
+
+        boolean healthy = false;
+        try {
+            if (!worker.process.isAlive()) {
+                log.warn("LibreOffice worker {} found dead, restarting", worker.id);
+                worker = restart(worker);
+            }
+            String output = runClient(worker, args);
+            worker.jobs++;
+            healthy = worker.process.isAlive();
+            return output;
+        } finally {
+            release(worker, healthy);
+        }
+    }
+
+    private void release(Worker worker, boolean healthy) {
+        if (healthy && worker.jobs < maxJobsPerWorker) {
+            idle.add(worker);
+            return;
+        }
+        if (healthy) {
+            log.debug("Recycling LibreOffice worker {} after {} jobs", worker.id, worker.jobs);
+        }
+        Worker old = worker;
+        recycler.execute(() -> {
+            try {
+                idle.add(restart(old));
+            } catch (IOException e) {
+                log.error("Failed to restart LibreOffice worker {}: {}", old.id, e.getMessage());
+            }
+        });
+    }
+
+    private Worker restart(Worker worker) throws IOException {
+        worker.kill();
+        if (!running)
+            throw new IOException("LibreOffice worker pool is shut down");
+        return spawnWorker(worker.id);
+    }
+
+    private Worker spawnWorker(int id) throws IOException {
+        Path profile = PROFILE_DIR.resolve("worker-" + id);
+        Files.createDirectories(profile);
+        List<String> command = new ArrayList<>();
+        command.add(libreOfficePath);
+        command.add("-env:UserInstallation=" + profile.toUri());
+        command.add("--headless");
+        command.add("--invisible");
+        command.add("--nologo");
+        command.add("--nodefault");
+        command.add("--norestore");
+        command.add("--nolockcheck");
+
+        ProcessBuilder pb = new ProcessBuilder(command);
+        pb.redirectErrorStream(true);
+        pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        Process process = pb.start();
+        ConversionTrace.spawned();
+        log.debug("Started LibreOffice worker {} (pid {})", id, process.pid());
+        return new Worker(id, profile, process);
+    }
+
+    private String runClient(Worker worker, List<String> args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(libreOfficePath);
+        if (worker != null) {
+            command.add("-env:UserInstallation=" + worker.profile.toUri());
+        }
+        command.add("--headless");
+        command.addAll(args);
+
+        // Output goes to a file rather than a pipe: reading a pipe blocks until the client exits,
+        // which would keep the timeout below from ever firing on a hung conversion
+        Path outputFile = Files.createTempFile("soffice-client", ".log");
+        try {
+            ProcessBuilder pb = new ProcessBuilder(command);
+            pb.redirectErrorStream(true);
+            pb.redirectOutput(outputFile.toFile());
+            Process process = pb.start();
+            ConversionTrace.spawned();
+            try {
+                boolean completed = process.waitFor(taskTimeoutSeconds, TimeUnit.SECONDS);
+                if (!completed) {
+                    kill(process);
+                    if (worker != null)
+                        worker.kill();
+                    throw new IOException("LibreOffice conversion timed out after " + taskTimeoutSeconds + " seconds");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                kill(process);
+                throw new IOException("Conversion was interrupted", e);
+            }
+
+            String processOutput = new String(Files.readAllBytes(outputFile));
+            log.debug("LibreOffice output: {}", processOutput);
+            if (process.exitValue() != 0) {
+                throw new IOException(
+                        "LibreOffice conversion failed (exit code " + process.exitValue() + "): " + processOutput);
+            }
+            return processOutput;
+        } finally {
+            Files.deleteIfExists(outputFile);
+        }
+    }
+
+    /** soffice is a launcher around soffice.bin, so take down the whole tree. */
+    private static void kill(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    private static final class Worker {
+        final int id;
+        final Path profile;
+        final Process process;
+        int jobs;
+
+        Worker(int id, Path profile, Process process) {
+            this.id = id;
+            this.profile = profile;
+            this.process = process;
+        }
+
+        void kill() {
+            LibreOfficePool.kill(process);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.fileconverter.service;
+
+import org.springframework.web.multipart.MultipartException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Forward-only reader for a {@code multipart/form-data} body (RFC 7578). Part content is
+ * handed out as it is read off the socket rather than after the whole request has been
+ * buffered. A body that doesn't follow the format raises {@link MultipartException}.
+ */
+final class MultipartStreamReader {
+
+    record Part(String name, String fileName, String contentType) {
+        boolean isFile() {
+            return fileName != null;
+        }
+    }
+
+    private static final int MAX_HEADER_BYTES = 16 * 1024;
+    private static final Pattern PARAM = Pattern.compile(
+            ";\\s*([A-Za-z0-9_*-]+)\\s*=\\s*(?:\"((?:[^\"\\\\]|\\\\.)*)\"|([^;\\s]*))");
+
+    /** Writes part content; offsets are into the reader's own buffer, which is reused. */
+    @FunctionalInterface
+    interface Sink {
+        void write(byte[] b, int off, int len) throws IOException;
+    }
+
+    private final InputStream in;
+    private final byte[] delimiter;
+    private final byte[] buf;
+    private int head;
+    private int tail;
+    private boolean inBody = true;
+    private boolean finished;
+
+    MultipartStreamReader(InputStream in, String boundary) {
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        this.buf = new byte[Math.max(64 * 1024, delimiter.length * 4)];
+        // The first delimiter has no leading CRLF; pretend it does so every delimiter looks alike
+        buf[0] = '\r';
+        buf[1] = '\n';
+        tail = 2;
+    }
+
+    /** Skips whatever is left of the current part and returns the next part's headers, or null at the end. */
+    Part nextPart() throws IOException {
+        if (finished)
+            return null;
+        if (inBody)
+            transferTo((b, off, len) -> { });
+
+        ensure(2);
+        if (buf[head] == '-' && buf[head + 1] == '-') {
+            finished = true;
+            return null;
+        }
+        readLine(); // rest of the delimiter line: optional transport padding, then CRLF
+
+        String name = null;
+        String fileName = null;
+        String contentType = null;
+        int headerBytes = 0;
+        String line;
+        while (!(line = readLine()).isEmpty()) {
+            headerBytes += line.length();
+            if (headerBytes > MAX_HEADER_BYTES)
+                throw malformed("part headers too large");
+            int colon = line.indexOf(':');
+            if (colon < 0)
+                continue;
+            String header = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = line.substring(colon + 1).trim();
+            if (header.equals("content-disposition")) {
+                Matcher m = PARAM.matcher(value);
+                while (m.find()) {
+                    String v = m.group(2) != null ? m.group(2).replaceAll("\\\\(.)", "$1") : m.group(3);
+                    switch (m.group(1).toLowerCase(Locale.ROOT)) {
+                        case "name" -> name = v;
+                        case "filename" -> fileName = baseName(v);
+                        default -> { }
+                    }
+                }
+            } else if (header.equals("content-type")) {
+                contentType = value;
+            }
+        }
+        inBody = true;
+        return new Part(name, fileName, contentType);
+    }
+
+    /** Passes the current part's content to {@code sink} and returns its length. */
+    long transferTo(Sink sink) throws IOException {
+        long total = 0;
+        while (true) {
+            int idx = indexOfDelimiter();
+            if (idx >= 0) {
+                if (idx > head)
+                    sink.write(buf, head, idx - head);
+                total += idx - head;
+                head = idx + delimiter.length;
+                inBody = false;
+                return total;
+            }
+            // Everything before a possible partial delimiter at the end of the buffer is content
+            int safe = tail - delimiter.length + 1;
+            if (safe > head) {
+                sink.write(buf, head, safe - head);
+                total += safe - head;
+                head = safe;
+            }
+            if (!fill())
+                throw malformed("unexpected end of stream");
+        }
+    }
+
+    /** Reads the current part as UTF-8 text of at most {@code maxBytes}. */
+    String readString(int maxBytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transferTo((b, off, len) -> {
+            if (out.size() + len > maxBytes)
+                throw new MultipartException("Form field larger than " + maxBytes + " bytes");
+            out.write(b, off, len);
+        });
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private String readLine() throws IOException {
+        int scanned = 0;
+        while (true) {
+            for (int i = head + scanned; i + 1 < tail; i++) {
+                if (buf[i] == '\r' && buf[i + 1] == '\n') {
+                    String line = new String(buf, head, i - head, StandardCharsets.UTF_8);
+                    head = i + 2;
+                    return line;
+                }
+            }
+            scanned = Math.max(0, tail - head - 1);
+            if (scanned > MAX_HEADER_BYTES)
+                throw malformed("header line too long");
+            if (!fill())
+                throw malformed("unexpected end of stream");
+        }
+    }
+
+    private int indexOfDelimiter() {
+        byte first = delimiter[0];
+        int last = tail - delimiter.length;
+        outer:
+        for (int i = head; i <= last; i++) {
+            if (buf[i] != first)
+                continue;
+            for (int j = 1; j < delimiter.length; j++) {
+                if (buf[i + j] != delimiter[j])
+                    continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private void ensure(int n) throws IOException {
+        while (tail - head < n) {
+            if (!fill())
+                throw malformed("unexpected end of stream");
+        }
+    }
+
+    /** Moves unread bytes to the front of the buffer and reads more; false at end of stream. */
+    private boolean fill() throws IOException {
+        if (head > 0) {
+            System.arraycopy(buf, head, buf, 0, tail - head);
+            tail -= head;
+            head = 0;
+        }
+        if (tail == buf.length)
+            throw malformed("buffer overflow");
+        int n = in.read(buf, tail, buf.length - tail);
+        if (n < 0)
+            return false;
+        tail += n;
+        return true;
+    }
+
+    private static MultipartException malformed(String reason) {
+        return new MultipartException("Malformed multipart body: " + reason);
+    }
+
+    /** Some clients send the full client-side path as the file name. */
+    private static String baseName(String fileName) {
+        int slash = Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\'));
+        return fileName.substring(slash + 1);
+    }
+}
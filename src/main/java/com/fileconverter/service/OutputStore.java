@@ -0,0 +1,301 @@
+package com.fileconverter.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Owns conversion outputs. Every output gets its own directory under a random key
+ * ({@code <root>/<first two key chars>/<key>/<file name>}), so outputs never collide and
+ * download URLs cannot be guessed.
+ * <p>
+ * Outputs are indexed in memory in creation order. The janitor walks that queue from the
+ * oldest end, deleting outputs while they are past their TTL or the store is over quota, so
+ * each pass costs in proportion to what it deletes rather than to the number of files on
+ * disk. Outputs still being written (allocated but not yet {@link #commit committed}) and
+ * outputs {@link #pin pinned} by a reader are stepped over; an output that never gets
+ * committed is reclaimed once its TTL has passed. Outputs from a previous run are moved
+ * aside and deleted in the background on startup.
+ */
+@Service
+public class OutputStore {
+    private static final Logger log = LoggerFactory.getLogger(OutputStore.class);
+    private static final Path ROOT = Path.of(System.getProperty("java.io.tmpdir"), "file-converter-out");
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{32}");
+    // Upper bound on deletions per janitor pass so a backlog never stalls the thread for long
+    private static final int MAX_DELETES_PER_PASS = 10_000;
+
+    private static final class Entry {
+        final String key;
+        final Path dir;
+        final Instant createdAt = Instant.now();
+        volatile long size;
+        volatile boolean committed;
+        volatile boolean deleteAfterDownload;
+        // Changed under the entry's monitor, so a pin and a deletion can't cross
+        int pins;
+        boolean deletePending;
+        volatile boolean deleted;
+
+        Entry(String key, Path dir) {
+            this.key = key;
+            this.dir = dir;
+        }
+    }
+
+    private final Duration ttl;
+    private final long maxBytes;
+    private final long janitorIntervalSeconds;
+    private final long downloadGraceSeconds;
+    private final Queue<Entry> byAge = new ConcurrentLinkedQueue<>();
+    private final Map<String, Entry> byKey = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final ScheduledExecutorService janitor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "output-janitor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public OutputStore(@Value("${app.outputs.ttl-minutes:60}") long ttlMinutes,
+                       @Value("${app.outputs.max-size-mb:5120}") long maxSizeMb,
+                       @Value("${app.outputs.janitor-interval-seconds:30}") long janitorIntervalSeconds,
+                       @Value("${app.outputs.download-grace-seconds:30}") long downloadGraceSeconds) {
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.maxBytes = maxSizeMb * 1024 * 1024;
+        this.janitorIntervalSeconds = Math.max(1, janitorIntervalSeconds);
+        this.downloadGraceSeconds = downloadGraceSeconds;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (Files.exists(ROOT)) {
+            // Nothing indexes the previous run's outputs; move them aside and delete them off the startup path
+            Path old = ROOT.resolveSibling(ROOT.getFileName() + ".old-" + System.currentTimeMillis());
+            Files.move(ROOT, old);
+            janitor.execute(() -> deleteTree(old));
+        }
+        Files.createDirectories(ROOT);
+        janitor.scheduleWithFixedDelay(this::sweep, janitorIntervalSeconds, janitorIntervalSeconds,
+                TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        janitor.shutdownNow();
+    }
+
+    /** Reserves a fresh, empty location for an output called {@code fileName}. */
+    public Path allocate(String fileName) throws IOException {
+        String key = UUID.randomUUID().toString().replace("-", "");
+        Path dir = Files.createDirectories(ROOT.resolve(key.substring(0, 2)).resolve(key));
+        Entry entry = new Entry(key, dir);
+        byKey.put(key, entry);
+        byAge.add(entry);
+        return dir.resolve(safeName(fileName));
+    }
+
+    /** Records the final size of an allocated output once it has been written. */
+    public void commit(Path output) {
+        Entry entry = byKey.get(keyOf(output));
+        if (entry == null)
+            return;
+        try {
+            long size = Files.size(output);
+            totalBytes.addAndGet(size - entry.size);
+            entry.size = size;
+            entry.committed = true;
+        } catch (IOException e) {
+            log.warn("Could not size output {}: {}", output, e.getMessage());
+        }
+    }
+
+    public String downloadUrl(Path output) {
+        String encoded = URLEncoder.encode(output.getFileName().toString(), StandardCharsets.UTF_8)
+                .replace("+", "%20");
+        return "/download/" + keyOf(output) + "/" + encoded;
+    }
+
+    /** Looks up a stored output, rejecting unknown keys and anything that escapes its directory. */
+    public Path resolve(String key, String fileName) throws IOException {
+        Entry entry = KEY.matcher(key).matches() ? byKey.get(key) : null;
+        if (entry == null || entry.deleted)
+            throw new NoSuchFileException(fileName);
+        Path path = entry.dir.resolve(fileName).normalize();
+        if (!entry.dir.equals(path.getParent()))
+            throw new SecurityException("Invalid path");
+        if (!Files.isRegularFile(path))
+            throw new NoSuchFileException(fileName);
+        return path;
+    }
+
+    public void markDeleteAfterDownload(Path output) {
+        Entry entry = byKey.get(keyOf(output));
+        if (entry != null)
+            entry.deleteAfterDownload = true;
+    }
+
+    public boolean isDeleteAfterDownload(Path output) {
+        Entry entry = byKey.get(keyOf(output));
+        return entry != null && entry.deleteAfterDownload;
+    }
+
+    /**
+     * Called after a complete download. Outputs marked delete-after-download are removed after
+     * a short grace period, or once the last download still reading them unpins them.
+     */
+    public void downloaded(String key) {
+        Entry entry = byKey.get(key);
+        if (entry != null && entry.deleteAfterDownload)
+            janitor.schedule(() -> deleteOnceUnpinned(entry), downloadGraceSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Keeps the janitor away from an output while it is being read, e.g. a pipeline intermediate
+     * that later stages still need; {@link #discard} still removes it. Every successful pin needs
+     * an {@link #unpin}.
+     *
+     * @return false when the output is already gone
+     */
+    public boolean pin(Path output) {
+        Entry entry = byKey.get(keyOf(output));
+        if (entry == null)
+            return false;
+        synchronized (entry) {
+            if (entry.deleted)
+                return false;
+            entry.pins++;
+            return true;
+        }
+    }
+
+    public void unpin(Path output) {
+        Entry entry = byKey.get(keyOf(output));
+        if (entry == null)
+            return;
+        synchronized (entry) {
+            if (--entry.pins > 0 || !entry.deletePending || entry.deleted)
+                return;
+            deleteLocked(entry);
+        }
+        deleteTree(entry.dir);
+    }
+
+    /** Removes an output straight away, for callers that have already delivered it some other way. */
+    public void discard(Path output) {
+        Entry entry = byKey.get(keyOf(output));
+        if (entry != null)
+            delete(entry);
+    }
+
+    public int getCount() {
+        return byKey.size();
+    }
+
+    public long getTotalBytes() {
+        return totalBytes.get();
+    }
+
+    void sweep() {
+        Instant cutoff = Instant.now().minus(ttl);
+        int deleted = 0;
+        Iterator<Entry> it = byAge.iterator();
+        while (deleted < MAX_DELETES_PER_PASS && it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.deleted) {
+                it.remove();
+                continue;
+            }
+            boolean expired = entry.createdAt.isBefore(cutoff);
+            if (!expired && totalBytes.get() <= maxBytes)
+                break;
+            // Still being written: it counts for nothing against the quota yet
+            if (!entry.committed && !expired)
+                continue;
+            synchronized (entry) {
+                if (entry.pins > 0)
+                    continue;
+                deleteLocked(entry);
+            }
+            it.remove();
+            deleteTree(entry.dir);
+            deleted++;
+        }
+        if (deleted > 0)
+            log.debug("Output janitor removed {} output(s); {} remaining", deleted, byKey.size());
+    }
+
+    private void delete(Entry entry) {
+        synchronized (entry) {
+            if (entry.deleted)
+                return;
+            deleteLocked(entry);
+        }
+        deleteTree(entry.dir);
+        // Shard directories are left in place; there are at most 256 of them
+    }
+
+    private void deleteOnceUnpinned(Entry entry) {
+        synchronized (entry) {
+            if (entry.deleted)
+                return;
+            if (entry.pins > 0) {
+                // The last unpin deletes it
+                entry.deletePending = true;
+                return;
+            }
+            deleteLocked(entry);
+        }
+        deleteTree(entry.dir);
+    }
+
+    private void deleteLocked(Entry entry) {
+        entry.deleted = true;
+        byKey.remove(entry.key);
+        totalBytes.addAndGet(-entry.size);
+    }
+
+    private static String keyOf(Path output) {
+        return output.getParent().getFileName().toString();
+    }
+
+    private static String safeName(String fileName) {
+        String name = Path.of(fileName).getFileName().toString();
+        return name.isBlank() || name.equals("..") ? "output" : name;
+    }
+
+    private static void deleteTree(Path dir) {
+        try (var stream = Files.walk(dir)) {
+            stream.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try {
+                    Files.deleteIfExists(p);
+                } catch (IOException ignored) {
+                }
+            });
+        } catch (IOException ignored) {
+        }
+    }
+}
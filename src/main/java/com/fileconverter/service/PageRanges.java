@@ -0,0 +1,65 @@
+package com.fileconverter.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses page selections such as {@code "1-3, 5, 8-"} into zero-based, inclusive ranges.
+ * Open-ended ranges run to the last page; pages past the end of the document are clamped.
+ */
+public final class PageRanges {
+
+    private PageRanges() {
+    }
+
+    /**
+     * @return one {@code {first, last}} pair per comma-separated item, in the order given;
+     *         the whole document when {@code spec} is blank
+     */
+    public static List<int[]> parse(String spec, int pageCount) {
+        List<int[]> ranges = new ArrayList<>();
+        if (spec == null || spec.isBlank()) {
+            if (pageCount > 0)
+                ranges.add(new int[]{0, pageCount - 1});
+            return ranges;
+        }
+        for (String item : spec.split(",")) {
+            String part = item.trim();
+            if (part.isEmpty())
+                continue;
+            int dash = part.indexOf('-');
+            int from;
+            int to;
+            try {
+                if (dash < 0) {
+                    from = to = Integer.parseInt(part);
+                } else {
+                    String left = part.substring(0, dash).trim();
+                    String right = part.substring(dash + 1).trim();
+                    from = left.isEmpty() ? 1 : Integer.parseInt(left);
+                    to = right.isEmpty() ? pageCount : Integer.parseInt(right);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid page range: " + part);
+            }
+            if (from < 1 || to < from)
+                throw new IllegalArgumentException("Invalid page range: " + part);
+            if (from > pageCount)
+                continue;
+            ranges.add(new int[]{from - 1, Math.min(to, pageCount) - 1});
+        }
+        if (ranges.isEmpty())
+            throw new IllegalArgumentException("Page range '" + spec + "' selects no pages");
+        return ranges;
+    }
+
+    /** Flattens {@link #parse} into the list of zero-based page indices it selects. */
+    public static List<Integer> pages(String spec, int pageCount) {
+        List<Integer> pages = new ArrayList<>();
+        for (int[] r : parse(spec, pageCount)) {
+            for (int i = r[0]; i <= r[1]; i++)
+                pages.add(i);
+        }
+        return pages;
+    }
+}
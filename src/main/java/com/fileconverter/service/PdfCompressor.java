@@ -0,0 +1,584 @@
+package com.fileconverter.service;
+
+import jakarta.annotation.PreDestroy;
+import net.coobird.thumbnailator.Thumbnails;
+import org.apache.pdfbox.contentstream.PDFStreamEngine;
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.contentstream.operator.state.Concatenate;
+import org.apache.pdfbox.contentstream.operator.state.Restore;
+import org.apache.pdfbox.contentstream.operator.state.Save;
+import org.apache.pdfbox.contentstream.operator.state.SetGraphicsStateParameters;
+import org.apache.pdfbox.contentstream.operator.state.SetMatrix;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSObjectKey;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdfwriter.compress.CompressParameters;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDStream;
+import org.apache.pdfbox.pdmodel.graphics.PDXObject;
+import org.apache.pdfbox.pdmodel.graphics.color.PDColorSpace;
+import org.apache.pdfbox.pdmodel.graphics.color.PDDeviceGray;
+import org.apache.pdfbox.pdmodel.graphics.color.PDICCBased;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.util.Matrix;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Shrinks PDFs with PDFBox:
+ * <ul>
+ *   <li>image XObjects shown above the preset's DPI are downsampled, and images are
+ *       re-encoded as JPEG at the preset's quality when that makes them smaller;</li>
+ *   <li>byte-identical image, soft mask and embedded font streams are stored once;</li>
+ *   <li>fonts that no content stream selects are dropped from page and form resources;</li>
+ *   <li>the result is written with object streams and a compressed xref stream.</li>
+ * </ul>
+ * Decoding, scaling and encoding images is the expensive part, so it runs on a shared pool.
+ * PDFBox documents are not thread-safe; through {@link PdfWorkers}, each worker borrows
+ * its own read-only copy of the input and the results are written back into the document
+ * being saved from the calling thread.
+ */
+@Service
+public class PdfCompressor {
+    private static final Logger log = LoggerFactory.getLogger(PdfCompressor.class);
+    // Below these, re-encoding saves next to nothing
+    private static final long MIN_IMAGE_BYTES = 4 * 1024;
+    private static final int MIN_IMAGE_PIXELS = 64 * 64;
+    // A re-encoded image has to be at least this much smaller to be worth the generation loss
+    private static final double MIN_SAVING = 0.9;
+    private static final Set<COSName> FONT_FILES = Set.of(COSName.FONT_FILE, COSName.FONT_FILE2, COSName.FONT_FILE3);
+    private static final Set<COSName> SKIPPED_FILTERS = Set.of(
+            COSName.JPX_DECODE, COSName.JBIG2_DECODE, COSName.CCITTFAX_DECODE);
+
+    public enum Preset {
+        LOW(200, 0.85f),
+        MEDIUM(150, 0.75f),
+        HIGH(96, 0.6f);
+
+        final float targetDpi;
+        final float jpegQuality;
+
+        Preset(float targetDpi, float jpegQuality) {
+            this.targetDpi = targetDpi;
+            this.jpegQuality = jpegQuality;
+        }
+
+        public static Preset of(String name) {
+            if (name == null || name.isBlank())
+                return MEDIUM;
+            try {
+                return valueOf(name.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown compression level: " + name + " (low, medium or high)");
+            }
+        }
+    }
+
+    public record Report(long inputBytes, long outputBytes, int imagesRecompressed, int imagesDownsampled,
+                         int duplicatesMerged, int fontsRemoved, boolean keptOriginal) {
+
+        public double reductionPercent() {
+            return inputBytes == 0 ? 0 : 100.0 * (inputBytes - outputBytes) / inputBytes;
+        }
+    }
+
+    private final ExecutorService pool;
+    private final int threads;
+
+    public PdfCompressor(@Value("${app.pdf.compress-threads:0}") int threads) {
+        // 0 means "one thread per core"
+        this.threads = PdfWorkers.threads(threads);
+        this.pool = PdfWorkers.newPool(threads, "pdf-compress");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Writes a compressed copy of {@code input} to {@code output}. When the rewritten file
+     * would not be smaller, the original bytes are written instead.
+     */
+    public Report compress(Path input, Path output, Preset preset) throws IOException {
+        long inputBytes = Files.size(input);
+        int recompressed;
+        int downsampled;
+        int merged;
+        int fontsRemoved;
+        Path rewritten = output.resolveSibling(output.getFileName() + ".tmp");
+        try {
+            try (PDDocument doc = PdfWorkers.load(input)) {
+                doc.setAllSecurityToBeRemoved(true);
+
+                // Merge duplicates first, so each image is scanned and re-encoded once
+                List<COSDictionary> resources = collectResources(doc);
+                merged = deduplicate(resources);
+
+                Scanner scanner = new Scanner();
+                for (PDPage page : doc.getPages()) {
+                    try {
+                        scanner.processPage(page);
+                    } catch (IOException | RuntimeException e) {
+                        log.debug("Could not scan a page of {}: {}", input.getFileName(), e.getMessage());
+                        scanner.incomplete = true;
+                    }
+                }
+                fontsRemoved = scanner.incomplete ? 0 : removeUnusedFonts(scanner);
+
+                List<Candidate> candidates = candidates(scanner, preset);
+                int[] counts = recompress(input, candidates, preset);
+                recompressed = counts[0];
+                downsampled = counts[1];
+
+                doc.save(rewritten.toFile(), CompressParameters.DEFAULT_COMPRESSION);
+            }
+
+            long outputBytes = Files.size(rewritten);
+            if (outputBytes >= inputBytes) {
+                Files.copy(input, output, StandardCopyOption.REPLACE_EXISTING);
+                return new Report(inputBytes, inputBytes, 0, 0, 0, 0, true);
+            }
+            Files.move(rewritten, output, StandardCopyOption.REPLACE_EXISTING);
+            return new Report(inputBytes, outputBytes, recompressed, downsampled, merged, fontsRemoved, false);
+        } finally {
+            Files.deleteIfExists(rewritten);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Scanning: where images are drawn, and which fonts are used
+    // ------------------------------------------------------------
+
+    /** Largest size, in points, at which an image is drawn anywhere in the document. */
+    private static final class Placement {
+        final PDImageXObject image;
+        float maxWidth;
+        float maxHeight;
+
+        Placement(PDImageXObject image) {
+            this.image = image;
+        }
+    }
+
+    private static final class Scanner extends PDFStreamEngine {
+        final Map<COSStream, Placement> placements = new IdentityHashMap<>();
+        // Resource dictionaries whose content was scanned, with the font names it selected
+        final Map<COSDictionary, Set<COSName>> usedFonts = new IdentityHashMap<>();
+        boolean incomplete;
+
+        Scanner() {
+            addOperator(new Concatenate(this));
+            addOperator(new SetMatrix(this));
+            addOperator(new Save(this));
+            addOperator(new Restore(this));
+            addOperator(new SetGraphicsStateParameters(this));
+        }
+
+        @Override
+        public void processPage(PDPage page) throws IOException {
+            scanned(page.getResources());
+            super.processPage(page);
+        }
+
+        @Override
+        public void showForm(PDFormXObject form) throws IOException {
+            scanned(form.getResources());
+            super.showForm(form);
+        }
+
+        private void scanned(PDResources resources) {
+            if (resources != null)
+                usedFonts.computeIfAbsent(resources.getCOSObject(), k -> new HashSet<>());
+        }
+
+        @Override
+        protected void processOperator(Operator operator, List<COSBase> operands) throws IOException {
+            String name = operator.getName();
+            if ("Tf".equals(name) && !operands.isEmpty() && operands.get(0) instanceof COSName font) {
+                PDResources resources = getResources();
+                if (resources != null)
+                    usedFonts.computeIfAbsent(resources.getCOSObject(), k -> new HashSet<>()).add(font);
+            } else if ("Do".equals(name) && !operands.isEmpty() && operands.get(0) instanceof COSName xobjectName) {
+                PDResources resources = getResources();
+                PDXObject xobject = resources != null ? resources.getXObject(xobjectName) : null;
+                if (xobject instanceof PDImageXObject image) {
+                    Matrix ctm = getGraphicsState().getCurrentTransformationMatrix();
+                    Placement p = placements.computeIfAbsent(image.getCOSObject(), k -> new Placement(image));
+                    p.maxWidth = Math.max(p.maxWidth, ctm.getScalingFactorX());
+                    p.maxHeight = Math.max(p.maxHeight, ctm.getScalingFactorY());
+                } else if (xobject instanceof PDFormXObject form) {
+                    showForm(form);
+                }
+            } else {
+                super.processOperator(operator, operands);
+            }
+        }
+
+        @Override
+        protected void operatorException(Operator operator, List<COSBase> operands, IOException e) throws IOException {
+            incomplete = true;
+            super.operatorException(operator, operands, e);
+        }
+    }
+
+    /** Resource dictionaries of every page and of every form XObject reachable from them. */
+    private static List<COSDictionary> collectResources(PDDocument doc) {
+        Set<COSDictionary> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<COSDictionary> result = new ArrayList<>();
+        for (PDPage page : doc.getPages()) {
+            PDResources resources = page.getResources();
+            if (resources != null)
+                collectResources(resources.getCOSObject(), seen, result);
+        }
+        return result;
+    }
+
+    private static void collectResources(COSDictionary resources, Set<COSDictionary> seen, List<COSDictionary> result) {
+        if (!seen.add(resources))
+            return;
+        result.add(resources);
+        COSDictionary xobjects = resources.getCOSDictionary(COSName.XOBJECT);
+        if (xobjects == null)
+            return;
+        for (COSName name : xobjects.keySet()) {
+            if (xobjects.getDictionaryObject(name) instanceof COSStream stream
+                    && COSName.FORM.equals(stream.getCOSName(COSName.SUBTYPE))) {
+                COSDictionary formResources = stream.getCOSDictionary(COSName.RESOURCES);
+                if (formResources != null)
+                    collectResources(formResources, seen, result);
+            }
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Deduplication and font clean-up
+    // ------------------------------------------------------------
+
+    /**
+     * Points every reference to a byte-identical image, soft mask or font program at one
+     * copy; the others are no longer reachable and are not written. Soft masks go first, so
+     * images that only differed by which copy of a mask they used become identical too.
+     */
+    private static int deduplicate(List<COSDictionary> resourceDicts) throws IOException {
+        Map<String, Canonical> canonical = new HashMap<>();
+        Map<COSStream, String> digests = new IdentityHashMap<>();
+        int merged = 0;
+
+        List<COSDictionary> images = new ArrayList<>();
+        List<COSDictionary> fontDescriptors = new ArrayList<>();
+        for (COSDictionary resources : resourceDicts) {
+            COSDictionary xobjects = resources.getCOSDictionary(COSName.XOBJECT);
+            if (xobjects != null) {
+                for (COSName name : xobjects.keySet()) {
+                    if (xobjects.getDictionaryObject(name) instanceof COSStream stream
+                            && COSName.IMAGE.equals(stream.getCOSName(COSName.SUBTYPE)))
+                        images.add(stream);
+                }
+            }
+            COSDictionary fonts = resources.getCOSDictionary(COSName.FONT);
+            if (fonts != null) {
+                for (COSName name : fonts.keySet()) {
+                    if (fonts.getDictionaryObject(name) instanceof COSDictionary font)
+                        collectFontDescriptors(font, fontDescriptors);
+                }
+            }
+        }
+
+        Set<COSDictionary> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (COSDictionary image : images) {
+            if (visited.add(image))
+                merged += replaceWithCanonical(image, COSName.SMASK, canonical, digests);
+        }
+        for (COSDictionary descriptor : fontDescriptors) {
+            if (!visited.add(descriptor))
+                continue;
+            for (COSName key : FONT_FILES)
+                merged += replaceWithCanonical(descriptor, key, canonical, digests);
+        }
+        for (COSDictionary resources : resourceDicts) {
+            COSDictionary xobjects = resources.getCOSDictionary(COSName.XOBJECT);
+            if (xobjects == null)
+                continue;
+            for (COSName name : new ArrayList<>(xobjects.keySet())) {
+                if (xobjects.getDictionaryObject(name) instanceof COSStream stream
+                        && COSName.IMAGE.equals(stream.getCOSName(COSName.SUBTYPE)))
+                    merged += replaceWithCanonical(xobjects, name, canonical, digests);
+            }
+        }
+        return merged;
+    }
+
+    private static void collectFontDescriptors(COSDictionary font, List<COSDictionary> out) {
+        COSDictionary descriptor = font.getCOSDictionary(COSName.FONT_DESC);
+        if (descriptor != null)
+            out.add(descriptor);
+        COSArray descendants = font.getCOSArray(COSName.DESCENDANT_FONTS);
+        if (descendants != null) {
+            for (int i = 0; i < descendants.size(); i++) {
+                if (descendants.getObject(i) instanceof COSDictionary descendant
+                        && descendant.getCOSDictionary(COSName.FONT_DESC) != null)
+                    out.add(descendant.getCOSDictionary(COSName.FONT_DESC));
+            }
+        }
+    }
+
+    /** First stream seen with a given digest, and the (indirect) reference it was found through. */
+    private record Canonical(COSStream stream, COSBase reference) {
+    }
+
+    /** Replaces {@code owner[key]} with an identical stream seen earlier; returns 1 if it did. */
+    private static int replaceWithCanonical(COSDictionary owner, COSName key, Map<String, Canonical> canonical,
+                                            Map<COSStream, String> digests) throws IOException {
+        if (!(owner.getDictionaryObject(key) instanceof COSStream stream))
+            return 0;
+        String digest = digests.get(stream);
+        if (digest == null) {
+            digest = digest(stream);
+            digests.put(stream, digest);
+        }
+        Canonical first = canonical.putIfAbsent(digest, new Canonical(stream, owner.getItem(key)));
+        if (first == null || first.stream() == stream)
+            return 0;
+        owner.setItem(key, first.reference());
+        return 1;
+    }
+
+    /** SHA-256 over the stream dictionary (minus its length) and the still-encoded data. */
+    private static String digest(COSStream stream) throws IOException {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        Map<String, String> entries = new TreeMap<>();
+        for (Map.Entry<COSName, COSBase> e : stream.entrySet()) {
+            if (!COSName.LENGTH.equals(e.getKey()))
+                entries.put(e.getKey().getName(), describe(e.getValue()));
+        }
+        md.update(entries.toString().getBytes(StandardCharsets.UTF_8));
+        try (InputStream in = new DigestInputStream(stream.createRawInputStream(), md)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    /** Streams (soft masks, ICC profiles) are compared by identity; everything else by value. */
+    private static String describe(COSBase value) {
+        COSBase resolved = value instanceof COSObject ref ? ref.getObject() : value;
+        if (resolved instanceof COSStream stream)
+            return "stream " + (stream.getKey() != null ? stream.getKey() : System.identityHashCode(stream));
+        return String.valueOf(resolved);
+    }
+
+    private static int removeUnusedFonts(Scanner scanner) {
+        int removed = 0;
+        for (Map.Entry<COSDictionary, Set<COSName>> e : scanner.usedFonts.entrySet()) {
+            COSDictionary resources = e.getKey();
+            COSDictionary fonts = resources.getCOSDictionary(COSName.FONT);
+            // A graphics state can select a font (or a soft mask drawn with these resources) outside of Tf
+            if (fonts == null || setsFontOrMaskInGraphicsState(resources))
+                continue;
+            for (COSName name : new ArrayList<>(fonts.keySet())) {
+                if (!e.getValue().contains(name)) {
+                    fonts.removeItem(name);
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    private static boolean setsFontOrMaskInGraphicsState(COSDictionary resources) {
+        COSDictionary states = resources.getCOSDictionary(COSName.EXT_G_STATE);
+        if (states == null)
+            return false;
+        for (COSName name : states.keySet()) {
+            if (states.getDictionaryObject(name) instanceof COSDictionary gs
+                    && (gs.containsKey(COSName.FONT) || gs.getDictionaryObject(COSName.SMASK) instanceof COSDictionary))
+                return true;
+        }
+        return false;
+    }
+
+    // ------------------------------------------------------------
+    // Image recompression
+    // ------------------------------------------------------------
+
+    private record Candidate(COSStream stream, COSObjectKey key, int width, int height, double scale, boolean gray,
+                             long rawBytes) {
+    }
+
+    private record Encoded(byte[] jpeg, int width, int height, boolean gray) {
+    }
+
+    private static List<Candidate> candidates(Scanner scanner, Preset preset) {
+        List<Candidate> candidates = new ArrayList<>();
+        for (Placement p : scanner.placements.values()) {
+            COSStream stream = p.image.getCOSObject();
+            COSObjectKey key = stream.getKey();
+            int width = p.image.getWidth();
+            int height = p.image.getHeight();
+            if (key == null || p.image.isStencil() || p.image.getBitsPerComponent() == 1
+                    || stream.containsKey(COSName.MASK) || (long) width * height < MIN_IMAGE_PIXELS
+                    || stream.getLength() < MIN_IMAGE_BYTES || hasSkippedFilter(stream))
+                continue;
+
+            double scale = 1;
+            if (p.maxWidth > 0 && p.maxHeight > 0) {
+                double dpi = Math.min(width / (p.maxWidth / 72.0), height / (p.maxHeight / 72.0));
+                if (dpi > preset.targetDpi)
+                    scale = preset.targetDpi / dpi;
+            }
+            boolean gray;
+            try {
+                gray = isGray(p.image.getColorSpace());
+            } catch (IOException | RuntimeException e) {
+                continue;
+            }
+            candidates.add(new Candidate(stream, key, width, height, scale, gray, stream.getLength()));
+        }
+        return candidates;
+    }
+
+    /**
+     * Whether the image can be written back as /DeviceGray. Indexed and Separation spaces also
+     * have one component, but it is a palette index or a tint of an arbitrary colour, so those
+     * images keep their colour and go out as RGB.
+     */
+    static boolean isGray(PDColorSpace colorSpace) {
+        return colorSpace instanceof PDDeviceGray
+                || colorSpace instanceof PDICCBased icc && icc.getNumberOfComponents() == 1;
+    }
+
+    private static boolean hasSkippedFilter(COSStream stream) {
+        COSBase filter = stream.getDictionaryObject(COSName.FILTER);
+        if (filter instanceof COSName name)
+            return SKIPPED_FILTERS.contains(name);
+        if (filter instanceof COSArray array) {
+            for (int i = 0; i < array.size(); i++) {
+                if (array.getObject(i) instanceof COSName name && SKIPPED_FILTERS.contains(name))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /** Re-encodes candidates on the pool and writes the ones that got smaller back; returns {recompressed, downsampled}. */
+    private int[] recompress(Path input, List<Candidate> candidates, Preset preset) throws IOException {
+        if (candidates.isEmpty())
+            return new int[]{0, 0};
+        int[] counts = new int[2];
+        try (PdfWorkers workers = new PdfWorkers(pool, "recompressing images")) {
+            int width = Math.min(threads, candidates.size());
+            for (int i = 0; i < width; i++)
+                workers.add(PdfWorkers.load(input));
+            workers.runInOrder(candidates, (doc, c) -> encode(doc, c, preset), (i, encoded) -> {
+                Candidate c = candidates.get(i);
+                ConversionProgress.report(i + 1, candidates.size(), "images");
+                if (encoded == null || encoded.jpeg().length >= c.rawBytes() * MIN_SAVING)
+                    return;
+                replace(c.stream(), encoded);
+                counts[0]++;
+                if (encoded.width() < c.width())
+                    counts[1]++;
+            });
+        }
+        return counts;
+    }
+
+    /** Decodes one image from a borrowed copy of the document, scales it and encodes it as JPEG. */
+    private static Encoded encode(PDDocument doc, Candidate c, Preset preset) throws Exception {
+        int width = Math.max(1, (int) Math.round(c.width() * c.scale()));
+        int height = Math.max(1, (int) Math.round(c.height() * c.scale()));
+        // Big reductions decode every n-th pixel only, still leaving the resizer some detail to filter
+        int subsampling = Math.min(ImageDecoder.step(c.width(), width), ImageDecoder.step(c.height(), height));
+        BufferedImage decoded;
+        try {
+            COSBase base = doc.getDocument().getObjectFromPool(c.key()).getObject();
+            if (!(base instanceof COSStream stream))
+                return null;
+            // Decode the colour data only; the masks stay on the image and are applied when it is drawn.
+            // This copy of the document is never saved, so the entries can just be dropped.
+            stream.removeItem(COSName.SMASK);
+            stream.removeItem(COSName.MASK);
+            decoded = new PDImageXObject(new PDStream(stream), null).getImage(null, subsampling);
+        } catch (IOException | RuntimeException e) {
+            // Unsupported colour space, broken data: leave the image as it is
+            log.debug("Skipping image {}: {}", c.key(), e.getMessage());
+            return null;
+        }
+
+        BufferedImage scaled = width < decoded.getWidth() || height < decoded.getHeight()
+                ? Thumbnails.of(decoded).size(width, height).keepAspectRatio(false).asBufferedImage()
+                : decoded;
+        BufferedImage opaque = flatten(scaled, c.gray());
+        return new Encoded(PdfPageRenderer.encode(opaque, "jpg", preset.jpegQuality),
+                opaque.getWidth(), opaque.getHeight(), c.gray());
+    }
+
+    /** JPEG has no alpha and wants 8-bit RGB or gray; transparency lives in the image's soft mask anyway. */
+    private static BufferedImage flatten(BufferedImage image, boolean gray) {
+        int type = gray ? BufferedImage.TYPE_BYTE_GRAY : BufferedImage.TYPE_INT_RGB;
+        if (image.getType() == type)
+            return image;
+        BufferedImage out = new BufferedImage(image.getWidth(), image.getHeight(), type);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    /** Rewrites the image stream in place, so every existing reference now points at the JPEG. */
+    private static void replace(COSStream stream, Encoded encoded) throws IOException {
+        try (OutputStream out = stream.createRawOutputStream()) {
+            out.write(encoded.jpeg());
+        }
+        stream.setItem(COSName.FILTER, COSName.DCT_DECODE);
+        stream.removeItem(COSName.DECODE_PARMS);
+        stream.removeItem(COSName.DECODE);
+        stream.setInt(COSName.WIDTH, encoded.width());
+        stream.setInt(COSName.HEIGHT, encoded.height());
+        stream.setInt(COSName.BITS_PER_COMPONENT, 8);
+        stream.setItem(COSName.COLORSPACE, encoded.gray() ? COSName.DEVICEGRAY : COSName.DEVICERGB);
+    }
+}
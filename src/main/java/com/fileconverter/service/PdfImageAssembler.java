@@ -0,0 +1,205 @@
+package com.fileconverter.service;
+
+import jakarta.annotation.PreDestroy;
+import net.coobird.thumbnailator.Thumbnails;
+import net.coobird.thumbnailator.util.exif.Orientation;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.util.Matrix;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Builds a PDF with one page per image.
+ * <ul>
+ *   <li>JPEGs are embedded as they are (DCTDecode); only the header is read, for the size
+ *       and the EXIF orientation, which is applied by the drawing matrix rather than by
+ *       rotating pixels.</li>
+ *   <li>Other formats, and JPEGs over the {@code maxImageSide} cap, are decoded (subsampled
+ *       when they are being capped, see {@link ImageDecoder}) and re-encoded: losslessly,
+ *       or as JPEG when the input was one.</li>
+ * </ul>
+ * Images are prepared on a shared pool. PDFBox documents are not thread-safe, so each worker
+ * creates its image XObjects in a scratch document it borrows from {@link PdfWorkers}; the
+ * calling thread lays them out on pages in input order, and the scratch documents stay open
+ * until the output, which references their streams, has been saved.
+ */
+@Service
+public class PdfImageAssembler {
+    private static final Logger log = LoggerFactory.getLogger(PdfImageAssembler.class);
+    private static final float JPEG_QUALITY = 0.9f;
+    // White border around images placed on a fixed-size page
+    private static final float MARGIN = 18;
+
+    public enum PageSize {
+        FIT(null),
+        A4(PDRectangle.A4),
+        LETTER(PDRectangle.LETTER);
+
+        final PDRectangle box;
+
+        PageSize(PDRectangle box) {
+            this.box = box;
+        }
+
+        public static PageSize of(String name) {
+            if (name == null || name.isBlank())
+                return FIT;
+            try {
+                return valueOf(name.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown page size: " + name + " (fit, a4 or letter)");
+            }
+        }
+    }
+
+    public record Report(int pages, int embeddedAsIs, int skipped) {
+    }
+
+    /** An image ready to be placed: its XObject and the size it is shown at, in pixels. */
+    private record Prepared(PDImageXObject image, ImageDecoder.Header header, int width, int height,
+                            boolean asIs) {
+    }
+
+    private final ExecutorService pool;
+    private final int threads;
+
+    public PdfImageAssembler(@Value("${app.pdf.image-threads:0}") int threads) {
+        // 0 means "one thread per core"
+        this.threads = PdfWorkers.threads(threads);
+        this.pool = PdfWorkers.newPool(threads, "pdf-images");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Writes {@code images} to {@code output}, one page each, in order. Files that are not
+     * readable images are skipped.
+     *
+     * @param maxImageSide longest side, in pixels, an image is embedded at; 0 for no cap
+     */
+    public Report assemble(List<Path> images, Path output, PageSize pageSize, int maxImageSide) throws IOException {
+        try (PDDocument pdf = new PDDocument(IOUtils.createTempFileOnlyStreamCache());
+             PdfWorkers workers = new PdfWorkers(pool, "preparing images")) {
+            for (int i = 0; i < Math.min(threads, images.size()); i++)
+                workers.add(new PDDocument(IOUtils.createTempFileOnlyStreamCache()));
+
+            int[] embeddedAsIs = {0};
+            int[] skipped = {0};
+            workers.runInOrder(images, (doc, image) -> prepare(doc, image, maxImageSide), (i, prepared) -> {
+                ConversionProgress.report(i + 1, images.size(), "images");
+                if (prepared == null) {
+                    skipped[0]++;
+                    return;
+                }
+                addPage(pdf, prepared, pageSize);
+                if (prepared.asIs())
+                    embeddedAsIs[0]++;
+            });
+            if (pdf.getNumberOfPages() == 0)
+                throw new IOException("None of the files could be read as an image");
+            pdf.save(output.toFile());
+            return new Report(pdf.getNumberOfPages(), embeddedAsIs[0], skipped[0]);
+        }
+    }
+
+    /** Turns one file into an XObject in a borrowed scratch document; null when it is not an image. */
+    private static Prepared prepare(PDDocument doc, Path path, int maxImageSide) {
+        try {
+            ImageDecoder.Header header = ImageDecoder.header(path);
+            boolean jpeg = header.format().equals("jpeg");
+            int longest = Math.max(header.width(), header.height());
+            boolean capped = maxImageSide > 0 && longest > maxImageSide;
+
+            if (jpeg && !capped) {
+                byte[] bytes = Files.readAllBytes(path);
+                try {
+                    PDImageXObject image = JPEGFactory.createFromByteArray(doc, bytes);
+                    return new Prepared(image, header, header.displayWidth(), header.displayHeight(), true);
+                } catch (IOException | RuntimeException e) {
+                    // Colour model or encoding PDF readers can't take as-is; decode it instead
+                    log.debug("Re-encoding {}: {}", path.getFileName(), e.getMessage());
+                }
+            }
+
+            double scale = capped ? (double) maxImageSide / longest : 1;
+            int width = Math.max(1, (int) Math.round(header.displayWidth() * scale));
+            int height = Math.max(1, (int) Math.round(header.displayHeight() * scale));
+            BufferedImage img = capped ? ImageDecoder.read(path, width, height) : ImageDecoder.read(path, 0, 0);
+            if (img.getWidth() > width || img.getHeight() > height)
+                img = Thumbnails.of(img).size(width, height).keepAspectRatio(false).asBufferedImage();
+
+            PDImageXObject image = jpeg
+                    ? JPEGFactory.createFromImage(doc, img, JPEG_QUALITY)
+                    : LosslessFactory.createFromImage(doc, img);
+            // Decoding applied the orientation already
+            ImageDecoder.Header upright = new ImageDecoder.Header(header.format(), img.getWidth(),
+                    img.getHeight(), Orientation.TOP_LEFT);
+            return new Prepared(image, upright, img.getWidth(), img.getHeight(), false);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Skipping {}: {}", path.getFileName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static void addPage(PDDocument pdf, Prepared prepared, PageSize pageSize) throws IOException {
+        float width = prepared.width();
+        float height = prepared.height();
+        PDRectangle box;
+        float x = 0;
+        float y = 0;
+        if (pageSize.box == null) {
+            box = new PDRectangle(width, height);
+        } else {
+            // Turn the page to match the image, then fit the image inside the margins
+            boolean landscape = width > height;
+            box = landscape ? new PDRectangle(pageSize.box.getHeight(), pageSize.box.getWidth()) : pageSize.box;
+            float scale = Math.min((box.getWidth() - 2 * MARGIN) / width, (box.getHeight() - 2 * MARGIN) / height);
+            width *= scale;
+            height *= scale;
+            x = (box.getWidth() - width) / 2;
+            y = (box.getHeight() - height) / 2;
+        }
+        PDPage page = new PDPage(box);
+        pdf.addPage(page);
+        try (PDPageContentStream cs = new PDPageContentStream(pdf, page)) {
+            cs.drawImage(prepared.image(), placement(prepared.header(), x, y, width, height));
+        }
+    }
+
+    /**
+     * Maps the image's unit square onto the box at ({@code x}, {@code y}) so that the stored
+     * pixels come out the way the EXIF orientation says they should be shown.
+     */
+    static Matrix placement(ImageDecoder.Header header, float x, float y, float w, float h) {
+        // Image space: u to the right, v up, the first stored row at v = 1
+        return switch (header.orientation()) {
+            case TOP_LEFT -> new Matrix(w, 0, 0, h, x, y);
+            case TOP_RIGHT -> new Matrix(-w, 0, 0, h, x + w, y);
+            case BOTTOM_RIGHT -> new Matrix(-w, 0, 0, -h, x + w, y + h);
+            case BOTTOM_LEFT -> new Matrix(w, 0, 0, -h, x, y + h);
+            case LEFT_TOP -> new Matrix(0, -h, -w, 0, x + w, y + h);
+            case RIGHT_TOP -> new Matrix(0, -h, w, 0, x, y + h);
+            case RIGHT_BOTTOM -> new Matrix(0, h, w, 0, x, y);
+            case LEFT_BOTTOM -> new Matrix(0, h, -w, 0, x + w, y);
+        };
+    }
+}
@@ -0,0 +1,203 @@
+package com.fileconverter.service;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.multipdf.PDFMergerUtility;
+import org.apache.pdfbox.pdfwriter.compress.CompressParameters;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentCatalog;
+import org.apache.pdfbox.pdmodel.PDDocumentNameDictionary;
+import org.apache.pdfbox.pdmodel.PDDestinationNameTreeNode;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDNameTreeNode;
+import org.apache.pdfbox.pdmodel.interactive.documentnavigation.destination.PDDestination;
+import org.apache.pdfbox.pdmodel.interactive.documentnavigation.destination.PDPageDestination;
+import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDDocumentOutline;
+import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDOutlineItem;
+import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDOutlineNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Merges PDFs one source at a time. Each source is opened, appended to the output and
+ * closed before the next is read; {@link PDFMergerUtility#appendDocument} copies the stream
+ * data it needs into the output document, whose stream cache keeps at most
+ * {@code app.pdf.merge.max-memory-mb} in memory and spills the rest to a temp file. Past that
+ * cap the heap only grows with the output's object structure (pages, resources, outline
+ * items), around 10 KB per page, not with page contents or images.
+ * <p>
+ * Each source can be cut down to a page range first. Pages keep their original order.
+ * Outline items and named destinations pointing at dropped pages are removed, and so are
+ * the document's structure tree and article threads, which would otherwise pull the
+ * dropped pages back in.
+ */
+@Service
+public class PdfMerger {
+
+    public record Source(Path path, String pageRanges) {
+    }
+
+    private final long maxMemoryBytes;
+
+    public PdfMerger(@Value("${app.pdf.merge.max-memory-mb:64}") int maxMemoryMb) {
+        this.maxMemoryBytes = Math.max(1, maxMemoryMb) * 1024L * 1024L;
+    }
+
+    /** Appends the sources to a new PDF at {@code output}; returns its page count. */
+    public int merge(List<Source> sources, Path output) throws IOException {
+        PDFMergerUtility merger = new PDFMergerUtility();
+        try (PDDocument dest = new PDDocument(MemoryUsageSetting.setupMixed(maxMemoryBytes).streamCache)) {
+            for (int i = 0; i < sources.size(); i++) {
+                Source source = sources.get(i);
+                try (PDDocument src = Loader.loadPDF(source.path().toFile(), IOUtils.createTempFileOnlyStreamCache())) {
+                    if (source.pageRanges() != null && !source.pageRanges().isBlank())
+                        keepPages(src, source.pageRanges());
+                    merger.appendDocument(dest, src);
+                }
+                ConversionProgress.report(i + 1, sources.size(), "files");
+            }
+            dest.save(output.toFile(), CompressParameters.DEFAULT_COMPRESSION);
+            return dest.getNumberOfPages();
+        }
+    }
+
+    /** Removes every page outside {@code spec}, and whatever refers to the removed pages. */
+    static void keepPages(PDDocument doc, String spec) {
+        int pageCount = doc.getNumberOfPages();
+        Set<COSDictionary> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int index : PageRanges.pages(spec, pageCount))
+            kept.add(doc.getPage(index).getCOSObject());
+        if (kept.size() == pageCount)
+            return;
+
+        for (int i = pageCount - 1; i >= 0; i--) {
+            if (!kept.contains(doc.getPage(i).getCOSObject()))
+                doc.removePage(i);
+        }
+
+        PDDocumentCatalog catalog = doc.getDocumentCatalog();
+        PDDocumentOutline outline = catalog.getDocumentOutline();
+        if (outline != null) {
+            relink(outline, doc, kept);
+            if (!outline.hasChildren())
+                catalog.setDocumentOutline(null);
+        }
+        pruneNamedDestinations(catalog, kept);
+        catalog.getCOSObject().removeItem(COSName.STRUCT_TREE_ROOT);
+        catalog.getCOSObject().removeItem(COSName.MARK_INFO);
+        catalog.getCOSObject().removeItem(COSName.THREADS);
+    }
+
+    /**
+     * Drops outline items whose target page is gone, unless they still have children, and
+     * rebuilds the sibling links and open counts. Returns the number of items shown under
+     * {@code node} when it is open.
+     */
+    private static int relink(PDOutlineNode node, PDDocument doc, Set<COSDictionary> kept) {
+        List<PDOutlineItem> children = new ArrayList<>();
+        node.children().forEach(children::add);
+
+        List<PDOutlineItem> survivors = new ArrayList<>();
+        int visible = 0;
+        for (PDOutlineItem child : children) {
+            boolean open = child.getCOSObject().getInt(COSName.COUNT, 0) > 0;
+            int below = relink(child, doc, kept);
+            PDPage target = targetPage(child, doc);
+            if (target != null && !kept.contains(target.getCOSObject())) {
+                if (!child.hasChildren())
+                    continue;
+                // Keep it as a heading for its remaining children
+                child.setDestination((PDDestination) null);
+                child.setAction(null);
+            }
+            survivors.add(child);
+            visible += 1 + (open ? below : 0);
+        }
+
+        COSDictionary dict = node.getCOSObject();
+        for (int i = 0; i < survivors.size(); i++) {
+            COSDictionary item = survivors.get(i).getCOSObject();
+            item.setItem(COSName.PARENT, dict);
+            item.setItem(COSName.PREV, i > 0 ? survivors.get(i - 1).getCOSObject() : null);
+            item.setItem(COSName.NEXT, i < survivors.size() - 1 ? survivors.get(i + 1).getCOSObject() : null);
+        }
+        if (survivors.isEmpty()) {
+            dict.removeItem(COSName.FIRST);
+            dict.removeItem(COSName.LAST);
+            dict.removeItem(COSName.COUNT);
+        } else {
+            dict.setItem(COSName.FIRST, survivors.get(0).getCOSObject());
+            dict.setItem(COSName.LAST, survivors.get(survivors.size() - 1).getCOSObject());
+            // Negative for closed items: the count they would show when opened
+            boolean closed = node instanceof PDOutlineItem && dict.getInt(COSName.COUNT, 0) < 0;
+            dict.setInt(COSName.COUNT, closed ? -visible : visible);
+        }
+        return visible;
+    }
+
+    private static PDPage targetPage(PDOutlineItem item, PDDocument doc) {
+        try {
+            return item.findDestinationPage(doc);
+        } catch (IOException e) {
+            // An unresolvable target doesn't point at a dropped page either
+            return null;
+        }
+    }
+
+    private static void pruneNamedDestinations(PDDocumentCatalog catalog, Set<COSDictionary> kept) {
+        PDDocumentNameDictionary names = catalog.getNames();
+        if (names != null && names.getDests() != null) {
+            Map<String, PDPageDestination> survivors = new LinkedHashMap<>();
+            try {
+                collectDestinations(names.getDests(), survivors);
+            } catch (IOException e) {
+                // Unreadable name tree: drop it rather than copy pages we meant to leave out
+                survivors.clear();
+            }
+            survivors.values().removeIf(dest -> dest.getPage() != null
+                    && !kept.contains(dest.getPage().getCOSObject()));
+            PDDestinationNameTreeNode tree = new PDDestinationNameTreeNode();
+            tree.setNames(survivors);
+            names.setDests(tree);
+        }
+        // PDF 1.1 style: a plain dictionary of name -> destination array or {D: array}
+        COSDictionary dests = catalog.getCOSObject().getCOSDictionary(COSName.DESTS);
+        if (dests != null) {
+            for (COSName key : new ArrayList<>(dests.keySet())) {
+                COSBase value = dests.getDictionaryObject(key);
+                if (value instanceof COSDictionary d)
+                    value = d.getDictionaryObject(COSName.D);
+                if (value instanceof COSArray array && array.size() > 0
+                        && array.getObject(0) instanceof COSDictionary page && !kept.contains(page))
+                    dests.removeItem(key);
+            }
+        }
+    }
+
+    private static void collectDestinations(PDNameTreeNode<PDPageDestination> node, Map<String, PDPageDestination> into)
+            throws IOException {
+        Map<String, PDPageDestination> leaves = node.getNames();
+        if (leaves != null)
+            into.putAll(leaves);
+        List<PDNameTreeNode<PDPageDestination>> kids = node.getKids();
+        if (kids != null) {
+            for (PDNameTreeNode<PDPageDestination> kid : kids)
+                collectDestinations(kid, into);
+        }
+    }
+}
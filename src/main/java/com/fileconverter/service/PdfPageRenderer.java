@@ -0,0 +1,121 @@
+package com.fileconverter.service;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Renders PDF pages to images on a shared, bounded thread pool.
+ * <p>
+ * PDFBox documents are not thread-safe, so each render job loads a small set of its own
+ * {@link PDDocument} instances (one per concurrently running page) that page tasks borrow
+ * through {@link PdfWorkers}. Finished pages go into the zip strictly in page order, with a
+ * fixed window of pages in flight, so memory stays bounded regardless of page count.
+ */
+@Service
+public class PdfPageRenderer {
+
+    private final ExecutorService pool;
+    private final int threads;
+
+    public PdfPageRenderer(@Value("${app.pdf.render-threads:0}") int threads) {
+        // 0 means "one thread per core"
+        this.threads = PdfWorkers.threads(threads);
+        this.pool = PdfWorkers.newPool(threads, "pdf-render");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Renders the selected pages and writes them to {@code zos} as {@code <prefix>_page_N.<ext>}.
+     *
+     * @param pageRanges  page selection as understood by {@link PageRanges}; blank for all pages
+     * @param format      png, jpg/jpeg or webp
+     * @param quality     0..1, used by lossy formats
+     * @param parallelism maximum pages rendered at once for this document
+     * @return the number of pages written
+     */
+    public int renderToZip(Path pdf, String pageRanges, float dpi, String format, float quality,
+                           int parallelism, String prefix, ZipOutputStream zos) throws IOException {
+        String fmt = normalizeFormat(format);
+        try (PdfWorkers workers = new PdfWorkers(pool, "rendering pages")) {
+            PDDocument first = workers.add(PdfWorkers.load(pdf));
+            List<Integer> pages = PageRanges.pages(pageRanges, first.getNumberOfPages());
+
+            int width = Math.max(1, Math.min(Math.min(parallelism, threads), pages.size()));
+            for (int i = 1; i < width; i++)
+                workers.add(PdfWorkers.load(pdf));
+
+            workers.runInOrder(pages, (doc, pageIndex) -> renderPage(doc, pageIndex, dpi, fmt, quality),
+                    (i, image) -> {
+                        zos.putNextEntry(new ZipEntry(prefix + "_page_" + (pages.get(i) + 1) + "." + fmt));
+                        zos.write(image);
+                        zos.closeEntry();
+                        ConversionProgress.report(i + 1, pages.size(), "pages");
+                    });
+            return pages.size();
+        }
+    }
+
+    private static byte[] renderPage(PDDocument doc, int pageIndex, float dpi, String format, float quality)
+            throws IOException {
+        BufferedImage img = new PDFRenderer(doc).renderImageWithDPI(pageIndex, dpi, ImageType.RGB);
+        return encode(img, format, quality);
+    }
+
+    static byte[] encode(BufferedImage img, String format, float quality) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext())
+            throw new IOException("No image encoder available for " + format.toUpperCase());
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(baos)) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (!"png".equals(format) && param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionType() == null && param.getCompressionTypes() != null)
+                    param.setCompressionType(param.getCompressionTypes()[0]);
+                param.setCompressionQuality(Math.max(0f, Math.min(1f, quality)));
+            }
+            writer.write(null, new IIOImage(img, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return baos.toByteArray();
+    }
+
+    private static String normalizeFormat(String format) {
+        String f = format == null ? "png" : format.toLowerCase();
+        return switch (f) {
+            case "jpg", "jpeg" -> "jpg";
+            case "webp" -> "webp";
+            default -> "png";
+        };
+    }
+}
@@ -0,0 +1,146 @@
+package com.fileconverter.service;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Extracts PDF text with PDFBox on a shared, bounded thread pool.
+ * <p>
+ * The selected pages are cut into contiguous chunks that are extracted concurrently, each
+ * worker borrowing one of the job's own {@link PDDocument} instances through
+ * {@link PdfWorkers}. Chunks are written to
+ * the output file strictly in page order, with a fixed window in flight, so memory stays
+ * bounded regardless of page count.
+ */
+@Service
+public class PdfTextExtractor {
+
+    // Small enough to keep workers evenly loaded, large enough to amortize task overhead
+    private static final int MAX_PAGES_PER_CHUNK = 16;
+
+    private final ExecutorService pool;
+    private final int threads;
+
+    public PdfTextExtractor(@Value("${app.pdf.text-threads:0}") int threads) {
+        // 0 means "one thread per core"
+        this.threads = PdfWorkers.threads(threads);
+        this.pool = PdfWorkers.newPool(threads, "pdf-text");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Writes the text of the selected pages to {@code out} as UTF-8.
+     *
+     * @param pageRanges     page selection as understood by {@link PageRanges}; blank for all pages
+     * @param layout         sort text by position and keep paragraph breaks, instead of content-stream order
+     * @param pageSeparators write a {@code --- Page N ---} line before each page
+     * @param parallelism    maximum chunks extracted at once for this document
+     * @return the number of pages written
+     */
+    public int extractToFile(Path pdf, String pageRanges, boolean layout, boolean pageSeparators,
+                             int parallelism, Path out) throws IOException {
+        try (PdfWorkers workers = new PdfWorkers(pool, "extracting text")) {
+            PDDocument first = workers.add(PdfWorkers.load(pdf));
+            List<Integer> pages = PageRanges.pages(pageRanges, first.getNumberOfPages());
+
+            int width = Math.max(1, Math.min(parallelism, threads));
+            int chunkSize = Math.max(1, Math.min(MAX_PAGES_PER_CHUNK, pages.size() / (width * 4)));
+            List<List<Integer>> chunks = new ArrayList<>();
+            for (int i = 0; i < pages.size(); i += chunkSize) {
+                chunks.add(pages.subList(i, Math.min(i + chunkSize, pages.size())));
+            }
+            width = Math.min(width, Math.max(1, chunks.size()));
+            for (int i = 1; i < width; i++)
+                workers.add(PdfWorkers.load(pdf));
+
+            int[] pagesWritten = {0};
+            try (Writer writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+                workers.runInOrder(chunks, (doc, chunk) -> extractChunk(doc, chunk, layout, pageSeparators),
+                        (i, text) -> {
+                            writer.write(text);
+                            pagesWritten[0] += chunks.get(i).size();
+                            ConversionProgress.report(pagesWritten[0], pages.size(), "pages");
+                        });
+            }
+            return pages.size();
+        }
+    }
+
+    /**
+     * Extracts one chunk with a single {@code getText} per run of consecutive pages: every
+     * call walks the page tree from the start, so page-by-page calls would cost O(pages) each.
+     */
+    static String extractChunk(PDDocument doc, List<Integer> pages, boolean layout, boolean pageSeparators)
+            throws IOException {
+        RunStripper stripper = new RunStripper(pageSeparators);
+        stripper.setSortByPosition(layout);
+        stripper.setAddMoreFormatting(layout);
+        stripper.setLineSeparator("\n");
+
+        StringBuilder sb = new StringBuilder();
+        int start = 0;
+        for (int i = 1; i <= pages.size(); i++) {
+            if (i < pages.size() && pages.get(i) == pages.get(i - 1) + 1)
+                continue;
+            int first = pages.get(start) + 1;
+            int last = pages.get(i - 1) + 1;
+            stripper.setStartPage(first);
+            stripper.setEndPage(last);
+            stripper.next = first;
+            sb.append(stripper.getText(doc));
+            sb.append(stripper.separatorsBefore(last + 1));
+            start = i;
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes a separator at the start of each page. The stripper skips pages without a content
+     * stream altogether, so their separators are caught up at the next page or the end of the run.
+     */
+    private static final class RunStripper extends PDFTextStripper {
+        private final boolean pageSeparators;
+        int next;
+
+        RunStripper(boolean pageSeparators) {
+            this.pageSeparators = pageSeparators;
+        }
+
+        @Override
+        protected void startPage(PDPage page) throws IOException {
+            output.write(separatorsBefore(getCurrentPageNo() + 1));
+            super.startPage(page);
+        }
+
+        /** Separators for the pages from {@link #next} up to, not including, {@code page}. */
+        String separatorsBefore(int page) {
+            StringBuilder sb = new StringBuilder();
+            for (; next < page; next++) {
+                if (pageSeparators)
+                    sb.append("--- Page ").append(next).append(" ---\n");
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.fileconverter.service;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One job's work on a shared PDF pool. PDFBox documents are not thread-safe, so the job
+ * hands its own {@link PDDocument} copies to {@link #add}, and each task borrows one of them
+ * for as long as it runs. {@link #runInOrder} passes results to the caller in item order,
+ * with at most as many tasks in flight as there are copies: memory stays bounded whatever
+ * the number of items, and no pool thread, which other jobs share, ever waits for a copy.
+ * <p>
+ * {@link #close} cancels the tasks that have not started yet and, because
+ * {@code Future.cancel} does not stop a task that is already running, waits for every
+ * running task to give its copy back before the copies are closed.
+ */
+final class PdfWorkers implements Closeable {
+
+    @FunctionalInterface
+    interface Task<I, T> {
+        T run(PDDocument doc, I item) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface Sink<T> {
+        void accept(int index, T result) throws IOException;
+    }
+
+    private final ExecutorService pool;
+    private final String activity;
+    private final BlockingQueue<PDDocument> idle = new LinkedBlockingQueue<>();
+    private final List<PDDocument> copies = new ArrayList<>();
+    private final ArrayDeque<Future<?>> inFlight = new ArrayDeque<>();
+    private final Object lock = new Object();
+    private int running;
+    private boolean closed;
+
+    /** @param activity what the tasks do, for error messages, e.g. "rendering pages" */
+    PdfWorkers(ExecutorService pool, String activity) {
+        this.pool = pool;
+        this.activity = activity;
+    }
+
+    /** A fixed pool of daemon threads named {@code <name>-N}; 0 threads means one per core. */
+    static ExecutorService newPool(int threads, String name) {
+        AtomicInteger n = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads(threads), r -> {
+            Thread t = new Thread(r, name + "-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    static int threads(int configured) {
+        return configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+    }
+
+    /** Read-only copies of the input keep their stream data in a temp file rather than on the heap. */
+    static PDDocument load(Path pdf) throws IOException {
+        return Loader.loadPDF(pdf.toFile(), IOUtils.createTempFileOnlyStreamCache());
+    }
+
+    /** Hands {@code copy} to the workers; it is closed with them. */
+    PDDocument add(PDDocument copy) {
+        copies.add(copy);
+        idle.add(copy);
+        return copy;
+    }
+
+    int copies() {
+        return copies.size();
+    }
+
+    /** Runs {@code task} on every item and passes each result to {@code sink}, in item order. */
+    <I, T> void runInOrder(List<I> items, Task<I, T> task, Sink<T> sink) throws IOException {
+        if (copies.isEmpty())
+            throw new IllegalStateException("No documents to work on");
+        int window = copies.size();
+        int submitted = 0;
+        for (int i = 0; i < items.size(); i++) {
+            while (submitted < items.size() && submitted < i + window) {
+                I item = items.get(submitted++);
+                inFlight.add(pool.submit(() -> borrow(task, item)));
+            }
+            @SuppressWarnings("unchecked")
+            Future<T> next = (Future<T>) inFlight.poll();
+            sink.accept(i, await(next));
+        }
+    }
+
+    private <I, T> T borrow(Task<I, T> task, I item) throws Exception {
+        synchronized (lock) {
+            if (closed)
+                throw new CancellationException();
+            running++;
+        }
+        try {
+            PDDocument doc = idle.take();
+            try {
+                return task.run(doc, item);
+            } finally {
+                idle.add(doc);
+            }
+        } finally {
+            synchronized (lock) {
+                running--;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while " + activity, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io)
+                throw io;
+            throw new IOException("Failed while " + activity + ": " + cause.getMessage(), cause);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            closed = true;
+        }
+        for (Future<?> f : inFlight)
+            f.cancel(false);
+        inFlight.clear();
+        // Closing a copy under a running task is what this class is for; an interrupt can't cut it short
+        boolean interrupted = false;
+        synchronized (lock) {
+            while (running > 0) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+
+        IOException failure = null;
+        for (PDDocument doc : copies) {
+            try {
+                doc.close();
+            } catch (IOException e) {
+                if (failure == null)
+                    failure = e;
+                else
+                    failure.addSuppressed(e);
+            }
+        }
+        if (failure != null)
+            throw failure;
+    }
+}
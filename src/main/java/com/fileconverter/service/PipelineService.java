@@ -0,0 +1,252 @@
+package com.fileconverter.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fileconverter.model.ConversionOptions;
+import com.fileconverter.model.ConversionResult;
+import com.fileconverter.model.Engine;
+import com.fileconverter.model.PipelineResult;
+import com.fileconverter.model.PipelineStage;
+import com.fileconverter.model.StageResult;
+import com.fileconverter.model.ToolInfo;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a small DAG of tools over one upload. Each stage starts as soon as the stages it
+ * reads from are done, so independent branches run side by side, each through its
+ * engine's bulkhead. Intermediate outputs are handed to the next stage straight from the
+ * output store and deleted once every stage reading them has finished; only the outputs
+ * of final stages (and stages marked {@code keep}) are returned for download.
+ * <p>
+ * A stage whose input stage failed is skipped, and so are the stages after it.
+ */
+@Service
+public class PipelineService {
+    private static final Logger log = LoggerFactory.getLogger(PipelineService.class);
+
+    private final ConversionService conversionService;
+    private final BulkheadService bulkhead;
+    private final ConversionMetrics metrics;
+    private final ToolRegistryService toolRegistry;
+    private final OutputStore outputStore;
+    private final ObjectMapper objectMapper;
+    private final int maxStages;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public PipelineService(ConversionService conversionService, BulkheadService bulkhead, ConversionMetrics metrics,
+                           ToolRegistryService toolRegistry, OutputStore outputStore, ObjectMapper objectMapper,
+                           @Value("${app.pipelines.max-stages:20}") int maxStages) {
+        this.conversionService = conversionService;
+        this.bulkhead = bulkhead;
+        this.metrics = metrics;
+        this.toolRegistry = toolRegistry;
+        this.outputStore = outputStore;
+        this.objectMapper = objectMapper;
+        this.maxStages = maxStages;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Reads stages from a JSON array, or from an object with a {@code stages} array. */
+    public List<PipelineStage> parse(String json) {
+        try {
+            JsonNode root = objectMapper.readTree(json);
+            JsonNode stages = root != null && root.isObject() ? root.get("stages") : root;
+            if (stages == null || !stages.isArray())
+                throw new IllegalArgumentException("Expected a JSON array of stages");
+            return List.of(objectMapper.treeToValue(stages, PipelineStage[].class));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid pipeline: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Checks ids, tools and references, and returns the stages in an order where every
+     * stage comes after its inputs.
+     */
+    public List<PipelineStage> validate(List<PipelineStage> stages) {
+        if (stages == null || stages.isEmpty())
+            throw new IllegalArgumentException("A pipeline needs at least one stage");
+        if (stages.size() > maxStages)
+            throw new IllegalArgumentException("A pipeline has at most " + maxStages + " stages");
+
+        Map<String, PipelineStage> byId = new LinkedHashMap<>();
+        for (PipelineStage stage : stages) {
+            if (stage.getId() == null || stage.getId().isBlank())
+                throw new IllegalArgumentException("Every stage needs an id");
+            if (byId.put(stage.getId(), stage) != null)
+                throw new IllegalArgumentException("Duplicate stage id: " + stage.getId());
+            if (toolRegistry.getToolById(stage.getTool()) == null)
+                throw new IllegalArgumentException("Stage " + stage.getId() + ": unknown tool " + stage.getTool());
+            if (stage.getAfter() == null)
+                stage.setAfter(new ArrayList<>());
+            if (stage.getOptions() == null)
+                stage.setOptions(new ConversionOptions());
+            if (stage.getAfter().size() > 1 && !conversionService.isMultiInput(stage.getTool()))
+                throw new IllegalArgumentException("Stage " + stage.getId() + ": " + stage.getTool()
+                        + " takes a single input");
+        }
+        for (PipelineStage stage : stages) {
+            for (String parent : stage.getAfter()) {
+                if (!byId.containsKey(parent))
+                    throw new IllegalArgumentException("Stage " + stage.getId() + " reads unknown stage " + parent);
+            }
+        }
+
+        List<PipelineStage> order = new ArrayList<>(stages.size());
+        Set<String> done = new HashSet<>();
+        Set<String> visiting = new HashSet<>();
+        for (PipelineStage stage : stages)
+            visit(stage, byId, done, visiting, order);
+        return order;
+    }
+
+    private static void visit(PipelineStage stage, Map<String, PipelineStage> byId, Set<String> done,
+                              Set<String> visiting, List<PipelineStage> order) {
+        if (done.contains(stage.getId()))
+            return;
+        if (!visiting.add(stage.getId()))
+            throw new IllegalArgumentException("Pipeline has a cycle through stage " + stage.getId());
+        for (String parent : stage.getAfter())
+            visit(byId.get(parent), byId, done, visiting, order);
+        visiting.remove(stage.getId());
+        done.add(stage.getId());
+        order.add(stage);
+    }
+
+    public PipelineResult run(List<PipelineStage> stages, MultipartFile input) {
+        List<PipelineStage> order = validate(stages);
+        long start = System.nanoTime();
+
+        // How many stages still have to read each stage's output
+        Map<String, AtomicInteger> readers = new HashMap<>();
+        for (PipelineStage stage : order)
+            readers.put(stage.getId(), new AtomicInteger());
+        for (PipelineStage stage : order) {
+            for (String parent : stage.getAfter())
+                readers.get(parent).incrementAndGet();
+        }
+
+        Map<String, StageResult> results = new LinkedHashMap<>();
+        for (PipelineStage stage : stages)
+            results.put(stage.getId(), StageResult.builder().id(stage.getId()).tool(stage.getTool()).build());
+
+        Map<String, CompletableFuture<Path>> outputs = new HashMap<>();
+        for (PipelineStage stage : order) {
+            List<CompletableFuture<Path>> parents = stage.getAfter().stream().map(outputs::get).toList();
+            StageResult result = results.get(stage.getId());
+            outputs.put(stage.getId(), CompletableFuture.allOf(parents.toArray(CompletableFuture[]::new))
+                    .thenApplyAsync(v -> {
+                        try {
+                            return runStage(stage, parents, input, result, readers, start);
+                        } finally {
+                            for (int i = 0; i < parents.size(); i++)
+                                release(stage.getAfter().get(i), parents.get(i).join(), readers, results);
+                        }
+                    }, executor));
+        }
+        CompletableFuture.allOf(outputs.values().toArray(CompletableFuture[]::new)).join();
+
+        List<StageResult> stageResults = new ArrayList<>(results.values());
+        long failed = stageResults.stream().filter(r -> r.getStatus() != StageResult.Status.DONE).count();
+        return PipelineResult.builder()
+                .success(failed == 0)
+                .message(failed == 0 ? "Pipeline completed" : failed + " of " + stageResults.size() + " stages did not complete")
+                .totalTimeMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                .stages(stageResults)
+                .build();
+    }
+
+    /** Runs one stage; returns its output, or null when it failed or was skipped. */
+    private Path runStage(PipelineStage stage, List<CompletableFuture<Path>> parents, MultipartFile upload,
+                          StageResult result, Map<String, AtomicInteger> readers, long pipelineStart) {
+        long submitted = System.nanoTime();
+        result.setStartMs(TimeUnit.NANOSECONDS.toMillis(submitted - pipelineStart));
+
+        List<MultipartFile> inputs = new ArrayList<>();
+        if (parents.isEmpty())
+            inputs.add(upload);
+        for (CompletableFuture<Path> parent : parents) {
+            Path path = parent.join();
+            if (path == null) {
+                result.setStatus(StageResult.Status.SKIPPED);
+                result.setMessage("An input stage did not complete");
+                return null;
+            }
+            inputs.add(new FileBackedMultipartFile(path, path.getFileName().toString(), null));
+        }
+
+        String toolId = stage.getTool();
+        ConversionOptions options = stage.getOptions();
+        ToolInfo tool = toolRegistry.getToolById(toolId);
+        String category = tool != null ? tool.getCategory() : "Other";
+        Engine engine = Engine.forTool(toolId, options);
+        MultipartFile file = inputs.size() == 1 ? inputs.get(0) : null;
+        List<MultipartFile> files = inputs.size() > 1 ? inputs : null;
+        long inputBytes = inputs.stream().mapToLong(MultipartFile::getSize).sum();
+        long[] started = {0};
+        try {
+            ConversionResult converted = metrics.record(toolId, category, engine, inputBytes,
+                    () -> conversionService.convert(toolId, file, files, options, work -> bulkhead.call(engine, () -> {
+                        started[0] = System.nanoTime();
+                        return work.call();
+                    })));
+            result.setMessage(converted.getMessage());
+            if (!converted.isSuccess() || converted.getOutputPath() == null) {
+                result.setStatus(StageResult.Status.FAILED);
+                return null;
+            }
+            result.setStatus(StageResult.Status.DONE);
+            // Intermediates are removed once read, so only final and kept outputs are offered for download
+            if (readers.get(stage.getId()).get() == 0 || stage.isKeep())
+                result.setResult(converted);
+            // Pinned until the last later stage has read it, so the janitor can't take it first
+            if (readers.get(stage.getId()).get() > 0)
+                outputStore.pin(converted.getOutputPath());
+            return converted.getOutputPath();
+        } catch (Exception e) {
+            log.warn("Pipeline stage {} ({}) failed: {}", stage.getId(), toolId, e.getMessage());
+            result.setStatus(StageResult.Status.FAILED);
+            result.setMessage("Conversion failed: " + e.getMessage());
+            return null;
+        } finally {
+            long end = System.nanoTime();
+            long runStart = started[0] != 0 ? started[0] : end;
+            result.setQueueWaitMs(TimeUnit.NANOSECONDS.toMillis(runStart - submitted));
+            result.setRunMs(TimeUnit.NANOSECONDS.toMillis(end - runStart));
+        }
+    }
+
+    /** Unpins a stage's output once its last reader is done with it, deleting it if it is an intermediate. */
+    private void release(String stageId, Path output, Map<String, AtomicInteger> readers,
+                         Map<String, StageResult> results) {
+        if (readers.get(stageId).decrementAndGet() != 0 || output == null)
+            return;
+        outputStore.unpin(output);
+        if (results.get(stageId).getResult() == null)
+            outputStore.discard(output);
+    }
+}
@@ -0,0 +1,267 @@
+package com.fileconverter.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-pixel conversions that work on the raster arrays directly instead of through Java2D's
+ * generic blit loops: grayscale, and flattening alpha onto white for JPEG output.
+ * <p>
+ * The four layouts decoders usually produce (packed int RGB/ARGB, interleaved BGR/ABGR bytes)
+ * go through the kernels; anything else (indexed, 16-bit, sub-images) is still drawn with
+ * Java2D. Images are cut into tiles of {@link #TILE_PIXELS} that run on a shared pool, the
+ * calling thread taking the first one. Each tile runs the Vector API kernels in
+ * {@link VectorPixelKernels} when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}, and the scalar ones below otherwise; both give
+ * the same bytes.
+ */
+@Service
+public class PixelKernels {
+    private static final Logger log = LoggerFactory.getLogger(PixelKernels.class);
+    static final int TILE_PIXELS = 1 << 18;
+    private static final boolean VECTOR_MODULE = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    /** Raster layouts the kernels read, named after the order of each pixel's bytes or bits. */
+    enum Layout {
+        INT_RGB, INT_ARGB, BYTE_BGR, BYTE_ABGR
+    }
+
+    @FunctionalInterface
+    private interface Tile {
+        void run(int from, int to);
+    }
+
+    private final ExecutorService pool;
+    private final int threads;
+    private final boolean vector;
+
+    public PixelKernels(@Value("${app.image.kernel-threads:0}") int threads,
+                        @Value("${app.image.vector-kernels:true}") boolean vectorKernels) {
+        // 0 means "one thread per core"
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.vector = vectorKernels && VECTOR_MODULE;
+        AtomicInteger n = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(this.threads, r -> {
+            Thread t = new Thread(r, "pixel-kernels-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        if (vector)
+            log.info("Pixel kernels: Vector API, {}", VectorPixelKernels.describe());
+        else
+            log.info("Pixel kernels: scalar{}", vectorKernels ? " (start with --add-modules jdk.incubator.vector)" : "");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public boolean isVectorized() {
+        return vector;
+    }
+
+    /** Luma as Java2D computes it for TYPE_BYTE_GRAY; transparent pixels go to black, as when drawn. */
+    public BufferedImage grayscale(BufferedImage src) throws IOException {
+        Layout layout = layout(src);
+        if (layout == null) {
+            BufferedImage gray = new BufferedImage(src.getWidth(), src.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+            Graphics2D g = gray.createGraphics();
+            g.drawImage(src, 0, 0, null);
+            g.dispose();
+            return gray;
+        }
+        BufferedImage gray = new BufferedImage(src.getWidth(), src.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        Object data = data(src);
+        byte[] out = ((DataBufferByte) gray.getRaster().getDataBuffer()).getData();
+        forEachTile(out.length, (from, to) -> {
+            int next = vector ? VectorPixelKernels.gray(layout, data, out, from, to) : from;
+            gray(layout, data, out, next, to);
+        });
+        return gray;
+    }
+
+    /** An opaque TYPE_INT_RGB copy, with whatever is transparent composited onto white. */
+    public BufferedImage flattenOnWhite(BufferedImage src) throws IOException {
+        Layout layout = layout(src);
+        BufferedImage rgb = new BufferedImage(src.getWidth(), src.getHeight(), BufferedImage.TYPE_INT_RGB);
+        if (layout == null) {
+            Graphics2D g = rgb.createGraphics();
+            g.drawImage(src, 0, 0, Color.WHITE, null);
+            g.dispose();
+            return rgb;
+        }
+        Object data = data(src);
+        int[] out = ((DataBufferInt) rgb.getRaster().getDataBuffer()).getData();
+        forEachTile(out.length, (from, to) -> {
+            int next = vector ? VectorPixelKernels.flatten(layout, data, out, from, to) : from;
+            flatten(layout, data, out, next, to);
+        });
+        return rgb;
+    }
+
+    private void forEachTile(int pixels, Tile tile) throws IOException {
+        if (pixels <= TILE_PIXELS || threads == 1) {
+            tile.run(0, pixels);
+            return;
+        }
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int from = TILE_PIXELS; from < pixels; from += TILE_PIXELS) {
+                int start = from;
+                int end = Math.min(pixels, from + TILE_PIXELS);
+                futures.add(pool.submit(() -> tile.run(start, end)));
+            }
+            tile.run(0, TILE_PIXELS);
+            for (Future<?> f : futures)
+                await(f);
+        } finally {
+            for (Future<?> f : futures)
+                f.cancel(false);
+        }
+    }
+
+    /** The kernels' layout for {@code img}, or null when it has to go through Java2D. */
+    static Layout layout(BufferedImage img) {
+        Layout layout = switch (img.getType()) {
+            case BufferedImage.TYPE_INT_RGB -> Layout.INT_RGB;
+            case BufferedImage.TYPE_INT_ARGB -> Layout.INT_ARGB;
+            case BufferedImage.TYPE_3BYTE_BGR -> Layout.BYTE_BGR;
+            case BufferedImage.TYPE_4BYTE_ABGR -> Layout.BYTE_ABGR;
+            default -> null;
+        };
+        if (layout == null)
+            return null;
+        // Only a raster that owns its whole buffer has pixel i at element i * pixel size
+        WritableRaster raster = img.getRaster();
+        int elements = switch (layout) {
+            case INT_RGB, INT_ARGB -> 1;
+            case BYTE_BGR -> 3;
+            case BYTE_ABGR -> 4;
+        };
+        boolean compact = raster.getSampleModelTranslateX() == 0 && raster.getSampleModelTranslateY() == 0
+                && raster.getDataBuffer().getNumBanks() == 1 && raster.getDataBuffer().getOffset() == 0
+                && raster.getDataBuffer().getSize() == (long) img.getWidth() * img.getHeight() * elements;
+        return compact ? layout : null;
+    }
+
+    private static Object data(BufferedImage img) {
+        if (img.getRaster().getDataBuffer() instanceof DataBufferInt ints)
+            return ints.getData();
+        return ((DataBufferByte) img.getRaster().getDataBuffer()).getData();
+    }
+
+    // ---- Scalar kernels, one loop per layout so each reads its pixels directly ----
+
+    static void gray(Layout layout, Object src, byte[] dst, int from, int to) {
+        switch (layout) {
+            case INT_RGB -> {
+                int[] s = (int[]) src;
+                for (int i = from; i < to; i++)
+                    dst[i] = (byte) luma(s[i] >>> 16 & 0xff, s[i] >>> 8 & 0xff, s[i] & 0xff);
+            }
+            case INT_ARGB -> {
+                int[] s = (int[]) src;
+                for (int i = from; i < to; i++)
+                    dst[i] = (byte) gray(s[i]);
+            }
+            case BYTE_BGR -> {
+                byte[] s = (byte[]) src;
+                for (int i = from, j = from * 3; i < to; i++, j += 3)
+                    dst[i] = (byte) luma(s[j + 2] & 0xff, s[j + 1] & 0xff, s[j] & 0xff);
+            }
+            case BYTE_ABGR -> {
+                byte[] s = (byte[]) src;
+                for (int i = from, j = from * 4; i < to; i++, j += 4)
+                    dst[i] = (byte) div255(luma(s[j + 3] & 0xff, s[j + 2] & 0xff, s[j + 1] & 0xff) * (s[j] & 0xff));
+            }
+        }
+    }
+
+    static void flatten(Layout layout, Object src, int[] dst, int from, int to) {
+        switch (layout) {
+            case INT_RGB -> {
+                int[] s = (int[]) src;
+                for (int i = from; i < to; i++)
+                    dst[i] = s[i] & 0xffffff;
+            }
+            case INT_ARGB -> {
+                int[] s = (int[]) src;
+                for (int i = from; i < to; i++)
+                    dst[i] = flatten(s[i]);
+            }
+            case BYTE_BGR -> {
+                byte[] s = (byte[]) src;
+                for (int i = from, j = from * 3; i < to; i++, j += 3)
+                    dst[i] = (s[j + 2] & 0xff) << 16 | (s[j + 1] & 0xff) << 8 | s[j] & 0xff;
+            }
+            case BYTE_ABGR -> {
+                byte[] s = (byte[]) src;
+                for (int i = from, j = from * 4; i < to; i++, j += 4)
+                    dst[i] = flatten(s[j] << 24 | (s[j + 3] & 0xff) << 16 | (s[j + 2] & 0xff) << 8 | s[j + 1] & 0xff);
+            }
+        }
+    }
+
+    /** (77 R + 150 G + 29 B) / 256, Java2D's ByteGray weights. */
+    static int luma(int r, int g, int b) {
+        return (77 * r + 150 * g + 29 * b + 128) >>> 8;
+    }
+
+    /** Luma scaled by alpha. */
+    static int gray(int argb) {
+        return div255(luma(argb >>> 16 & 0xff, argb >>> 8 & 0xff, argb & 0xff) * (argb >>> 24));
+    }
+
+    /** c * a + 255 * (255 - a), over 255, per channel; red and blue share one int. */
+    static int flatten(int argb) {
+        int a = argb >>> 24;
+        int inv = 255 - a;
+        int rb = div255x2((argb & 0x00ff00ff) * a + 0x00ff00ff * inv);
+        int g = div255((argb >>> 8 & 0xff) * a + 255 * inv);
+        return rb | g << 8;
+    }
+
+    /** x / 255, rounded, for x in [0, 255 * 255]. */
+    static int div255(int x) {
+        x += 128;
+        return (x + (x >>> 8)) >>> 8;
+    }
+
+    /** {@link #div255} on the two 16-bit halves of {@code x} at once. */
+    static int div255x2(int x) {
+        x += 0x00800080;
+        return (x + (x >>> 8 & 0x00ff00ff)) >>> 8 & 0x00ff00ff;
+    }
+
+    private static void await(Future<?> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Image processing was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re)
+                throw re;
+            throw new IOException("Image processing failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.fileconverter.service;
+
+import com.fileconverter.model.CacheStats;
+import com.fileconverter.model.ConversionOptions;
+import com.fileconverter.model.ConversionResult;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Content-addressed cache of conversion outputs, keyed by the SHA-256 of the input, the
+ * tool and its options. Outputs are copied into a private directory, since the converter's
+ * output directory is its own, and evicted least recently used first once the total size
+ * exceeds the configured budget. A hit hard-links the cached file into a new output, falling
+ * back to a copy across file stores; nothing writes to an output once it is committed, and
+ * deleting either name leaves the other intact.
+ * <p>
+ * The index lives in memory only, so the cache directory is cleared on startup.
+ */
+@Service
+public class ResultCache {
+    private static final Logger log = LoggerFactory.getLogger(ResultCache.class);
+    private static final Path CACHE_DIR = Path.of(System.getProperty("java.io.tmpdir"), "file-converter-cache");
+
+    private record Entry(Path file, long size, String inputBaseName, ConversionResult result) {
+    }
+
+    private final boolean enabled;
+    private final long maxBytes;
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ResultCache(@Value("${app.cache.enabled:true}") boolean enabled,
+                       @Value("${app.cache.max-size-mb:1024}") long maxSizeMb) {
+        this.enabled = enabled && maxSizeMb > 0;
+        this.maxBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled)
+            return;
+        Files.createDirectories(CACHE_DIR);
+        try (var stream = Files.list(CACHE_DIR)) {
+            stream.forEach(ResultCache::deleteSilently);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Cache key for one input/tool/options combination. */
+    public static String key(String inputSha256, String toolId, ConversionOptions options) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String material = inputSha256 + "|" + toolId + "|" + String.join("|", parameters(toolId, options));
+            return HexFormat.of().formatHex(digest.digest(material.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The options {@code toolId} reads, as {@code name=value} in a fixed order. Options the tool
+     * ignores, and delivery flags such as deleteAfterDownload, don't change the output and so
+     * stay out of the key; a tool that starts reading a new option has to be added here.
+     */
+    static List<String> parameters(String toolId, ConversionOptions o) {
+        return switch (toolId) {
+            case "pdf-split" -> switch (String.valueOf(o.getSplitMode())) {
+                case "ranges" -> List.of("splitMode=ranges", "pageRanges=" + o.getPageRanges());
+                case "every" -> List.of("splitMode=every", "splitEvery=" + o.getSplitEvery());
+                case "size" -> List.of("splitMode=size", "maxPartSizeMb=" + o.getMaxPartSizeMb());
+                default -> List.of("splitMode=" + o.getSplitMode());
+            };
+            case "pdf-compress" -> List.of("compressionLevel=" + o.getCompressionLevel());
+            case "pdf-to-images", "pdf-to-ppt" -> List.of("pageRanges=" + o.getPageRanges(), "dpi=" + o.getDpi(),
+                    "imageFormat=" + o.getImageFormat(), "quality=" + o.getQuality());
+            case "images-to-pdf" -> List.of("pageSize=" + o.getPageSize(), "maxImageSide=" + o.getMaxImageSide());
+            case "pdf-to-txt" -> o.isUseLibreOffice()
+                    ? List.of("useLibreOffice=true")
+                    : List.of("pageRanges=" + o.getPageRanges(), "textMode=" + o.getTextMode(),
+                            "pageSeparators=" + o.isPageSeparators());
+            case "image-resize" -> List.of("width=" + o.getWidth(), "height=" + o.getHeight());
+            case "image-compress" -> List.of("quality=" + o.getQuality());
+            case "csv-to-excel" -> List.of("useLibreOffice=" + o.isUseLibreOffice());
+            case "excel-to-csv" -> o.isUseLibreOffice()
+                    ? List.of("useLibreOffice=true")
+                    : List.of("allSheets=" + o.isAllSheets());
+            case "csv-to-json" -> List.of("jsonFormat=" + o.getJsonFormat(), "typedValues=" + o.isTypedValues());
+            default -> List.of();
+        };
+    }
+
+    /** Hex SHA-256 of everything left in {@code in}. */
+    public static String sha256(InputStream in) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buf = new byte[64 * 1024];
+            int n;
+            while ((n = in.read(buf)) != -1)
+                digest.update(buf, 0, n);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Links the cached output for {@code key} into a new output in {@code outputs} and returns
+     * its result, renamed for {@code inputBaseName} when the output name was derived from the
+     * input name.
+     *
+     * @return null on a miss
+     */
+    public ConversionResult get(String key, String inputBaseName, OutputStore outputs) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+
+        String fileName = entry.result().getFileName();
+        if (fileName.startsWith(entry.inputBaseName()))
+            fileName = inputBaseName + fileName.substring(entry.inputBaseName().length());
+        Path target;
+        try {
+            target = outputs.allocate(fileName);
+        } catch (IOException e) {
+            log.warn("Failed to restore cached result {}: {}", key, e.getMessage());
+            misses.increment();
+            return null;
+        }
+        try {
+            try {
+                Files.createLink(target, entry.file());
+            } catch (IOException | UnsupportedOperationException e) {
+                // Different file store or no link support; fall back to copying (which fails too if it was evicted)
+                Files.copy(entry.file(), target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            outputs.commit(target);
+        } catch (IOException e) {
+            // NoSuchFileException: evicted between lookup and link
+            if (!(e instanceof NoSuchFileException))
+                log.warn("Failed to restore cached result {}: {}", key, e.getMessage());
+            outputs.discard(target);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        ConversionResult r = entry.result();
+        return ConversionResult.builder()
+                .success(true)
+                .message(r.getMessage())
+                .fileName(fileName)
+                .downloadUrl(outputs.downloadUrl(target))
+                .conversionType(r.getConversionType())
+                .fileSizeBytes(entry.size())
+                .outputPath(target)
+                .build();
+    }
+
+    /** Stores a copy of a successful conversion's output. Failures are logged and ignored. */
+    public void put(String key, String inputBaseName, ConversionResult result, Path output) {
+        if (!result.isSuccess())
+            return;
+        Path file = CACHE_DIR.resolve(key + "-" + UUID.randomUUID());
+        long size;
+        try {
+            size = Files.size(output);
+            if (size > maxBytes)
+                return;
+            Files.copy(output, file);
+        } catch (IOException e) {
+            log.warn("Failed to cache result of {}: {}", result.getConversionType(), e.getMessage());
+            deleteSilently(file);
+            return;
+        }
+
+        synchronized (this) {
+            Entry previous = entries.put(key, new Entry(file, size, inputBaseName, result));
+            totalBytes += size;
+            if (previous != null) {
+                // Two misses for the same key raced; keep the newer copy
+                totalBytes -= previous.size();
+                deleteSilently(previous.file());
+            }
+            Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && it.hasNext()) {
+                Entry evicted = it.next().getValue();
+                it.remove();
+                totalBytes -= evicted.size();
+                deleteSilently(evicted.file());
+                evictions.increment();
+            }
+        }
+    }
+
+    public synchronized CacheStats getStats() {
+        return CacheStats.builder()
+                .enabled(enabled)
+                .entries(entries.size())
+                .sizeBytes(totalBytes)
+                .maxSizeBytes(maxBytes)
+                .hits(hits.sum())
+                .misses(misses.sum())
+                .evictions(evictions.sum())
+                .build();
+    }
+
+    private static void deleteSilently(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+}
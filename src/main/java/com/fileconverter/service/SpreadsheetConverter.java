@@ -0,0 +1,484 @@
+package com.fileconverter.service;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVWriter;
+import com.opencsv.exceptions.CsvValidationException;
+import jakarta.annotation.PreDestroy;
+import org.apache.poi.EncryptedDocumentException;
+import org.apache.poi.hssf.eventusermodel.FormatTrackingHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.eventusermodel.MissingRecordAwareHSSFListener;
+import org.apache.poi.hssf.eventusermodel.dummyrecord.LastCellOfRowDummyRecord;
+import org.apache.poi.hssf.eventusermodel.dummyrecord.MissingCellDummyRecord;
+import org.apache.poi.hssf.eventusermodel.dummyrecord.MissingRowDummyRecord;
+import org.apache.poi.hssf.record.*;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePartName;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process spreadsheet conversions built on POI's streaming APIs, used instead of a
+ * LibreOffice round trip for the spreadsheet tools. Sheets of a multi-sheet .xlsx export
+ * are parsed on a shared, bounded pool.
+ */
+@Service
+public class SpreadsheetConverter {
+
+    private static final int MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+    // No leading zeros (ids, zip codes); the digit count is checked in isNumber
+    private static final Pattern NUMBER = Pattern.compile("-?(0|[1-9]\\d*)(?:\\.(\\d+))?([eE][+-]?\\d{1,3})?");
+    // All a double keeps
+    private static final int MAX_SIGNIFICANT_DIGITS = 15;
+    private static final Pattern DATE = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
+    private static final Pattern DATE_TIME = Pattern.compile("\\d{4}-\\d{2}-\\d{2}[T ]\\d{2}:\\d{2}(:\\d{2}(\\.\\d+)?)?");
+
+    private final ExecutorService pool;
+    private final int threads;
+    private final int windowRows;
+
+    public SpreadsheetConverter(@Value("${app.spreadsheet.row-window:500}") int windowRows,
+                                @Value("${app.spreadsheet.sheet-threads:0}") int threads) {
+        this.windowRows = windowRows;
+        // 0 means "one thread per core"
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger n = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(this.threads, r -> {
+            Thread t = new Thread(r, "sheet-export-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Streams a CSV into an .xlsx with {@link SXSSFWorkbook}: only {@code app.spreadsheet.row-window} rows are
+     * kept in memory, the rest are flushed to compressed temp files. Numeric and ISO date/time
+     * cells are typed. Past Excel's 1,048,576-row limit the data continues on a new sheet,
+     * with the header row repeated.
+     *
+     * @return the number of data rows written
+     */
+    public long csvToXlsx(InputStreamSource csv, Path xlsx) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(windowRows);
+        workbook.setCompressTempFiles(true);
+        try (CSVReader reader = new CSVReader(new BufferedReader(
+                     new InputStreamReader(csv.getInputStream(), StandardCharsets.UTF_8), 64 * 1024));
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(xlsx))) {
+
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+            CellStyle dateTimeStyle = workbook.createCellStyle();
+            dateTimeStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+
+            String[] header = reader.readNext();
+            if (header == null)
+                throw new IOException("Empty CSV file");
+
+            Sheet sheet = newSheet(workbook, header);
+            int rowIndex = 1;
+            long rows = 0;
+            String[] line;
+            while ((line = reader.readNext()) != null) {
+                if (rowIndex == MAX_ROWS) {
+                    sheet = newSheet(workbook, header);
+                    rowIndex = 1;
+                }
+                Row row = sheet.createRow(rowIndex++);
+                for (int c = 0; c < line.length; c++) {
+                    if (line[c] != null && !line[c].isEmpty())
+                        writeTyped(row.createCell(c), line[c], dateStyle, dateTimeStyle);
+                }
+                rows++;
+            }
+
+            workbook.write(out);
+            return rows;
+        } catch (CsvValidationException e) {
+            throw new IOException("Failed to parse CSV: " + e.getMessage(), e);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private static Sheet newSheet(SXSSFWorkbook workbook, String[] header) {
+        Sheet sheet = workbook.createSheet("Sheet" + (workbook.getNumberOfSheets() + 1));
+        Row row = sheet.createRow(0);
+        for (int c = 0; c < header.length; c++) {
+            row.createCell(c).setCellValue(header[c]);
+        }
+        return sheet;
+    }
+
+    /** Whether {@code val} is a number a double holds exactly as written, counting integer and fraction digits together. */
+    static boolean isNumber(String val) {
+        Matcher m = NUMBER.matcher(val);
+        if (!m.matches())
+            return false;
+        String digits = m.group(1) + (m.group(2) != null ? m.group(2) : "");
+        // Zeros in front of the first non-zero digit, as in 0.000123, are not significant
+        int first = 0;
+        while (first < digits.length() - 1 && digits.charAt(first) == '0')
+            first++;
+        return digits.length() - first <= MAX_SIGNIFICANT_DIGITS;
+    }
+
+    private static void writeTyped(Cell cell, String val, CellStyle dateStyle, CellStyle dateTimeStyle) {
+        try {
+            if (isNumber(val)) {
+                cell.setCellValue(Double.parseDouble(val));
+                return;
+            }
+            if (DATE.matcher(val).matches()) {
+                cell.setCellValue(LocalDate.parse(val));
+                cell.setCellStyle(dateStyle);
+                return;
+            }
+            if (DATE_TIME.matcher(val).matches()) {
+                cell.setCellValue(LocalDateTime.parse(val.replace(' ', 'T')));
+                cell.setCellStyle(dateTimeStyle);
+                return;
+            }
+        } catch (NumberFormatException | DateTimeParseException ignored) {
+            // e.g. 2024-13-45 – keep it as text
+        }
+        cell.setCellValue(val);
+    }
+
+    /** A sheet exported to its own CSV file. */
+    public record SheetCsv(String name, Path path) {
+    }
+
+    /**
+     * Exports an .xlsx or .xls workbook to CSV without building a workbook DOM.
+     * <p>
+     * .xlsx sheets are streamed through POI's SAX sheet handler; when exporting every sheet,
+     * each one is parsed on its own thread with its own package handle, sharing the
+     * read-only shared-strings and styles tables. .xls files are a single record stream, so
+     * their sheets are written one after another in one pass of the HSSF event API.
+     *
+     * @param allSheets export every sheet instead of just the first
+     * @return one CSV per exported sheet, in workbook order, written into {@code outDir}
+     */
+    public List<SheetCsv> excelToCsv(Path workbook, Path outDir, boolean allSheets) throws IOException {
+        FileMagic magic;
+        try (InputStream in = FileMagic.prepareToCheckMagic(Files.newInputStream(workbook))) {
+            magic = FileMagic.valueOf(in);
+        }
+        try {
+            return switch (magic) {
+                case OOXML -> xlsxToCsv(workbook, outDir, allSheets);
+                case OLE2 -> xlsToCsv(workbook, outDir, allSheets);
+                default -> throw new IOException("Not an Excel workbook");
+            };
+        } catch (OpenXML4JException | SAXException | EncryptedDocumentException e) {
+            throw new IOException("Failed to read workbook: " + e.getMessage(), e);
+        }
+    }
+
+    private List<SheetCsv> xlsxToCsv(Path workbook, Path outDir, boolean allSheets)
+            throws IOException, OpenXML4JException, SAXException {
+        List<String> names = new ArrayList<>();
+        List<PackagePartName> parts = new ArrayList<>();
+        ReadOnlySharedStringsTable strings;
+        StylesTable styles;
+        try (OPCPackage pkg = OPCPackage.open(workbook.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            strings = new ReadOnlySharedStringsTable(pkg);
+            styles = reader.getStylesTable();
+            XSSFReader.SheetIterator it = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (it.hasNext()) {
+                it.next().close();
+                names.add(it.getSheetName());
+                parts.add(it.getSheetPart().getPartName());
+                if (!allSheets)
+                    break;
+            }
+        }
+        if (parts.isEmpty())
+            throw new IOException("Workbook has no sheets");
+
+        List<SheetCsv> result = new ArrayList<>();
+        for (int i = 0; i < parts.size(); i++) {
+            result.add(new SheetCsv(names.get(i), outDir.resolve("sheet_" + (i + 1) + ".csv")));
+        }
+
+        if (threads == 1 || parts.size() == 1) {
+            for (int i = 0; i < parts.size(); i++) {
+                exportXlsxSheet(workbook, parts.get(i), strings, styles, result.get(i).path());
+            }
+            return result;
+        }
+
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < parts.size(); i++) {
+                PackagePartName part = parts.get(i);
+                Path target = result.get(i).path();
+                futures.add(pool.submit(() -> {
+                    exportXlsxSheet(workbook, part, strings, styles, target);
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Sheet export was interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io)
+                throw io;
+            throw new IOException("Failed to export sheet: " + cause.getMessage(), cause);
+        } finally {
+            for (Future<?> f : futures)
+                f.cancel(false);
+        }
+        return result;
+    }
+
+    private static void exportXlsxSheet(Path workbook, PackagePartName part, ReadOnlySharedStringsTable strings,
+                                        StylesTable styles, Path target)
+            throws IOException, SAXException, OpenXML4JException {
+        try (OPCPackage pkg = OPCPackage.open(workbook.toFile(), PackageAccess.READ);
+             InputStream sheet = pkg.getPart(part).getInputStream();
+             CSVWriter writer = new CSVWriter(Files.newBufferedWriter(target, StandardCharsets.UTF_8))) {
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings,
+                    new CsvSheetHandler(writer), new DataFormatter(), false));
+            parser.parse(new InputSource(sheet));
+            writer.flush();
+            if (writer.checkError())
+                throw new IOException("Failed to write CSV output");
+        } catch (ParserConfigurationException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /** Writes SAX sheet rows to CSV, filling in rows and cells that the file leaves out. */
+    private static final class CsvSheetHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final CSVWriter writer;
+        private final List<String> cells = new ArrayList<>();
+        private int lastRow = -1;
+
+        CsvSheetHandler(CSVWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            for (int r = lastRow + 1; r < rowNum; r++) {
+                writer.writeNext(new String[0], false);
+            }
+            lastRow = rowNum;
+            cells.clear();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            writer.writeNext(cells.toArray(new String[0]));
+        }
+
+        @Override
+        public void cell(String ref, String value, XSSFComment comment) {
+            int col = ref != null ? new CellReference(ref).getCol() : cells.size();
+            while (cells.size() < col) {
+                cells.add("");
+            }
+            cells.add(value);
+        }
+    }
+
+    private static List<SheetCsv> xlsToCsv(Path workbook, Path outDir, boolean allSheets) throws IOException {
+        try (POIFSFileSystem fs = new POIFSFileSystem(workbook.toFile(), true);
+             XlsCsvListener listener = new XlsCsvListener(outDir, allSheets)) {
+            HSSFRequest request = new HSSFRequest();
+            request.addListenerForAllRecords(listener.formatListener);
+            new HSSFEventFactory().processWorkbookEvents(request, fs);
+            if (listener.sheets.isEmpty())
+                throw new IOException("Workbook has no sheets");
+            return listener.sheets;
+        }
+    }
+
+    /** HSSF record listener that writes each worksheet to its own CSV as its records go by. */
+    private static final class XlsCsvListener implements HSSFListener, AutoCloseable {
+        private final Path outDir;
+        private final boolean allSheets;
+        private final FormatTrackingHSSFListener formatListener;
+        private final List<BoundSheetRecord> boundSheets = new ArrayList<>();
+        private final List<SheetCsv> sheets = new ArrayList<>();
+        private final List<String> cells = new ArrayList<>();
+        private BoundSheetRecord[] orderedSheets;
+        private SSTRecord sst;
+        private CSVWriter writer;
+        private int sheetIndex = -1;
+        private boolean nextStringIsFormulaResult;
+        private int formulaColumn;
+
+        XlsCsvListener(Path outDir, boolean allSheets) {
+            this.outDir = outDir;
+            this.allSheets = allSheets;
+            this.formatListener = new FormatTrackingHSSFListener(new MissingRecordAwareHSSFListener(this));
+        }
+
+        @Override
+        public void processRecord(org.apache.poi.hssf.record.Record record) {
+            try {
+                handle(record);
+            } catch (IOException e) {
+                throw new java.io.UncheckedIOException(e);
+            }
+        }
+
+        private void handle(org.apache.poi.hssf.record.Record record) throws IOException {
+            switch (record.getSid()) {
+                case BoundSheetRecord.sid -> boundSheets.add((BoundSheetRecord) record);
+                case SSTRecord.sid -> sst = (SSTRecord) record;
+                case BOFRecord.sid -> {
+                    if (((BOFRecord) record).getType() == BOFRecord.TYPE_WORKSHEET)
+                        startSheet();
+                }
+                default -> {
+                    if (writer != null)
+                        handleCell(record);
+                }
+            }
+        }
+
+        private void startSheet() throws IOException {
+            closeWriter();
+            sheetIndex++;
+            if (!allSheets && sheetIndex > 0)
+                return;
+            if (orderedSheets == null)
+                orderedSheets = BoundSheetRecord.orderByBofPosition(boundSheets);
+            String name = sheetIndex < orderedSheets.length
+                    ? orderedSheets[sheetIndex].getSheetname() : "Sheet" + (sheetIndex + 1);
+            Path target = outDir.resolve("sheet_" + (sheetIndex + 1) + ".csv");
+            writer = new CSVWriter(Files.newBufferedWriter(target, StandardCharsets.UTF_8));
+            sheets.add(new SheetCsv(name, target));
+        }
+
+        private void handleCell(org.apache.poi.hssf.record.Record record) {
+            switch (record.getSid()) {
+                case BlankRecord.sid -> put(((BlankRecord) record).getColumn(), "");
+                case BoolErrRecord.sid -> {
+                    BoolErrRecord r = (BoolErrRecord) record;
+                    put(r.getColumn(), r.isBoolean() ? String.valueOf(r.getBooleanValue()).toUpperCase() : "#ERR");
+                }
+                case FormulaRecord.sid -> {
+                    FormulaRecord r = (FormulaRecord) record;
+                    if (r.hasCachedResultString()) {
+                        // The cached text follows in a StringRecord
+                        nextStringIsFormulaResult = true;
+                        formulaColumn = r.getColumn();
+                    } else {
+                        put(r.getColumn(), formatListener.formatNumberDateCell(r));
+                    }
+                }
+                case StringRecord.sid -> {
+                    if (nextStringIsFormulaResult) {
+                        put(formulaColumn, ((StringRecord) record).getString());
+                        nextStringIsFormulaResult = false;
+                    }
+                }
+                case LabelRecord.sid -> put(((LabelRecord) record).getColumn(), ((LabelRecord) record).getValue());
+                case LabelSSTRecord.sid -> {
+                    LabelSSTRecord r = (LabelSSTRecord) record;
+                    put(r.getColumn(), sst != null ? sst.getString(r.getSSTIndex()).toString() : "");
+                }
+                case NumberRecord.sid -> {
+                    NumberRecord r = (NumberRecord) record;
+                    put(r.getColumn(), formatListener.formatNumberDateCell(r));
+                }
+                default -> {
+                    if (record instanceof MissingCellDummyRecord r) {
+                        put(r.getColumn(), "");
+                    } else if (record instanceof MissingRowDummyRecord) {
+                        writer.writeNext(new String[0], false);
+                    } else if (record instanceof LastCellOfRowDummyRecord) {
+                        writer.writeNext(cells.toArray(new String[0]));
+                        cells.clear();
+                    }
+                }
+            }
+        }
+
+        private void put(int col, String value) {
+            while (cells.size() < col) {
+                cells.add("");
+            }
+            if (cells.size() == col) {
+                cells.add(value);
+            } else {
+                cells.set(col, value);
+            }
+        }
+
+        private void closeWriter() throws IOException {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            closeWriter();
+        }
+    }
+}
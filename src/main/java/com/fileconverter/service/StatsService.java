@@ -1,17 +1,31 @@
 package com.fileconverter.service;
 
 import com.fileconverter.model.ConversionStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 
+/**
+ * Conversion totals for the stats page, summed from the {@link ConversionMetrics} request
+ * timers so they always agree with what is exported to Prometheus.
+ */
 @Service
 public class StatsService {
-    private final ConversionStats stats = new ConversionStats();
+    private final MeterRegistry registry;
 
-    public void record(String category, boolean success) {
-        stats.record(category, success);
+    public StatsService(MeterRegistry registry) {
+        this.registry = registry;
     }
 
     public ConversionStats getStats() {
+        ConversionStats stats = new ConversionStats();
+        for (Timer timer : registry.find(ConversionMetrics.REQUESTS).timers()) {
+            String outcome = timer.getId().getTag("outcome");
+            // Rejected requests never started converting
+            if ("rejected".equals(outcome))
+                continue;
+            stats.record(timer.getId().getTag("category"), "success".equals(outcome), timer.count());
+        }
         return stats;
     }
 }
@@ -0,0 +1,292 @@
+package com.fileconverter.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An upload that is written once, to its working file, while the request body arrives; the
+ * SHA-256 and size are computed on the way through.
+ * <p>
+ * {@link #getInputStream()} follows the writer: it blocks when it catches up and only reports
+ * end-of-file once the upload is complete, so a converter can consume the input while it is
+ * still arriving; a reader left waiting longer than the read-idle timeout fails instead. The
+ * methods that need the whole file ({@link #getSize()}, {@link #getBytes()},
+ * {@link #transferTo}) wait for completion.
+ */
+public class StreamingUpload implements MultipartFile, Closeable {
+    private final Path path;
+    private final String originalFilename;
+    private final String contentType;
+    private final FileChannel channel;
+    private final MessageDigest digest;
+    private final long readIdleNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private volatile long size;
+    private boolean complete;
+    private IOException failure;
+    private String sha256;
+
+    /** @param readIdleNanos how long a reader waits for new data before giving up on the upload */
+    StreamingUpload(Path path, String originalFilename, String contentType, long readIdleNanos) throws IOException {
+        this.path = path;
+        this.readIdleNanos = readIdleNanos;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    /** Appends to the working file. Only the ingesting thread writes. */
+    void write(byte[] b, int off, int len) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(b, off, len);
+        while (buf.hasRemaining())
+            channel.write(buf);
+        digest.update(b, off, len);
+        lock.lock();
+        try {
+            // A reader that gave up on the upload has failed it; stop taking the body
+            if (failure != null)
+                throw new IOException("Upload failed: " + failure.getMessage(), failure);
+            size += len;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void complete() throws IOException {
+        channel.close();
+        lock.lock();
+        try {
+            sha256 = HexFormat.of().formatHex(digest.digest());
+            complete = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Ends the upload with an error; blocked and future readers get {@code cause}. */
+    void fail(IOException cause) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+        lock.lock();
+        try {
+            failure = cause;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Whether the whole body was received; false while it is arriving and after a failure. */
+    boolean isComplete() {
+        lock.lock();
+        try {
+            return complete && failure == null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /** Bytes received so far; unlike {@link #getSize()} this does not wait. */
+    public long getReceivedBytes() {
+        return size;
+    }
+
+    /** Hex SHA-256 of the content, or null while the upload is still in progress. */
+    public String getSha256() {
+        lock.lock();
+        try {
+            return sha256;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** A plain view of the completed upload, hash included, for converters that need the whole file. */
+    public FileBackedMultipartFile toFileBacked() throws IOException {
+        awaitComplete();
+        return new FileBackedMultipartFile(path, originalFilename, contentType, getSha256());
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getSize() == 0;
+    }
+
+    @Override
+    public long getSize() {
+        try {
+            awaitComplete();
+        } catch (IOException e) {
+            return 0;
+        }
+        return size;
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        awaitComplete();
+        return Files.readAllBytes(path);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return new FollowingInputStream();
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        transferTo(dest.toPath());
+    }
+
+    @Override
+    public void transferTo(Path dest) throws IOException {
+        awaitComplete();
+        Files.copy(path, dest, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /** Deletes the working file. Readers that are still open keep working on Linux. */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        Files.deleteIfExists(path);
+    }
+
+    private void awaitComplete() throws IOException {
+        lock.lock();
+        try {
+            long seen = size;
+            long remaining = readIdleNanos;
+            while (!complete && failure == null) {
+                if (remaining <= 0)
+                    throw idle();
+                remaining = changed.awaitNanos(remaining);
+                if (size != seen) {
+                    seen = size;
+                    remaining = readIdleNanos;
+                }
+            }
+            if (failure != null)
+                throw new IOException("Upload failed: " + failure.getMessage(), failure);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the upload");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Waits until there is data past {@code position}; returns how much, or -1 at the end of the upload. */
+    private long awaitData(long position) throws IOException {
+        long available = size - position;
+        if (available > 0)
+            return available;
+        lock.lock();
+        try {
+            long remaining = readIdleNanos;
+            while (size <= position && !complete && failure == null) {
+                if (remaining <= 0)
+                    throw idle();
+                remaining = changed.awaitNanos(remaining);
+            }
+            if (failure != null)
+                throw new IOException("Upload failed: " + failure.getMessage(), failure);
+            return size > position ? size - position : -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for upload data");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Fails the upload for every reader and the writer; called with the lock held. */
+    private IOException idle() {
+        failure = new IOException("No upload data for " + TimeUnit.NANOSECONDS.toSeconds(readIdleNanos) + " s");
+        changed.signalAll();
+        return failure;
+    }
+
+    private class FollowingInputStream extends InputStream {
+        private final FileChannel in = FileChannel.open(path, StandardOpenOption.READ);
+        private long position;
+
+        private FollowingInputStream() throws IOException {
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0)
+                return 0;
+            long available = awaitData(position);
+            if (available < 0)
+                return -1;
+            int n = in.read(ByteBuffer.wrap(b, off, (int) Math.min(len, available)), position);
+            if (n > 0)
+                position += n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, Math.max(0, size - position));
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.fileconverter.service;
+
+import com.fileconverter.model.ConversionOptions;
+import com.fileconverter.model.ConversionResult;
+import com.fileconverter.model.Engine;
+import com.fileconverter.model.ToolInfo;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.DataBinder;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Upload path that reads the request body itself instead of letting the servlet container
+ * buffer it first. The file is written once, to its working file, with the hash and size
+ * computed on the way. Tools that read their input front to back (see
+ * {@link ConversionService#canStream}) start converting as soon as the file part begins;
+ * the rest start once it has been received. A streaming conversion that catches up with the
+ * upload and then gets no data for {@code app.stream.read-idle-seconds} fails, so a stalled
+ * client does not keep an engine slot.
+ * <p>
+ * The body is either {@code multipart/form-data} with one file part, or the raw file with a
+ * {@code fileName} query parameter. Options come from the query string and from form fields
+ * sent <em>before</em> the file part; fields after it are ignored.
+ */
+@Service
+public class StreamingUploadService {
+    private static final Logger log = LoggerFactory.getLogger(StreamingUploadService.class);
+    private static final Path UPLOAD_DIR = Path.of(System.getProperty("java.io.tmpdir"), "file-converter-uploads");
+    private static final int MAX_FIELD_BYTES = 64 * 1024;
+
+    private final ConversionService conversionService;
+    private final BulkheadService bulkhead;
+    private final ConversionMetrics metrics;
+    private final ToolRegistryService toolRegistry;
+    private final ResultCache resultCache;
+    private final long maxFileBytes;
+    private final long readIdleNanos;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public StreamingUploadService(ConversionService conversionService, BulkheadService bulkhead,
+                                  ConversionMetrics metrics, ToolRegistryService toolRegistry, ResultCache resultCache,
+                                  @Value("${spring.servlet.multipart.max-file-size:1GB}") DataSize maxFileSize,
+                                  @Value("${app.stream.read-idle-seconds:30}") long readIdleSeconds) {
+        this.conversionService = conversionService;
+        this.bulkhead = bulkhead;
+        this.metrics = metrics;
+        this.toolRegistry = toolRegistry;
+        this.resultCache = resultCache;
+        this.maxFileBytes = maxFileSize.toBytes();
+        this.readIdleNanos = TimeUnit.SECONDS.toNanos(readIdleSeconds);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        Files.createDirectories(UPLOAD_DIR);
+        // Working files left behind by a previous run
+        try (var stream = Files.list(UPLOAD_DIR)) {
+            for (Path p : stream.toList())
+                Files.deleteIfExists(p);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public ConversionResult convert(String toolId, HttpServletRequest request) throws IOException {
+        Map<String, String> params = queryParams(request.getQueryString());
+        String contentType = request.getContentType();
+        InputStream body = request.getInputStream();
+
+        if (contentType != null && contentType.toLowerCase().startsWith("multipart/form-data")) {
+            String boundary = MediaType.parseMediaType(contentType).getParameter("boundary");
+            if (boundary == null || boundary.isEmpty())
+                throw new IllegalArgumentException("Missing multipart boundary");
+            if (boundary.length() > 1 && boundary.startsWith("\"") && boundary.endsWith("\""))
+                boundary = boundary.substring(1, boundary.length() - 1);
+
+            MultipartStreamReader reader = new MultipartStreamReader(body, boundary);
+            MultipartStreamReader.Part part;
+            while ((part = reader.nextPart()) != null) {
+                if (part.isFile())
+                    return convert(toolId, part.fileName(), part.contentType(), params, reader::transferTo,
+                            request.getContentLengthLong());
+                if (part.name() != null)
+                    params.putIfAbsent(part.name(), reader.readString(MAX_FIELD_BYTES));
+            }
+            throw new IllegalArgumentException("No file part in the request");
+        }
+
+        String fileName = params.get("fileName");
+        if (fileName == null || fileName.isBlank())
+            throw new IllegalArgumentException("A raw upload needs a fileName query parameter");
+        return convert(toolId, FilenameUtils.getName(fileName), contentType, params, sink -> {
+            byte[] buf = new byte[64 * 1024];
+            long total = 0;
+            int n;
+            while ((n = body.read(buf)) != -1) {
+                sink.write(buf, 0, n);
+                total += n;
+            }
+            return total;
+        }, request.getContentLengthLong());
+    }
+
+    @FunctionalInterface
+    private interface Body {
+        long transferTo(MultipartStreamReader.Sink sink) throws IOException;
+    }
+
+    private ConversionResult convert(String toolId, String fileName, String contentType, Map<String, String> params,
+                                     Body body, long contentLength) throws IOException {
+        ConversionOptions options = bind(params);
+        ToolInfo tool = toolRegistry.getToolById(toolId);
+        String category = tool != null ? tool.getCategory() : "Other";
+        Engine engine = Engine.forTool(toolId, options);
+        // Content-Length includes multipart framing, but it is the only size known up front
+        long inputBytes = Math.max(0, contentLength);
+
+        StreamingUpload upload = new StreamingUpload(UPLOAD_DIR.resolve(UUID.randomUUID().toString()),
+                fileName, contentType, readIdleNanos);
+        boolean streaming = conversionService.canStream(toolId, options);
+        AtomicReference<Future<ConversionResult>> streamed = new AtomicReference<>();
+        try {
+            try {
+                body.transferTo((b, off, len) -> {
+                    if (upload.getReceivedBytes() + len > maxFileBytes)
+                        throw new MaxUploadSizeExceededException(maxFileBytes);
+                    Future<ConversionResult> conversion = streamed.get();
+                    if (conversion == null && streaming) {
+                        // Queue for an engine slot only once the file is arriving, so a client that
+                        // connects and then stalls holds no slot
+                        streamed.set(executor.submit(() -> metrics.record(toolId, category, engine, inputBytes,
+                                () -> bulkhead.call(engine,
+                                        () -> conversionService.convertStreaming(toolId, upload, options)))));
+                    } else if (conversion != null && conversion.isDone()) {
+                        // A rejected or failed conversion doesn't need the rest of the upload
+                        throw new UploadAbandonedException();
+                    }
+                    upload.write(b, off, len);
+                });
+                upload.complete();
+            } catch (UploadAbandonedException e) {
+                log.debug("Stopped reading {} for {}: the conversion already ended", fileName, toolId);
+                upload.fail(new IOException("Conversion ended before the upload"));
+            } catch (IOException | RuntimeException e) {
+                upload.fail(e instanceof IOException io ? io : new IOException(e.getMessage(), e));
+                if (streamed.get() != null)
+                    streamed.get().cancel(true);
+                throw e;
+            }
+
+            if (streamed.get() == null) {
+                FileBackedMultipartFile input = upload.toFileBacked();
+                return metrics.record(toolId, category, engine, input.getSize(),
+                        () -> conversionService.convert(toolId, input, null, options,
+                                work -> bulkhead.call(engine, work)));
+            }
+
+            ConversionResult result = await(streamed.get());
+            // Some readers take a failed read for end-of-file; a result from part of the upload is not one
+            if (result.isSuccess() && !upload.isComplete())
+                throw new IOException("The upload ended before the conversion could read all of it");
+            // The hash is known now, so a later upload of the same file can hit the cache
+            String sha256 = upload.getSha256();
+            if (sha256 != null && resultCache.isEnabled() && result.isSuccess() && result.getOutputPath() != null)
+                resultCache.put(ResultCache.key(sha256, toolId, options), FilenameUtils.getBaseName(fileName),
+                        result, result.getOutputPath());
+            return result;
+        } finally {
+            Future<ConversionResult> conversion = streamed.get();
+            if (conversion != null && !conversion.isDone()) {
+                // Let the converter finish with the working file before it is deleted
+                try {
+                    conversion.get();
+                } catch (Exception ignored) {
+                }
+            }
+            upload.close();
+        }
+    }
+
+    private static ConversionResult await(Future<ConversionResult> conversion) throws IOException {
+        try {
+            return conversion.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the conversion", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io)
+                throw io;
+            if (e.getCause() instanceof RuntimeException re)
+                throw re;
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /** Same binding rules as {@code @ModelAttribute ConversionOptions} on the regular endpoints. */
+    private static ConversionOptions bind(Map<String, String> params) {
+        ConversionOptions options = new ConversionOptions();
+        DataBinder binder = new DataBinder(options);
+        binder.bind(new MutablePropertyValues(params));
+        if (binder.getBindingResult().hasErrors())
+            throw new IllegalArgumentException("Invalid options: " + binder.getBindingResult().getAllErrors());
+        return options;
+    }
+
+    /** Decodes the query string without touching request parameters, which would make the container read the body. */
+    private static Map<String, String> queryParams(String query) {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (query == null)
+            return params;
+        for (String pair : query.split("&")) {
+            if (pair.isEmpty())
+                continue;
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.putIfAbsent(name, value);
+        }
+        return params;
+    }
+
+    private static class UploadAbandonedException extends IOException {
+        UploadAbandonedException() {
+            super("Upload abandoned");
+        }
+    }
+}
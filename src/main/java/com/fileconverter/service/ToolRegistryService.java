@@ -41,7 +41,7 @@ public class ToolRegistryService {
         tools.add(ToolInfo.builder().id("csv-to-excel").name("CSV → Excel").description("Convert CSV files to Excel spreadsheets").icon("📊").category("Spreadsheet").fromFormat("CSV").toFormat("XLSX").acceptedFormats(".csv").color("#27ae60").popular(true).build());
         tools.add(ToolInfo.builder().id("excel-to-csv").name("Excel → CSV").description("Convert Excel spreadsheets to CSV format").icon("📋").category("Spreadsheet").fromFormat("XLSX").toFormat("CSV").acceptedFormats(".xlsx,.xls").color("#27ae60").popular(true).build());
         tools.add(ToolInfo.builder().id("csv-to-json").name("CSV → JSON").description("Convert CSV data to JSON format").icon("{}").category("Spreadsheet").fromFormat("CSV").toFormat("JSON").acceptedFormats(".csv").color("#27ae60").popular(true).build());
-        tools.add(ToolInfo.builder().id("json-to-csv").name("JSON → CSV").description("Convert JSON data to CSV format").icon("📄").category("Spreadsheet").fromFormat("JSON").toFormat("CSV").acceptedFormats(".json").color("#27ae60").popular(false).build());
+        tools.add(ToolInfo.builder().id("json-to-csv").name("JSON → CSV").description("Convert JSON data to CSV format").icon("📄").category("Spreadsheet").fromFormat("JSON").toFormat("CSV").acceptedFormats(".json,.ndjson").color("#27ae60").popular(false).build());
         tools.add(ToolInfo.builder().id("excel-to-pdf").name("Excel → PDF").description("Convert Excel spreadsheets to PDF").icon("📃").category("Spreadsheet").fromFormat("XLSX").toFormat("PDF").acceptedFormats(".xlsx,.xls").color("#27ae60").popular(false).build());
 
         // Document Tools
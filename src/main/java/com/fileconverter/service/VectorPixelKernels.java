@@ -0,0 +1,110 @@
+package com.fileconverter.service;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+import static jdk.incubator.vector.VectorOperators.I2B;
+import static jdk.incubator.vector.VectorOperators.LSHL;
+import static jdk.incubator.vector.VectorOperators.LSHR;
+
+/**
+ * The {@link PixelKernels} conversions written against the incubating Vector API. Only
+ * {@link PixelKernels} may touch this class, and only once it has checked that
+ * {@code jdk.incubator.vector} is in the boot layer; without the module it fails to load.
+ * <p>
+ * Every source layout is brought into one 0xAARRGGBB int lane per pixel: packed ints load
+ * as they are, and byte layouts are loaded a register at a time, shuffled within the
+ * register so each pixel's bytes read B, G, R, A, and reinterpreted as ints (lanes are
+ * little-endian). The arithmetic is then the same as the scalar kernels', so the results
+ * are identical. Each method converts whole vectors only and returns the index it stopped
+ * at; the caller finishes the tail with the scalar kernel.
+ */
+final class VectorPixelKernels {
+
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = BYTES.withLanes(int.class);
+    // Gray bytes for one int vector: as many byte lanes as INTS has int lanes. Null when that
+    // is under the smallest shape (128-bit ints), and gray is then left to the scalar kernel
+    private static final VectorSpecies<Byte> GRAY = INTS.vectorBitSize() >= 256
+            ? VectorSpecies.of(byte.class, VectorShape.forBitSize(INTS.vectorBitSize() / 4)) : null;
+    private static final int OPAQUE = 0xff000000;
+
+    // Lane j of the register is byte j % 4 of pixel j / 4; the fourth byte of a BGR pixel is
+    // filled with anything and overwritten by OPAQUE
+    private static final VectorShuffle<Byte> FROM_BGR =
+            VectorShuffle.fromOp(BYTES, j -> j % 4 == 3 ? 0 : j / 4 * 3 + j % 4);
+    private static final VectorShuffle<Byte> FROM_ABGR =
+            VectorShuffle.fromOp(BYTES, j -> j / 4 * 4 + (j % 4 + 1) % 4);
+
+    private VectorPixelKernels() {
+    }
+
+    static String describe() {
+        return INTS.length() + " pixels per " + BYTES.vectorBitSize() + "-bit vector"
+                + (GRAY == null ? ", scalar grayscale" : "");
+    }
+
+    static int gray(PixelKernels.Layout layout, Object src, byte[] dst, int from, int to) {
+        if (GRAY == null)
+            return from;
+        int n = INTS.length();
+        int p = from;
+        for (; p + n <= to && fits(layout, src, p); p += n)
+            ((ByteVector) gray(load(layout, src, p)).convertShape(I2B, GRAY, 0)).intoArray(dst, p);
+        return p;
+    }
+
+    static int flatten(PixelKernels.Layout layout, Object src, int[] dst, int from, int to) {
+        int n = INTS.length();
+        int p = from;
+        for (; p + n <= to && fits(layout, src, p); p += n)
+            flatten(load(layout, src, p)).intoArray(dst, p);
+        return p;
+    }
+
+    /** Whether a whole register can be loaded for the pixels starting at {@code p}. */
+    private static boolean fits(PixelKernels.Layout layout, Object src, int p) {
+        // A BGR register covers only three quarters of its bytes in pixels
+        return layout != PixelKernels.Layout.BYTE_BGR || 3L * p + BYTES.length() <= ((byte[]) src).length;
+    }
+
+    private static IntVector load(PixelKernels.Layout layout, Object src, int p) {
+        return switch (layout) {
+            case INT_RGB -> IntVector.fromArray(INTS, (int[]) src, p).or(OPAQUE);
+            case INT_ARGB -> IntVector.fromArray(INTS, (int[]) src, p);
+            case BYTE_BGR -> ByteVector.fromArray(BYTES, (byte[]) src, 3 * p)
+                    .rearrange(FROM_BGR).reinterpretAsInts().or(OPAQUE);
+            case BYTE_ABGR -> ByteVector.fromArray(BYTES, (byte[]) src, 4 * p)
+                    .rearrange(FROM_ABGR).reinterpretAsInts();
+        };
+    }
+
+    private static IntVector gray(IntVector argb) {
+        IntVector r = argb.lanewise(LSHR, 16).and(0xff);
+        IntVector g = argb.lanewise(LSHR, 8).and(0xff);
+        IntVector b = argb.and(0xff);
+        IntVector luma = r.mul(77).add(g.mul(150)).add(b.mul(29)).add(128).lanewise(LSHR, 8);
+        return div255(luma.mul(argb.lanewise(LSHR, 24)));
+    }
+
+    private static IntVector flatten(IntVector argb) {
+        IntVector a = argb.lanewise(LSHR, 24);
+        IntVector inv = a.neg().add(255);
+        IntVector rb = div255x2(argb.and(0x00ff00ff).mul(a).add(inv.mul(0x00ff00ff)));
+        IntVector g = div255(argb.lanewise(LSHR, 8).and(0xff).mul(a).add(inv.mul(255)));
+        return rb.or(g.lanewise(LSHL, 8));
+    }
+
+    private static IntVector div255(IntVector x) {
+        x = x.add(128);
+        return x.add(x.lanewise(LSHR, 8)).lanewise(LSHR, 8);
+    }
+
+    private static IntVector div255x2(IntVector x) {
+        x = x.add(0x00800080);
+        return x.add(x.lanewise(LSHR, 8).and(0x00ff00ff)).lanewise(LSHR, 8).and(0x00ff00ff);
+    }
+}
@@ -0,0 +1,175 @@
+package com.fileconverter.load;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Capacity test: boots the app with stub LibreOffice/FFmpeg executables and drives a mixed
+ * workload at increasing open-loop arrival rates, reporting throughput and p50/p99/p99.9
+ * latency per rate to {@code target/load-test/results.csv}.
+ * <p>
+ * Not part of the regular build; run with {@code mvn test -Pload-test}. Tunables (system
+ * properties): {@code load.rates} (req/s, comma separated), {@code load.duration-seconds},
+ * {@code load.warmup-seconds}, {@code load.mix} ({@code tool:weight,...}),
+ * {@code load.stub.latency-ms}, {@code load.stub.cpu-ms}, {@code load.stub.output-bytes}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ConversionLoadTest {
+
+    private static Path stubDir;
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void stubEngines(DynamicPropertyRegistry registry) throws IOException {
+        stubDir = Files.createTempDirectory("load-stubs");
+        StubExecutables.Profile profile = new StubExecutables.Profile(
+                Long.getLong("load.stub.latency-ms", 200),
+                Long.getLong("load.stub.cpu-ms", 50),
+                Long.getLong("load.stub.output-bytes", 64 * 1024));
+        Path soffice = StubExecutables.soffice(stubDir, profile);
+        Path ffmpeg = StubExecutables.ffmpeg(stubDir, profile);
+        registry.add("app.libreoffice.path", soffice::toString);
+        registry.add("app.ffmpeg.path", ffmpeg::toString);
+        // Identical inputs would otherwise be served from the result cache after the first request
+        registry.add("app.cache.enabled", () -> System.getProperty("load.cache", "false"));
+    }
+
+    @AfterAll
+    static void cleanUp() throws IOException {
+        try (var stream = Files.list(stubDir)) {
+            for (Path p : stream.toList())
+                Files.deleteIfExists(p);
+        }
+        Files.deleteIfExists(stubDir);
+    }
+
+    @Test
+    void reportsLatencyAcrossArrivalRates() throws IOException {
+        double[] rates = Arrays.stream(System.getProperty("load.rates", "2,5,10,20").split(","))
+                .mapToDouble(s -> Double.parseDouble(s.trim())).toArray();
+        Duration step = Duration.ofSeconds(Long.getLong("load.duration-seconds", 30));
+        Duration warmup = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 10));
+        Duration drain = Duration.ofMinutes(2);
+
+        OpenLoopLoadGenerator generator = new OpenLoopLoadGenerator("http://localhost:" + port,
+                workload(System.getProperty("load.mix",
+                        "word-to-pdf:3,csv-to-json:3,image-resize:2,pdf-split:1,wav-to-mp3:1")), 42);
+
+        generator.run(rates[0], warmup, drain);
+        List<OpenLoopLoadGenerator.StepResult> results = new ArrayList<>();
+        for (double rate : rates) {
+            OpenLoopLoadGenerator.StepResult result = generator.run(rate, step, drain);
+            results.add(result);
+            System.out.println(format(result));
+        }
+        writeReport(results);
+
+        // The lowest rate is meant to be comfortably within capacity
+        OpenLoopLoadGenerator.StepResult lowest = results.get(0);
+        assertThat(lowest.errors()).isZero();
+        assertThat(lowest.ok()).isPositive();
+    }
+
+    private static List<OpenLoopLoadGenerator.Request> workload(String spec) throws IOException {
+        List<OpenLoopLoadGenerator.Request> mix = new ArrayList<>();
+        for (String item : spec.split(",")) {
+            String[] parts = item.trim().split(":");
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
+            mix.add(request(parts[0], weight));
+        }
+        return mix;
+    }
+
+    private static OpenLoopLoadGenerator.Request request(String toolId, int weight) throws IOException {
+        return switch (toolId) {
+            case "word-to-pdf" -> new OpenLoopLoadGenerator.Request(toolId, "letter.docx",
+                    "application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+                    new byte[32 * 1024], Map.of(), weight);
+            case "csv-to-json" -> new OpenLoopLoadGenerator.Request(toolId, "table.csv", "text/csv",
+                    csv(5_000), Map.of("typedValues", "true"), weight);
+            case "image-resize" -> new OpenLoopLoadGenerator.Request(toolId, "photo.png", "image/png",
+                    png(1600, 1200), Map.of("width", "400", "height", "300"), weight);
+            case "pdf-split" -> new OpenLoopLoadGenerator.Request(toolId, "doc.pdf", "application/pdf",
+                    pdf(20), Map.of("splitMode", "every", "splitEvery", "5"), weight);
+            case "wav-to-mp3", "mp3-to-wav", "mp4-to-mp3", "video-to-audio" -> new OpenLoopLoadGenerator.Request(
+                    toolId, "clip.wav", "audio/wav", new byte[256 * 1024], Map.of(), weight);
+            default -> throw new IllegalArgumentException("No load fixture for tool " + toolId);
+        };
+    }
+
+    private static byte[] csv(int rows) {
+        StringBuilder sb = new StringBuilder("id,name,amount,active\n");
+        for (int i = 1; i <= rows; i++)
+            sb.append(i).append(",name").append(i).append(',').append(i * 1.25).append(',').append(i % 2 == 0)
+                    .append('\n');
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++)
+            for (int x = 0; x < width; x++)
+                img.setRGB(x, y, (x * 255 / width) << 16 | (y * 255 / height) << 8 | 128);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(img, "png", out);
+        return out.toByteArray();
+    }
+
+    private static byte[] pdf(int pages) throws IOException {
+        try (PDDocument doc = new PDDocument()) {
+            for (int i = 0; i < pages; i++)
+                doc.addPage(new PDPage());
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            doc.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static String format(OpenLoopLoadGenerator.StepResult r) {
+        return String.format(Locale.ROOT,
+                "rate=%.1f/s sent=%d ok=%d failed=%d rejected=%d errors=%d throughput=%.2f/s "
+                        + "p50=%.1fms p99=%.1fms p99.9=%.1fms max=%.1fms",
+                r.targetRate(), r.sent(), r.ok(), r.failed(), r.rejected(), r.errors(), r.throughput(),
+                r.percentileMs(50), r.percentileMs(99), r.percentileMs(99.9),
+                r.latencyMicros().getMaxValue() / 1000.0);
+    }
+
+    private static void writeReport(List<OpenLoopLoadGenerator.StepResult> results) throws IOException {
+        Path dir = Files.createDirectories(Path.of("target", "load-test"));
+        StringBuilder csv = new StringBuilder(
+                "target_rate,seconds,sent,ok,failed,rejected,errors,throughput,p50_ms,p99_ms,p999_ms,max_ms\n");
+        for (OpenLoopLoadGenerator.StepResult r : results) {
+            csv.append(String.format(Locale.ROOT, "%.2f,%.1f,%d,%d,%d,%d,%d,%.3f,%.2f,%.2f,%.2f,%.2f%n",
+                    r.targetRate(), r.seconds(), r.sent(), r.ok(), r.failed(), r.rejected(), r.errors(),
+                    r.throughput(), r.percentileMs(50), r.percentileMs(99), r.percentileMs(99.9),
+                    r.latencyMicros().getMaxValue() / 1000.0));
+        }
+        Files.writeString(dir.resolve("results.csv"), csv);
+    }
+}
@@ -0,0 +1,144 @@
+package com.fileconverter.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator: requests are sent on a Poisson arrival schedule that does not
+ * wait for earlier responses, and latency is measured from each request's scheduled start.
+ * A slow server therefore shows up as growing latency instead of a silently lower send rate
+ * (no coordinated omission).
+ */
+final class OpenLoopLoadGenerator {
+
+    /** One kind of request in the workload mix. */
+    record Request(String toolId, String fileName, String contentType, byte[] content,
+                   Map<String, String> fields, int weight) {
+    }
+
+    record StepResult(double targetRate, double seconds, long sent, long ok, long failed, long rejected,
+                      long errors, Histogram latencyMicros) {
+
+        double throughput() {
+            return ok / seconds;
+        }
+
+        double percentileMs(double p) {
+            return latencyMicros.getTotalCount() == 0 ? 0 : latencyMicros.getValueAtPercentile(p) / 1000.0;
+        }
+    }
+
+    private final String baseUrl;
+    private final List<Request> mix;
+    private final int totalWeight;
+    private final Random random;
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    OpenLoopLoadGenerator(String baseUrl, List<Request> mix, long seed) {
+        this.baseUrl = baseUrl;
+        this.mix = mix;
+        this.totalWeight = mix.stream().mapToInt(Request::weight).sum();
+        this.random = new Random(seed);
+    }
+
+    StepResult run(double ratePerSecond, Duration duration, Duration drainTimeout) {
+        Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(10), 3);
+        LongAdder ok = new LongAdder();
+        LongAdder failed = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        LongAdder errors = new LongAdder();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long next = start;
+        long sent = 0;
+        while (next < end) {
+            long wait = next - System.nanoTime();
+            if (wait > 0)
+                LockSupport.parkNanos(wait);
+            long scheduled = next;
+            Request request = pick();
+            inFlight.add(client.sendAsync(build(request), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        latency.recordValue(Math.min(latency.getHighestTrackableValue(),
+                                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled)));
+                        if (error != null) {
+                            errors.increment();
+                        } else if (response.statusCode() == 429) {
+                            rejected.increment();
+                        } else if (response.statusCode() == 200 && response.body().contains("/download/")) {
+                            ok.increment();
+                        } else {
+                            failed.increment();
+                        }
+                    }));
+            sent++;
+            // Exponential inter-arrival times give a Poisson process at the target rate
+            next += (long) (-Math.log(1 - random.nextDouble()) / ratePerSecond * 1e9);
+        }
+
+        try {
+            CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0]))
+                    .get(drainTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception ignored) {
+            // Requests still outstanding after the drain timeout count as neither ok nor failed
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return new StepResult(ratePerSecond, seconds, sent, ok.sum(), failed.sum(), rejected.sum(), errors.sum(),
+                latency);
+    }
+
+    private Request pick() {
+        int r = random.nextInt(totalWeight);
+        for (Request request : mix) {
+            r -= request.weight();
+            if (r < 0)
+                return request;
+        }
+        return mix.get(mix.size() - 1);
+    }
+
+    private HttpRequest build(Request request) {
+        String boundary = "----load" + UUID.randomUUID().toString().replace("-", "");
+        ByteArrayOutputStream body = new ByteArrayOutputStream(request.content().length + 1024);
+        request.fields().forEach((name, value) -> write(body, "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" + value + "\r\n"));
+        write(body, "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + request.fileName() + "\"\r\n"
+                + "Content-Type: " + request.contentType() + "\r\n\r\n");
+        body.writeBytes(request.content());
+        write(body, "\r\n--" + boundary + "--\r\n");
+
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/convert/" + request.toolId()))
+                .timeout(Duration.ofMinutes(5))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+    }
+
+    private static void write(ByteArrayOutputStream out, String s) {
+        out.writeBytes(s.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,79 @@
+package com.fileconverter.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+/**
+ * Writes shell scripts that stand in for {@code soffice} and {@code ffmpeg} during load tests.
+ * They accept the same command lines the app sends, wait a fixed time, burn CPU for a fixed
+ * time and write an output of a fixed size, so external-engine cost is controlled and
+ * repeatable.
+ */
+final class StubExecutables {
+
+    private StubExecutables() {
+    }
+
+    record Profile(long latencyMs, long cpuMs, long outputBytes) {
+    }
+
+    /**
+     * LibreOffice stub. Worker launches ({@code --accept=...}) just stay alive; client launches
+     * ({@code --convert-to fmt --outdir dir input}) write {@code dir/<input base>.<ext>}.
+     */
+    static Path soffice(Path dir, Profile profile) throws IOException {
+        return write(dir.resolve("soffice-stub"), """
+                #!/bin/sh
+                for a in "$@"; do
+                  case "$a" in --accept=*) exec sleep 86400 ;; esac
+                done
+                fmt=""; outdir="."; input=""
+                while [ $# -gt 0 ]; do
+                  case "$1" in
+                    --convert-to) fmt="$2"; shift ;;
+                    --outdir) outdir="$2"; shift ;;
+                    -*) ;;
+                    *) input="$1" ;;
+                  esac
+                  shift
+                done
+                ext="${fmt%%%%:*}"
+                base=$(basename "$input"); base="${base%%.*}"
+                %s
+                head -c %d /dev/zero > "$outdir/$base.$ext"
+                """.formatted(work(profile), profile.outputBytes()));
+    }
+
+    /** FFmpeg stub: answers {@code -version} and writes the last argument as the output file. */
+    static Path ffmpeg(Path dir, Profile profile) throws IOException {
+        return write(dir.resolve("ffmpeg-stub"), """
+                #!/bin/sh
+                [ "$1" = "-version" ] && { echo "ffmpeg version stub"; exit 0; }
+                for out in "$@"; do :; done
+                echo "  Duration: 00:00:10.00, start: 0.000000, bitrate: 128 kb/s"
+                %s
+                echo "out_time_us=10000000"
+                head -c %d /dev/zero > "$out"
+                """.formatted(work(profile), profile.outputBytes()));
+    }
+
+    private static String work(Profile profile) {
+        StringBuilder sb = new StringBuilder();
+        if (profile.latencyMs() > 0)
+            sb.append("sleep ").append(profile.latencyMs() / 1000.0).append('\n');
+        if (profile.cpuMs() > 0) {
+            // Busy loop until the deadline; date +%N is GNU coreutils
+            sb.append("end=$(( $(date +%s%N) + ").append(profile.cpuMs() * 1_000_000L).append(" ))\n")
+                    .append("while [ $(date +%s%N) -lt $end ]; do :; done\n");
+        }
+        return sb.toString();
+    }
+
+    private static Path write(Path path, String script) throws IOException {
+        Files.writeString(path, script);
+        Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rwxr-xr-x"));
+        return path;
+    }
+}
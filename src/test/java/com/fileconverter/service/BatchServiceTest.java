@@ -0,0 +1,49 @@
+package com.fileconverter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fileconverter.model.BatchItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchServiceTest {
+
+    @Test
+    void entriesThatShareANameGetNumbered() {
+        Set<String> taken = new HashSet<>(Set.of(BatchService.MANIFEST));
+        assertEquals("report.pdf", BatchService.uniqueName("report.pdf", taken));
+        assertEquals("report (2).pdf", BatchService.uniqueName("report.pdf", taken));
+        assertEquals("report (3).pdf", BatchService.uniqueName("report.pdf", taken));
+        assertEquals("README", BatchService.uniqueName("README", taken));
+        assertEquals("README (2)", BatchService.uniqueName("README", taken));
+        // An input can't overwrite the manifest
+        assertEquals("manifest (2).json", BatchService.uniqueName(BatchService.MANIFEST, taken));
+    }
+
+    @Test
+    void manifestListsItemsInInputOrderWithTotals() throws Exception {
+        BatchItem[] items = new BatchItem[3];
+        // Filled in completion order, as convert does
+        for (int index : List.of(2, 0, 1))
+            items[index] = BatchItem.builder().index(index).input("in" + index).success(index != 1).build();
+
+        Map<String, Object> manifest = BatchService.manifest("pdf-compress", items);
+        assertEquals(List.of("tool", "total", "succeeded", "failed", "items"), List.copyOf(manifest.keySet()));
+
+        JsonNode json = new ObjectMapper().readTree(new ObjectMapper().writeValueAsBytes(manifest));
+        assertEquals("pdf-compress", json.get("tool").asText());
+        assertEquals(3, json.get("total").asInt());
+        assertEquals(2, json.get("succeeded").asInt());
+        assertEquals(1, json.get("failed").asInt());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i, json.get("items").get(i).get("index").asInt());
+            assertEquals("in" + i, json.get("items").get(i).get("input").asText());
+        }
+    }
+}
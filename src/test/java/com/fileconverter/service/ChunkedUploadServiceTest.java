@@ -0,0 +1,99 @@
+package com.fileconverter.service;
+
+import com.fileconverter.model.UploadStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedUploadServiceTest {
+
+    private ChunkedUploadService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        service = new ChunkedUploadService(DataSize.ofMegabytes(10), 1, 100, 60);
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void mergesOutOfOrderAndOverlappingChunks() throws IOException {
+        byte[] data = new byte[10_000];
+        new Random(3).nextBytes(data);
+        String id = service.create("data.bin", "application/octet-stream", data.length).getId();
+
+        write(id, data, 6_000, 10_000);
+        write(id, data, 0, 2_000);
+        write(id, data, 1_500, 4_000);
+        UploadStatus partial = service.status(id);
+        assertEquals(8_000, partial.getReceivedBytes());
+        assertArrayEquals(new long[]{0, 4_000}, partial.getRanges().get(0));
+        assertArrayEquals(new long[]{6_000, 10_000}, partial.getRanges().get(1));
+        assertThrows(IllegalStateException.class, () -> service.commit(id, null));
+
+        write(id, data, 4_000, 6_000);
+        UploadStatus committed = service.commit(id, null);
+        assertTrue(committed.isCommitted());
+        assertEquals(1, committed.getRanges().size());
+
+        MultipartFile input = service.inputs(List.of(id)).get(0);
+        assertArrayEquals(data, input.getBytes());
+        assertEquals(ResultCache.sha256(new ByteArrayInputStream(data)), committed.getSha256());
+        assertThrows(IllegalStateException.class, () -> write(id, data, 0, 10));
+    }
+
+    @Test
+    void rejectsChunksWithWrongDigestOrPastTheEnd() throws IOException {
+        String id = service.create("a.txt", "text/plain", 10).getId();
+        assertThrows(IllegalArgumentException.class,
+                () -> service.writeChunk(id, 0, new ByteArrayInputStream(new byte[5]), "00".repeat(32)));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.writeChunk(id, 8, new ByteArrayInputStream(new byte[5]), null));
+        assertEquals(0, service.status(id).getReceivedBytes());
+
+        service.delete(id);
+        assertThrows(NoSuchElementException.class, () -> service.status(id));
+        assertTrue(Files.notExists(Path.of(System.getProperty("java.io.tmpdir"), "file-converter-resumable", id)));
+    }
+
+    @Test
+    void aBadResendUnmarksTheRangeItOverwrote() throws IOException {
+        byte[] data = new byte[10_000];
+        new Random(5).nextBytes(data);
+        String id = service.create("data.bin", "application/octet-stream", data.length).getId();
+        write(id, data, 0, 10_000);
+
+        assertThrows(IllegalArgumentException.class, () -> service.writeChunk(id, 3_000,
+                new ByteArrayInputStream(new byte[2_000]), "00".repeat(32)));
+        UploadStatus status = service.status(id);
+        assertEquals(8_000, status.getReceivedBytes());
+        assertArrayEquals(new long[]{0, 3_000}, status.getRanges().get(0));
+        assertArrayEquals(new long[]{5_000, 10_000}, status.getRanges().get(1));
+        assertThrows(IllegalStateException.class, () -> service.commit(id, null));
+
+        write(id, data, 3_000, 5_000);
+        service.commit(id, null);
+        assertArrayEquals(data, service.inputs(List.of(id)).get(0).getBytes());
+    }
+
+    private void write(String id, byte[] data, int from, int to) throws IOException {
+        service.writeChunk(id, from, new ByteArrayInputStream(Arrays.copyOfRange(data, from, to)), null);
+    }
+}
@@ -0,0 +1,53 @@
+package com.fileconverter.service;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageDecoderTest {
+
+    @Test
+    void subsamplesLargeImagesButKeepsTwiceTheTargetSize() throws IOException {
+        byte[] png = png(4000, 3000);
+
+        BufferedImage img = ImageDecoder.read(new ByteArrayInputStream(png), 400, 300);
+
+        // Every 5th pixel: 800 x 600, twice the target in each direction
+        assertEquals(800, img.getWidth());
+        assertEquals(600, img.getHeight());
+        assertEquals(0x123456, img.getRGB(10, 10) & 0xffffff);
+    }
+
+    @Test
+    void readsFullResolutionWhenTheTargetIsNotMuchSmaller() throws IOException {
+        byte[] png = png(1000, 500);
+        assertEquals(1000, ImageDecoder.read(new ByteArrayInputStream(png), 600, 400).getWidth());
+        assertEquals(1000, ImageDecoder.read(new ByteArrayInputStream(png), 0, 0).getWidth());
+        assertThrows(IOException.class, () -> ImageDecoder.read(new ByteArrayInputStream(new byte[]{1, 2, 3}), 1, 1));
+    }
+
+    @Test
+    void stepsPerAxis() {
+        assertEquals(1, ImageDecoder.step(1000, 500));
+        assertEquals(2, ImageDecoder.step(1000, 250));
+        assertEquals(2, ImageDecoder.step(1000, 200));
+        assertEquals(1, ImageDecoder.step(1000, 0));
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++)
+                img.setRGB(x, y, 0x123456);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(img, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,85 @@
+package com.fileconverter.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.multipart.MultipartException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultipartStreamReaderTest {
+
+    private static final String BOUNDARY = "----boundary42";
+
+    @Test
+    void readsFieldsAndFileAcrossTinyReads() throws IOException {
+        byte[] content = new byte[200_000];
+        new Random(7).nextBytes(content);
+        // Plant a near-miss of the delimiter inside the file content
+        byte[] nearMiss = ("\r\n--" + BOUNDARY.substring(0, BOUNDARY.length() - 1) + "X").getBytes(StandardCharsets.ISO_8859_1);
+        System.arraycopy(nearMiss, 0, content, 1000, nearMiss.length);
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes(("preamble\r\n--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"width\"\r\n\r\n300\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"C:\\\\photos\\\\é.png\"\r\n"
+                + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(content);
+        body.writeBytes(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        MultipartStreamReader reader = new MultipartStreamReader(trickle(body.toByteArray()), BOUNDARY);
+
+        MultipartStreamReader.Part field = reader.nextPart();
+        assertEquals("width", field.name());
+        assertFalse(field.isFile());
+        assertEquals("300", reader.readString(100));
+
+        MultipartStreamReader.Part file = reader.nextPart();
+        assertEquals("é.png", file.fileName());
+        assertEquals("image/png", file.contentType());
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        assertEquals(content.length, reader.transferTo(received::write));
+        assertArrayEquals(content, received.toByteArray());
+
+        assertNull(reader.nextPart());
+    }
+
+    @Test
+    void skipsUnreadParts() throws IOException {
+        String body = "--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"a\"\r\n\r\nskipped\r\n"
+                + "--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"b\"\r\n\r\nkept\r\n"
+                + "--" + BOUNDARY + "--";
+        MultipartStreamReader reader = new MultipartStreamReader(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), BOUNDARY);
+        assertEquals("a", reader.nextPart().name());
+        assertEquals("b", reader.nextPart().name());
+        assertEquals("kept", reader.readString(100));
+        assertNull(reader.nextPart());
+    }
+
+    @Test
+    void rejectsTruncatedBody() throws IOException {
+        String body = "--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"a.csv\"\r\n\r\na,b\n";
+        MultipartStreamReader reader = new MultipartStreamReader(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), BOUNDARY);
+        reader.nextPart();
+        assertThrows(MultipartException.class, () -> reader.transferTo((b, off, len) -> { }));
+    }
+
+    /** Returns at most 7 bytes per read, so delimiters and headers straddle buffer refills. */
+    private static InputStream trickle(byte[] data) {
+        return new FilterInputStream(new ByteArrayInputStream(data)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 7));
+            }
+        };
+    }
+}
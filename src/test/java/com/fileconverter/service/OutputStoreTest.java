@@ -0,0 +1,75 @@
+package com.fileconverter.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutputStoreTest {
+
+    // No quota to speak of: every committed output is over it
+    private final OutputStore store = new OutputStore(60, 0, 30, 30);
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    void overQuotaSweepStepsOverOutputsBeingWrittenOrRead() throws IOException {
+        Path writing = store.allocate("writing.txt");
+        Path pinned = write(store.allocate("pinned.txt"));
+        Path done = write(store.allocate("done.txt"));
+        Files.writeString(writing, "half");
+        assertTrue(store.pin(pinned));
+
+        store.sweep();
+
+        assertTrue(Files.exists(writing));
+        assertTrue(Files.exists(pinned));
+        assertFalse(Files.exists(done));
+        assertEquals(2, store.getCount());
+
+        store.unpin(pinned);
+        store.sweep();
+        assertFalse(Files.exists(pinned));
+        assertFalse(store.pin(pinned));
+        // Committing is what puts an output within the janitor's reach
+        store.commit(write(writing));
+        store.sweep();
+        assertFalse(Files.exists(writing));
+        assertEquals(0, store.getCount());
+    }
+
+    @Test
+    void deleteAfterDownloadWaitsForDownloadsStillReading() throws Exception {
+        OutputStore noGrace = new OutputStore(60, 1024, 30, 0);
+        try {
+            Path output = noGrace.allocate("once.txt");
+            Files.writeString(output, "output");
+            noGrace.commit(output);
+            noGrace.markDeleteAfterDownload(output);
+            assertTrue(noGrace.pin(output));
+
+            noGrace.downloaded(output.getParent().getFileName().toString());
+            Thread.sleep(200);
+            assertTrue(Files.exists(output));
+
+            noGrace.unpin(output);
+            assertFalse(Files.exists(output));
+            assertEquals(0, noGrace.getCount());
+        } finally {
+            noGrace.shutdown();
+        }
+    }
+
+    private Path write(Path output) throws IOException {
+        Files.writeString(output, "output");
+        store.commit(output);
+        return output;
+    }
+}
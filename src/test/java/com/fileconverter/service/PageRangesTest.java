@@ -0,0 +1,32 @@
+package com.fileconverter.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageRangesTest {
+
+    @Test
+    void parsesSinglePagesAndOpenRanges() {
+        List<int[]> ranges = PageRanges.parse("1-3, 5, 8-", 10);
+        assertEquals(3, ranges.size());
+        assertArrayEquals(new int[]{0, 2}, ranges.get(0));
+        assertArrayEquals(new int[]{4, 4}, ranges.get(1));
+        assertArrayEquals(new int[]{7, 9}, ranges.get(2));
+    }
+
+    @Test
+    void blankSelectsWholeDocumentAndClampsPastTheEnd() {
+        assertArrayEquals(new int[]{0, 4}, PageRanges.parse(" ", 5).get(0));
+        assertEquals(List.of(3, 4), PageRanges.pages("4-99", 5));
+    }
+
+    @Test
+    void rejectsMalformedRanges() {
+        assertThrows(IllegalArgumentException.class, () -> PageRanges.parse("3-1", 5));
+        assertThrows(IllegalArgumentException.class, () -> PageRanges.parse("a-b", 5));
+        assertThrows(IllegalArgumentException.class, () -> PageRanges.parse("9", 5));
+    }
+}
@@ -0,0 +1,179 @@
+package com.fileconverter.service;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSInteger;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSString;
+import org.apache.pdfbox.pdfwriter.compress.CompressParameters;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.graphics.color.PDDeviceGray;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PdfCompressorTest {
+
+    @TempDir
+    Path dir;
+
+    private PdfCompressor compressor;
+
+    @BeforeEach
+    void setUp() {
+        compressor = new PdfCompressor(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        compressor.shutdown();
+    }
+
+    @Test
+    void downsamplesMergesDuplicatesAndDropsUnusedFonts() throws IOException {
+        Path input = dir.resolve("in.pdf");
+        BufferedImage photo = photo(1200, 900);
+        try (PDDocument doc = new PDDocument()) {
+            for (int i = 0; i < 2; i++) {
+                // The same picture embedded twice, as separate objects
+                PDImageXObject image = LosslessFactory.createFromImage(doc, photo);
+                PDPage page = new PDPage();
+                doc.addPage(page);
+                try (PDPageContentStream cs = new PDPageContentStream(doc, page)) {
+                    cs.beginText();
+                    cs.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                    cs.newLineAtOffset(50, 750);
+                    cs.showText("Page " + (i + 1));
+                    cs.endText();
+                    // 4 x 3 inches, so 300 DPI
+                    cs.drawImage(image, 50, 400, 288, 216);
+                }
+                page.getResources().put(COSName.getPDFName("Unused"), new PDType1Font(Standard14Fonts.FontName.COURIER));
+            }
+            doc.save(input.toFile());
+        }
+
+        Path output = dir.resolve("out.pdf");
+        PdfCompressor.Report report = compressor.compress(input, output, PdfCompressor.Preset.MEDIUM);
+
+        assertFalse(report.keptOriginal());
+        assertEquals(1, report.duplicatesMerged());
+        assertEquals(2, report.fontsRemoved());
+        assertEquals(1, report.imagesRecompressed());
+        assertEquals(1, report.imagesDownsampled());
+        assertTrue(report.outputBytes() < report.inputBytes() / 4, report.toString());
+
+        try (PDDocument doc = Loader.loadPDF(output.toFile())) {
+            PDImageXObject first = firstImage(doc.getPage(0));
+            PDImageXObject second = firstImage(doc.getPage(1));
+            assertSame(first.getCOSObject(), second.getCOSObject());
+            assertEquals(600, first.getWidth());
+            assertEquals(450, first.getHeight());
+            assertEquals(COSName.DCT_DECODE, first.getCOSObject().getDictionaryObject(COSName.FILTER));
+            assertNotNull(first.getImage());
+            assertNull(doc.getPage(0).getResources().getFont(COSName.getPDFName("Unused")));
+        }
+    }
+
+    @Test
+    void keepsTheOriginalWhenNothingCanBeSaved() throws IOException {
+        Path input = dir.resolve("text.pdf");
+        try (PDDocument doc = new PDDocument()) {
+            doc.addPage(new PDPage());
+            doc.save(input.toFile(), CompressParameters.DEFAULT_COMPRESSION);
+        }
+        PdfCompressor.Report report = compressor.compress(input, dir.resolve("out.pdf"), PdfCompressor.Preset.HIGH);
+        assertTrue(report.keptOriginal());
+        assertEquals(report.inputBytes(), report.outputBytes());
+    }
+
+    @Test
+    void palettedImagesKeepTheirColours() throws IOException {
+        Path input = dir.resolve("indexed.pdf");
+        int width = 600;
+        int height = 450;
+        try (PDDocument doc = new PDDocument()) {
+            // Index i is (i, 0, 255 - i): one component per pixel, but nothing like gray
+            byte[] palette = new byte[256 * 3];
+            for (int i = 0; i < 256; i++) {
+                palette[i * 3] = (byte) i;
+                palette[i * 3 + 2] = (byte) (255 - i);
+            }
+            COSArray indexed = new COSArray();
+            indexed.add(COSName.INDEXED);
+            indexed.add(COSName.DEVICERGB);
+            indexed.add(COSInteger.get(255));
+            indexed.add(new COSString(palette));
+
+            Random random = new Random(5);
+            byte[] indices = new byte[width * height];
+            for (int i = 0; i < indices.length; i++)
+                indices[i] = (byte) ((i % width) * 240 / width + random.nextInt(16));
+            ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+            try (DeflaterOutputStream out = new DeflaterOutputStream(deflated)) {
+                out.write(indices);
+            }
+            PDImageXObject image = new PDImageXObject(doc, new ByteArrayInputStream(deflated.toByteArray()),
+                    COSName.FLATE_DECODE, width, height, 8, PDDeviceGray.INSTANCE);
+            image.getCOSObject().setItem(COSName.COLORSPACE, indexed);
+
+            PDPage page = new PDPage();
+            doc.addPage(page);
+            try (PDPageContentStream cs = new PDPageContentStream(doc, page)) {
+                cs.drawImage(image, 50, 400, 288, 216);
+            }
+            doc.save(input.toFile());
+        }
+
+        Path output = dir.resolve("out.pdf");
+        PdfCompressor.Report report = compressor.compress(input, output, PdfCompressor.Preset.MEDIUM);
+        assertEquals(1, report.imagesRecompressed(), report.toString());
+
+        try (PDDocument doc = Loader.loadPDF(output.toFile())) {
+            PDImageXObject image = firstImage(doc.getPage(0));
+            assertEquals(COSName.DEVICERGB, image.getCOSObject().getDictionaryObject(COSName.COLORSPACE));
+            int rgb = image.getImage().getRGB(width - 10, height / 2);
+            assertTrue((rgb >>> 16 & 0xff) > 180 && (rgb & 0xff) < 80, Integer.toHexString(rgb));
+        }
+    }
+
+    private static PDImageXObject firstImage(PDPage page) throws IOException {
+        for (COSName name : page.getResources().getXObjectNames()) {
+            if (page.getResources().getXObject(name) instanceof PDImageXObject image)
+                return image;
+        }
+        throw new AssertionError("No image on page");
+    }
+
+    /** Smooth gradients with a little grain: compresses poorly losslessly, well as JPEG. */
+    private static BufferedImage photo(int width, int height) {
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(11);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int r = (x * 255 / width + random.nextInt(8)) & 0xff;
+                int g = (y * 255 / height + random.nextInt(8)) & 0xff;
+                int b = ((x + y) * 255 / (width + height) + random.nextInt(8)) & 0xff;
+                img.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        return img;
+    }
+}
@@ -0,0 +1,118 @@
+package com.fileconverter.service;
+
+import net.coobird.thumbnailator.util.exif.Orientation;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.util.Matrix;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PdfImageAssemblerTest {
+
+    @TempDir
+    Path dir;
+
+    private PdfImageAssembler assembler;
+
+    @BeforeEach
+    void setUp() {
+        assembler = new PdfImageAssembler(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        assembler.shutdown();
+    }
+
+    @Test
+    void embedsJpegsAsIsAndKeepsInputOrder() throws IOException {
+        Path jpeg = image("photo.jpg", "jpg", 640, 480, BufferedImage.TYPE_INT_RGB);
+        Path png = image("icon.png", "png", 200, 300, BufferedImage.TYPE_INT_ARGB);
+        Path junk = Files.writeString(dir.resolve("notes.png"), "not an image");
+        Path output = dir.resolve("out.pdf");
+
+        PdfImageAssembler.Report report = assembler.assemble(List.of(png, junk, jpeg), output,
+                PdfImageAssembler.PageSize.FIT, 0);
+
+        assertEquals(new PdfImageAssembler.Report(2, 1, 1), report);
+        try (PDDocument pdf = Loader.loadPDF(output.toFile())) {
+            PDImageXObject first = image(pdf.getPage(0));
+            assertEquals(200, first.getWidth());
+            assertNotNull(first.getCOSObject().getCOSStream(COSName.SMASK));
+            assertEquals(200, pdf.getPage(0).getMediaBox().getWidth(), 0.01);
+            assertEquals(300, pdf.getPage(0).getMediaBox().getHeight(), 0.01);
+
+            PDImageXObject second = image(pdf.getPage(1));
+            assertEquals(COSName.DCT_DECODE, second.getCOSObject().getDictionaryObject(COSName.FILTER));
+            // The file's own bytes, not a re-encode
+            try (InputStream raw = second.getCOSObject().createRawInputStream()) {
+                assertArrayEquals(Files.readAllBytes(jpeg), raw.readAllBytes());
+            }
+        }
+    }
+
+    @Test
+    void fitsImagesOnPresetPagesAndCapsTheirSize() throws IOException {
+        Path wide = image("wide.jpg", "jpg", 3000, 1000, BufferedImage.TYPE_INT_RGB);
+        Path output = dir.resolve("out.pdf");
+
+        PdfImageAssembler.Report report = assembler.assemble(List.of(wide), output,
+                PdfImageAssembler.PageSize.A4, 1500);
+
+        assertEquals(0, report.embeddedAsIs());
+        try (PDDocument pdf = Loader.loadPDF(output.toFile())) {
+            PDPage page = pdf.getPage(0);
+            // Landscape A4 for a landscape picture
+            assertEquals(PDRectangle.A4.getHeight(), page.getMediaBox().getWidth(), 0.01);
+            PDImageXObject image = image(page);
+            assertEquals(1500, image.getWidth());
+            assertEquals(500, image.getHeight());
+        }
+    }
+
+    @Test
+    void placementTurnsQuarterTurnedJpegsUpright() {
+        // Stored 400 x 300, shown 300 wide and 400 high: the first stored row becomes the right-hand column
+        Matrix m = PdfImageAssembler.placement(
+                new ImageDecoder.Header("jpeg", 400, 300, Orientation.RIGHT_TOP), 10, 20, 300, 400);
+        assertEquals(new Point2D.Float(310, 420), m.transformPoint(0, 1));
+        assertEquals(new Point2D.Float(310, 20), m.transformPoint(1, 1));
+        assertEquals(new Point2D.Float(10, 420), m.transformPoint(0, 0));
+    }
+
+    private Path image(String name, String format, int width, int height, int type) throws IOException {
+        BufferedImage img = new BufferedImage(width, height, type);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++)
+                img.setRGB(x, y, 0x80000000 | (x % 256) << 16 | (y % 256) << 8 | 0x40);
+        }
+        Path path = dir.resolve(name);
+        ImageIO.write(img, format, path.toFile());
+        return path;
+    }
+
+    private static PDImageXObject image(PDPage page) throws IOException {
+        for (COSName name : page.getResources().getXObjectNames()) {
+            if (page.getResources().getXObject(name) instanceof PDImageXObject image)
+                return image;
+        }
+        throw new AssertionError("No image on page");
+    }
+}
@@ -0,0 +1,81 @@
+package com.fileconverter.service;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDDocumentOutline;
+import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDOutlineItem;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PdfMergerTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void mergesPageRangesAndKeepsOutlinesOfKeptPages() throws IOException {
+        Path a = document("a.pdf", "A", 5);
+        Path b = document("b.pdf", "B", 2);
+        Path output = dir.resolve("merged.pdf");
+
+        int pages = new PdfMerger(1).merge(List.of(
+                new PdfMerger.Source(a, "2-3"),
+                new PdfMerger.Source(b, null)), output);
+
+        assertEquals(4, pages);
+        try (PDDocument merged = Loader.loadPDF(output.toFile())) {
+            assertEquals(4, merged.getNumberOfPages());
+            String text = new PDFTextStripper().getText(merged);
+            assertTrue(text.indexOf("A2") < text.indexOf("A3") && text.indexOf("A3") < text.indexOf("B1"), text);
+            assertFalse(text.contains("A1") || text.contains("A4"), text);
+
+            List<String> titles = new ArrayList<>();
+            PDDocumentOutline outline = merged.getDocumentCatalog().getDocumentOutline();
+            for (PDOutlineItem item : outline.children()) {
+                titles.add(item.getTitle());
+                assertNotNull(item.findDestinationPage(merged));
+            }
+            assertEquals(List.of("A2", "A3", "B1", "B2"), titles);
+            assertEquals(4, outline.getOpenCount());
+        }
+    }
+
+    /** One page per bookmark, each page reading {@code <prefix><n>}. */
+    private Path document(String name, String prefix, int pageCount) throws IOException {
+        Path path = dir.resolve(name);
+        try (PDDocument doc = new PDDocument()) {
+            PDDocumentOutline outline = new PDDocumentOutline();
+            doc.getDocumentCatalog().setDocumentOutline(outline);
+            for (int p = 1; p <= pageCount; p++) {
+                PDPage page = new PDPage();
+                doc.addPage(page);
+                try (PDPageContentStream cs = new PDPageContentStream(doc, page)) {
+                    cs.beginText();
+                    cs.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                    cs.newLineAtOffset(50, 700);
+                    cs.showText(prefix + p);
+                    cs.endText();
+                }
+                PDOutlineItem item = new PDOutlineItem();
+                item.setTitle(prefix + p);
+                item.setDestination(page);
+                outline.addLast(item);
+            }
+            outline.openNode();
+            doc.save(path.toFile());
+        }
+        return path;
+    }
+}
@@ -0,0 +1,83 @@
+package com.fileconverter.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PdfTextExtractorTest {
+
+    @TempDir
+    Path dir;
+
+    private final PdfTextExtractor extractor = new PdfTextExtractor(2);
+
+    @AfterEach
+    void tearDown() {
+        extractor.shutdown();
+    }
+
+    @Test
+    void runsOfPagesGiveTheSameTextAsPageByPage() throws IOException {
+        try (PDDocument doc = pdf(6)) {
+            List<Integer> pages = List.of(0, 1, 2, 4, 5, 3);
+            StringBuilder expected = new StringBuilder();
+            for (int page : pages) {
+                PDFTextStripper stripper = new PDFTextStripper();
+                stripper.setLineSeparator("\n");
+                stripper.setStartPage(page + 1);
+                stripper.setEndPage(page + 1);
+                expected.append("--- Page ").append(page + 1).append(" ---\n").append(stripper.getText(doc));
+            }
+            assertEquals(expected.toString(), PdfTextExtractor.extractChunk(doc, pages, false, true));
+        }
+    }
+
+    @Test
+    void writesSelectedPagesInOrder() throws IOException {
+        Path input = dir.resolve("in.pdf");
+        try (PDDocument doc = pdf(40)) {
+            doc.save(input.toFile());
+        }
+        Path out = dir.resolve("out.txt");
+
+        assertEquals(21, extractor.extractToFile(input, "20-40", false, true, 2, out));
+
+        String text = Files.readString(out);
+        assertTrue(text.startsWith("--- Page 20 ---\nLine on page 20"));
+        assertTrue(text.indexOf("Line on page 39") < text.indexOf("--- Page 40 ---"));
+        assertFalse(text.contains("page 19"));
+    }
+
+    /** Pages with one line of text each, except page 4, which is empty. */
+    private static PDDocument pdf(int pages) throws IOException {
+        PDDocument doc = new PDDocument();
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        for (int i = 1; i <= pages; i++) {
+            PDPage page = new PDPage();
+            doc.addPage(page);
+            if (i == 4)
+                continue;
+            try (PDPageContentStream cs = new PDPageContentStream(doc, page)) {
+                cs.beginText();
+                cs.setFont(font, 12);
+                cs.newLineAtOffset(72, 700);
+                cs.showText("Line on page " + i);
+                cs.endText();
+            }
+        }
+        return doc;
+    }
+}
@@ -0,0 +1,115 @@
+package com.fileconverter.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PdfWorkersTest {
+
+    private final ExecutorService pool = PdfWorkers.newPool(2, "test-workers");
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void passesResultsInItemOrder() throws IOException {
+        List<Integer> seen = new ArrayList<>();
+        try (PdfWorkers workers = new PdfWorkers(pool, "testing")) {
+            workers.add(new PDDocument());
+            workers.add(new PDDocument());
+            List<Integer> items = IntStream.range(0, 50).boxed().toList();
+            workers.runInOrder(items, (doc, i) -> {
+                // Later items finish first
+                Thread.sleep((50 - i) % 5);
+                return i * 10;
+            }, (index, result) -> {
+                assertEquals(index * 10, result);
+                seen.add(index);
+            });
+        }
+        assertEquals(IntStream.range(0, 50).boxed().toList(), seen);
+    }
+
+    @Test
+    void leavesPoolThreadsToOtherJobsWhileItsCopiesAreBusy() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PdfWorkers busy = new PdfWorkers(pool, "testing");
+        busy.add(new PDDocument());
+        CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> {
+            try {
+                busy.runInOrder(List.of(0, 1, 2), (doc, i) -> {
+                    release.await();
+                    return i;
+                }, (index, result) -> {
+                });
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(200);
+
+        try (PdfWorkers other = new PdfWorkers(pool, "testing")) {
+            other.add(new PDDocument());
+            List<Integer> seen = new ArrayList<>();
+            assertTimeoutPreemptively(Duration.ofSeconds(5),
+                    () -> other.runInOrder(List.of(7), (doc, i) -> i, (index, result) -> seen.add(result)));
+            assertEquals(List.of(7), seen);
+        } finally {
+            release.countDown();
+            blocked.get(5, TimeUnit.SECONDS);
+            busy.close();
+        }
+    }
+
+    @Test
+    void closeWaitsForRunningTasksBeforeClosingTheirDocuments() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean closedUnderTask = new AtomicBoolean();
+        PdfWorkers workers = new PdfWorkers(pool, "testing");
+        workers.add(new PDDocument());
+        workers.add(new PDDocument());
+
+        IOException failure = assertThrows(IOException.class, () -> workers.runInOrder(List.of(0, 1),
+                (doc, i) -> {
+                    if (i == 0) {
+                        started.await();
+                        throw new IOException("broken page");
+                    }
+                    started.countDown();
+                    release.await();
+                    closedUnderTask.set(doc.getDocument().isClosed());
+                    return i;
+                }, (index, result) -> {
+                }));
+        assertEquals("broken page", failure.getMessage());
+
+        CompletableFuture<Void> closing = CompletableFuture.runAsync(() -> {
+            try {
+                workers.close();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(200);
+        assertFalse(closing.isDone(), "close() returned while a task still held a document");
+        release.countDown();
+        closing.get(5, TimeUnit.SECONDS);
+        assertFalse(closedUnderTask.get());
+    }
+}
@@ -0,0 +1,86 @@
+package com.fileconverter.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fileconverter.model.PipelineStage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineServiceTest {
+
+    // validate only asks the conversion service which tools are multi-input; nothing is converted
+    private final PipelineService pipelines = new PipelineService(
+            new ConversionService(null, null, null, null, null, null, null, null, null, null),
+            null, null, new ToolRegistryService(), null, new ObjectMapper(), 20);
+
+    @AfterEach
+    void tearDown() {
+        pipelines.shutdown();
+    }
+
+    @Test
+    void ordersStagesAfterTheirInputs() {
+        List<PipelineStage> stages = List.of(
+                stage("merge", "pdf-merge", "a", "b"),
+                stage("b", "word-to-pdf"),
+                stage("text", "pdf-to-txt", "merge"),
+                stage("a", "word-to-pdf"));
+
+        List<String> order = pipelines.validate(stages).stream().map(PipelineStage::getId).toList();
+
+        assertEquals(4, order.size());
+        assertTrue(order.indexOf("a") < order.indexOf("merge"));
+        assertTrue(order.indexOf("b") < order.indexOf("merge"));
+        assertTrue(order.indexOf("merge") < order.indexOf("text"));
+    }
+
+    @Test
+    void rejectsReferencesToUnknownStages() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> pipelines.validate(List.of(
+                stage("a", "word-to-pdf"),
+                stage("b", "pdf-compress", "nope"))));
+        assertEquals("Stage b reads unknown stage nope", e.getMessage());
+    }
+
+    @Test
+    void rejectsCycles() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> pipelines.validate(List.of(
+                stage("a", "pdf-compress", "c"),
+                stage("b", "pdf-compress", "a"),
+                stage("c", "pdf-compress", "b"))));
+        assertTrue(e.getMessage().startsWith("Pipeline has a cycle through stage"), e.getMessage());
+
+        assertThrows(IllegalArgumentException.class, () -> pipelines.validate(List.of(
+                stage("self", "pdf-compress", "self"))));
+    }
+
+    @Test
+    void onlyMultiInputToolsTakeSeveralStages() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> pipelines.validate(List.of(
+                stage("a", "word-to-pdf"),
+                stage("b", "word-to-pdf"),
+                stage("c", "pdf-compress", "a", "b"))));
+        assertEquals("Stage c: pdf-compress takes a single input", e.getMessage());
+
+        assertDoesNotThrow(() -> pipelines.validate(List.of(
+                stage("a", "word-to-pdf"),
+                stage("b", "word-to-pdf"),
+                stage("c", "pdf-merge", "a", "b"))));
+    }
+
+    @Test
+    void rejectsUnknownToolsAndDuplicateIds() {
+        assertThrows(IllegalArgumentException.class, () -> pipelines.validate(List.of(stage("a", "no-such-tool"))));
+        assertThrows(IllegalArgumentException.class, () -> pipelines.validate(List.of(
+                stage("a", "word-to-pdf"),
+                stage("a", "pdf-compress"))));
+    }
+
+    private static PipelineStage stage(String id, String tool, String... after) {
+        return PipelineStage.builder().id(id).tool(tool).after(new ArrayList<>(List.of(after))).build();
+    }
+}
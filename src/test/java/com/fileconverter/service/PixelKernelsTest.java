@@ -0,0 +1,136 @@
+package com.fileconverter.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class PixelKernelsTest {
+
+    // Over one tile, and not a multiple of any vector length
+    private static final int WIDTH = 701;
+    private static final int HEIGHT = 401;
+    private static final int[] TYPES = {BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB,
+            BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR};
+
+    private final PixelKernels scalar = new PixelKernels(2, false);
+    private final PixelKernels vector = new PixelKernels(2, true);
+
+    @AfterEach
+    void tearDown() {
+        scalar.shutdown();
+        vector.shutdown();
+    }
+
+    @Test
+    void grayscaleMatchesJava2D() throws IOException {
+        for (int type : TYPES) {
+            BufferedImage src = random(type);
+            BufferedImage expected = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_BYTE_GRAY);
+            Graphics2D g = expected.createGraphics();
+            g.drawImage(src, 0, 0, null);
+            g.dispose();
+
+            BufferedImage gray = scalar.grayscale(src);
+            assertEquals(BufferedImage.TYPE_BYTE_GRAY, gray.getType());
+            assertWithinOne(bytes(expected), bytes(gray), "type " + type);
+        }
+    }
+
+    @Test
+    void flattenMatchesJava2DOnWhite() throws IOException {
+        for (int type : TYPES) {
+            BufferedImage src = random(type);
+            BufferedImage expected = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = expected.createGraphics();
+            g.drawImage(src, 0, 0, Color.WHITE, null);
+            g.dispose();
+
+            BufferedImage rgb = scalar.flattenOnWhite(src);
+            assertEquals(BufferedImage.TYPE_INT_RGB, rgb.getType());
+            int[] want = ints(expected);
+            int[] got = ints(rgb);
+            for (int shift = 0; shift <= 16; shift += 8) {
+                byte[] wantChannel = new byte[want.length];
+                byte[] gotChannel = new byte[got.length];
+                for (int i = 0; i < want.length; i++) {
+                    wantChannel[i] = (byte) (want[i] >>> shift);
+                    gotChannel[i] = (byte) (got[i] >>> shift);
+                }
+                assertWithinOne(wantChannel, gotChannel, "type " + type + " shift " + shift);
+            }
+        }
+    }
+
+    @Test
+    void vectorKernelsGiveTheScalarBytes() throws IOException {
+        assumeTrue(vector.isVectorized(), "run with --add-modules jdk.incubator.vector");
+        for (int type : TYPES) {
+            BufferedImage src = random(type);
+            assertArrayEquals(bytes(scalar.grayscale(src)), bytes(vector.grayscale(src)), "type " + type);
+            assertArrayEquals(ints(scalar.flattenOnWhite(src)), ints(vector.flattenOnWhite(src)), "type " + type);
+        }
+    }
+
+    @Test
+    void otherLayoutsGoThroughJava2D() throws IOException {
+        BufferedImage indexed = new BufferedImage(10, 10, BufferedImage.TYPE_BYTE_INDEXED);
+        assertNull(PixelKernels.layout(indexed));
+        BufferedImage sub = random(BufferedImage.TYPE_INT_RGB).getSubimage(5, 5, 20, 20);
+        assertNull(PixelKernels.layout(sub));
+
+        BufferedImage gray = scalar.grayscale(sub);
+        assertEquals(20, gray.getWidth());
+        assertEquals(BufferedImage.TYPE_INT_RGB, scalar.flattenOnWhite(indexed).getType());
+    }
+
+    @Test
+    void divisionBy255IsExactlyRounded() {
+        for (int x = 0; x <= 255 * 255; x++) {
+            int expected = Math.round(x / 255f);
+            assertEquals(expected, PixelKernels.div255(x), "x = " + x);
+            assertEquals(expected << 16 | expected, PixelKernels.div255x2(x << 16 | x), "x = " + x);
+        }
+    }
+
+    private static BufferedImage random(int type) {
+        BufferedImage img = new BufferedImage(WIDTH, HEIGHT, type);
+        Random random = new Random(type);
+        int[] argb = new int[WIDTH * HEIGHT];
+        for (int i = 0; i < argb.length; i++) {
+            argb[i] = random.nextInt();
+            // Plenty of fully opaque and fully transparent pixels, as in real images
+            if (i % 3 == 0)
+                argb[i] |= 0xff000000;
+            else if (i % 7 == 0)
+                argb[i] &= 0x00ffffff;
+        }
+        img.setRGB(0, 0, WIDTH, HEIGHT, argb, 0, WIDTH);
+        return img;
+    }
+
+    private static byte[] bytes(BufferedImage img) {
+        return ((DataBufferByte) img.getRaster().getDataBuffer()).getData();
+    }
+
+    private static int[] ints(BufferedImage img) {
+        return ((DataBufferInt) img.getRaster().getDataBuffer()).getData();
+    }
+
+    private static void assertWithinOne(byte[] expected, byte[] actual, String what) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            if (Math.abs((expected[i] & 0xff) - (actual[i] & 0xff)) > 1)
+                fail(what + ": pixel " + i + " is " + (actual[i] & 0xff) + ", Java2D gives " + (expected[i] & 0xff));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.fileconverter.service;
+
+import com.fileconverter.model.ConversionOptions;
+import com.fileconverter.model.ConversionResult;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultCacheTest {
+
+    private static final String INPUT = "ab".repeat(32);
+
+    @Test
+    void hitsLinkTheCachedOutputInsteadOfCopyingIt() throws IOException {
+        ResultCache cache = new ResultCache(true, 16);
+        cache.start();
+        OutputStore outputs = new OutputStore(60, 1024, 30, 30);
+        try {
+            Path output = outputs.allocate("report.txt");
+            Files.writeString(output, "converted");
+            outputs.commit(output);
+            ConversionResult result = ConversionResult.builder().success(true).fileName("report.txt").build();
+            cache.put("k", "report", result, output);
+
+            ConversionResult hit = cache.get("k", "summary", outputs);
+            assertEquals("summary.txt", hit.getFileName());
+            assertEquals("converted", Files.readString(hit.getOutputPath()));
+            assertEquals(2, Files.getAttribute(hit.getOutputPath(), "unix:nlink"));
+            assertNull(cache.get("other", "summary", outputs));
+        } finally {
+            outputs.shutdown();
+        }
+    }
+
+    @Test
+    void optionsTheToolIgnoresDoNotChangeTheKey() {
+        ConversionOptions plain = new ConversionOptions();
+        ConversionOptions other = ConversionOptions.builder()
+                .deleteAfterDownload(true)
+                .dpi(300)
+                .splitMode("every")
+                .jsonFormat("ndjson")
+                .build();
+        assertEquals(ResultCache.key(INPUT, "pdf-compress", plain), ResultCache.key(INPUT, "pdf-compress", other));
+        assertEquals(ResultCache.key(INPUT, "image-to-grayscale", plain),
+                ResultCache.key(INPUT, "image-to-grayscale", other));
+    }
+
+    @Test
+    void optionsTheToolReadsDo() {
+        ConversionOptions plain = new ConversionOptions();
+        assertNotEquals(ResultCache.key(INPUT, "pdf-compress", plain),
+                ResultCache.key(INPUT, "pdf-compress", ConversionOptions.builder().compressionLevel("high").build()));
+        assertNotEquals(ResultCache.key(INPUT, "csv-to-json", plain),
+                ResultCache.key(INPUT, "csv-to-json", ConversionOptions.builder().jsonFormat("ndjson").build()));
+        assertNotEquals(ResultCache.key(INPUT, "pdf-compress", plain), ResultCache.key(INPUT, "pdf-split", plain));
+        // Only the split mode's own parameter counts
+        ConversionOptions everyTwo = ConversionOptions.builder().splitMode("every").splitEvery(2).build();
+        assertNotEquals(ResultCache.key(INPUT, "pdf-split", everyTwo),
+                ResultCache.key(INPUT, "pdf-split", ConversionOptions.builder().splitMode("every").build()));
+        assertEquals(ResultCache.key(INPUT, "pdf-split", everyTwo), ResultCache.key(INPUT, "pdf-split",
+                ConversionOptions.builder().splitMode("every").splitEvery(2).maxPartSizeMb(50).build()));
+    }
+}
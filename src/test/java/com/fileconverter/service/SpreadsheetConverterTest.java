@@ -0,0 +1,29 @@
+package com.fileconverter.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpreadsheetConverterTest {
+
+    @Test
+    void numbersUpToFifteenSignificantDigitsAreTyped() {
+        assertTrue(SpreadsheetConverter.isNumber("0"));
+        assertTrue(SpreadsheetConverter.isNumber("-42.5"));
+        assertTrue(SpreadsheetConverter.isNumber("1.5e10"));
+        assertTrue(SpreadsheetConverter.isNumber("123456789012345"));
+        assertTrue(SpreadsheetConverter.isNumber("12345678.9012345"));
+        // Leading zeros of a fraction don't count
+        assertTrue(SpreadsheetConverter.isNumber("0.000123456789012345"));
+    }
+
+    @Test
+    void textThatWouldLoseDigitsOrZerosStaysText() {
+        assertFalse(SpreadsheetConverter.isNumber("123456789012345.123456789012345"));
+        assertFalse(SpreadsheetConverter.isNumber("1234567890123456"));
+        assertFalse(SpreadsheetConverter.isNumber("12345678.90123456"));
+        assertFalse(SpreadsheetConverter.isNumber("007"));
+        assertFalse(SpreadsheetConverter.isNumber("1."));
+        assertFalse(SpreadsheetConverter.isNumber("abc"));
+    }
+}